@@ -0,0 +1,369 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class AsteroidRunBenchmarks
+{
+    /** The asteroid counts each benchmark is run with when none are provided, starting at the game's own 15 */
+    private static final int[] DEFAULT_ASTEROID_COUNTS = {15, 100, 1000, 10000, 20000};
+    /** The amount of time each benchmark runs before it is measured, letting the JIT compile it (in nanos) */
+    private static final long WARMUP_TIME = 1000000000L;
+    /** The number of measured iterations for each benchmark */
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    /** The amount of time each measured iteration runs for (in nanos) */
+    private static final long ITERATION_TIME = 500000000L;
+    /** The amount of time a batch of operations should take, so timing calls do not skew fast operations (in nanos) */
+    private static final long TARGET_BATCH_TIME = 100000L;
+    /** The number of pre-generated random positions the collision benchmarks cycle through */
+    private static final int NUM_POSITIONS = 1024;
+
+    /** Consumes the result of every operation so that the JIT cannot remove the work */
+    private static volatile long sink;
+
+    /** The thread MXBean used to count the bytes allocated by the benchmark thread */
+    private com.sun.management.ThreadMXBean threadMXBean;
+    /** Only benchmarks whose names contain this text are run, or all of them if it is empty */
+    private String filter;
+
+    /** Creates the GameSimulations used by the benchmarks with the sizes of the game's images */
+    private HeadlessRunner headlessRunner;
+    /** The ImageLoader used to load the game's images */
+    private ImageLoader imageLoader;
+
+    /**
+     * Create the AsteroidRunBenchmarks, a small benchmark harness for the hot paths of the simulation.
+     * Every benchmark is warmed up and then measured over several iterations, reporting the time per
+     * operation and the bytes allocated per operation along with the allocation rate, which is the same
+     * thread allocation counter used by JMH's GC profiler.
+     * @param filter Only benchmarks whose names contain this text are run, or all of them if it is empty.
+     */
+    public AsteroidRunBenchmarks(String filter)
+    {
+        //Store the filter and get the thread MXBean
+        this.filter = filter;
+        threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        //Load the images used by the benchmarks
+        headlessRunner = new HeadlessRunner(10);
+        imageLoader = new ImageLoader();
+        imageLoader.loadImagesFromFile("ImagesConfig.txt");
+    }
+
+    /**
+     * Run every benchmark for each of the asteroid counts. Benchmarks that do not depend on the number of
+     * asteroids are only run once.
+     * @param asteroidCounts The asteroid counts to run the benchmarks with.
+     */
+    public void runAll(int[] asteroidCounts)
+    {
+        //Print the header
+        System.out.println();
+        System.out.printf("%-40s %10s %14s %14s %14s%n", "Benchmark", "(asteroids)", "ns/op", "B/op", "MB/sec");
+
+        //Run the benchmarks that depend on the number of asteroids
+        for (int numAsteroids : asteroidCounts)
+        {
+            benchmarkCheckCollisions(numAsteroids);
+            benchmarkCheckAsteroidCollisions(numAsteroids);
+            benchmarkAsteroidUpdate(numAsteroids);
+            benchmarkAsteroidReset(numAsteroids);
+            benchmarkSpawnDespawn(numAsteroids);
+            benchmarkGameUpdate(numAsteroids);
+        }
+
+        //Run the benchmarks that do not
+        benchmarkSequencePlayer();
+        benchmarkKeyManager();
+    }
+
+    /**
+     * Benchmark AsteroidManager.checkCollisions() with the spaceship's collision mask placed at
+     * random positions. The spaceship flag is not set so that hits do not change the game.
+     * @param numAsteroids The number of asteroids in the game.
+     */
+    private void benchmarkCheckCollisions(int numAsteroids)
+    {
+        //Create the game and the random positions of the box
+        GameSimulation gameSimulation = createSimulation(numAsteroids);
+        AsteroidManager asteroidManager = gameSimulation.getAsteroidManager();
+        Spaceship spaceship = gameSimulation.getSpaceship();
+        int[] xPositions = createPositions(GameSimulation.WIDTH, 1);
+        int[] yPositions = createPositions(GameSimulation.HEIGHT, 2);
+        int[] index = new int[1];
+
+        runBenchmark("AsteroidManager.checkCollisions", numAsteroids, () ->
+        {
+            int i = index[0] = (index[0] + 1) & (NUM_POSITIONS - 1);
+            return asteroidManager.checkCollisions(xPositions[i], yPositions[i], spaceship.getMask(), false) ? 1 : 0;
+        });
+    }
+
+    /**
+     * Benchmark AsteroidManager.checkAsteroidCollisions() for each asteroid in turn.
+     * @param numAsteroids The number of asteroids in the game.
+     */
+    private void benchmarkCheckAsteroidCollisions(int numAsteroids)
+    {
+        //Create the game
+        AsteroidManager asteroidManager = createSimulation(numAsteroids).getAsteroidManager();
+        int[] index = new int[1];
+
+        runBenchmark("AsteroidManager.checkAsteroidCollisions", numAsteroids, () ->
+        {
+            int i = index[0] = (index[0] + 1) % numAsteroids;
+            return asteroidManager.checkAsteroidCollisions(asteroidManager.getXPos(i), asteroidManager.getYPos(i),
+                    asteroidManager.getMask(i), i) ? 1 : 0;
+        });
+    }
+
+    /**
+     * Benchmark AsteroidManager.update(index) for each asteroid in turn.
+     * @param numAsteroids The number of asteroids in the game.
+     */
+    private void benchmarkAsteroidUpdate(int numAsteroids)
+    {
+        //Create the game
+        AsteroidManager asteroidManager = createSimulation(numAsteroids).getAsteroidManager();
+        int[] index = new int[1];
+
+        runBenchmark("AsteroidManager.update(index)", numAsteroids, () ->
+        {
+            int i = index[0] = (index[0] + 1) % numAsteroids;
+            asteroidManager.update(i);
+            return asteroidManager.getXPos(i);
+        });
+    }
+
+    /**
+     * Benchmark AsteroidManager.reset(index) for each asteroid in turn.
+     * @param numAsteroids The number of asteroids in the game.
+     */
+    private void benchmarkAsteroidReset(int numAsteroids)
+    {
+        //Create the game
+        AsteroidManager asteroidManager = createSimulation(numAsteroids).getAsteroidManager();
+        int[] index = new int[1];
+
+        runBenchmark("AsteroidManager.reset(index)", numAsteroids, () ->
+        {
+            int i = index[0] = (index[0] + 1) % numAsteroids;
+            asteroidManager.reset(i);
+            return asteroidManager.getXPos(i);
+        });
+    }
+
+    /**
+     * Benchmark AsteroidManager.spawn() followed by AsteroidManager.despawn(index) of an asteroid cycling through
+     * the indices, which keeps the number of asteroids steady. Once the pool has grown this should not allocate.
+     * @param numAsteroids The number of asteroids in the game.
+     */
+    private void benchmarkSpawnDespawn(int numAsteroids)
+    {
+        //Create the game
+        AsteroidManager asteroidManager = createSimulation(numAsteroids).getAsteroidManager();
+        int[] index = new int[1];
+
+        runBenchmark("AsteroidManager.spawn/despawn", numAsteroids, () ->
+        {
+            int spawned = asteroidManager.spawn();
+            int i = index[0] = (index[0] + 1) % numAsteroids;
+            asteroidManager.despawn(i);
+            return spawned;
+        });
+    }
+
+    /**
+     * Benchmark a full game update tick, doing the same work as AsteroidRunPanel.gameUpdate(): the keys are
+     * read, the simulation is stepped, and the background and animations are advanced.
+     * @param numAsteroids The number of asteroids in the game.
+     */
+    private void benchmarkGameUpdate(int numAsteroids)
+    {
+        //Create the game, the keyManager, and a renderer that is never drawn
+        GameSimulation gameSimulation = createSimulation(numAsteroids);
+        KeyManager keyManager = new KeyManager();
+        Font font = new Font("SansSerif", Font.BOLD, 19);
+        Graphics2D graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        GameRenderer gameRenderer = new GameRenderer(gameSimulation, imageLoader, font, graphics.getFontMetrics(font));
+        graphics.dispose();
+
+        runBenchmark("AsteroidRunPanel.gameUpdate", numAsteroids, () ->
+        {
+            keyManager.update();
+            gameSimulation.step(keyManager.getInput());
+            gameRenderer.update();
+            return gameSimulation.getTickCount();
+        });
+    }
+
+    /**
+     * Benchmark SequencePlayer.update() and SequencePlayer.getCurrentImage() using the spaceship's animation.
+     */
+    private void benchmarkSequencePlayer()
+    {
+        //Create the SequencePlayer
+        SequencePlayer sequencePlayer = new SequencePlayer(Spaceship.IMAGE_NAME, 1, 1000000000L/60, imageLoader);
+
+        runBenchmark("SequencePlayer.update", 0, () ->
+        {
+            sequencePlayer.update();
+            return 0;
+        });
+        runBenchmark("SequencePlayer.getCurrentImage", 0, () -> sequencePlayer.getCurrentImage().getWidth());
+    }
+
+    /**
+     * Benchmark KeyManager.update().
+     */
+    private void benchmarkKeyManager()
+    {
+        //Create the KeyManager
+        KeyManager keyManager = new KeyManager();
+
+        runBenchmark("KeyManager.update", 0, () ->
+        {
+            keyManager.update();
+            return keyManager.getInput();
+        });
+    }
+
+    /**
+     * Create an invulnerable GameSimulation with the given number of asteroids, so that it never ends.
+     * @param numAsteroids The number of asteroids in the game.
+     * @return The new GameSimulation.
+     */
+    private GameSimulation createSimulation(int numAsteroids)
+    {
+        GameSimulation gameSimulation = headlessRunner.createSimulation(numAsteroids);
+        gameSimulation.setInvulnerable(true);
+        return gameSimulation;
+    }
+
+    /**
+     * Create NUM_POSITIONS random positions along one axis of the playing field.
+     * @param bound The size of the axis.
+     * @param seed The seed used to generate the positions.
+     * @return The positions.
+     */
+    private static int[] createPositions(int bound, long seed)
+    {
+        Random rng = new Random(seed);
+        int[] positions = new int[NUM_POSITIONS];
+        for (int i = 0; i < positions.length; i++)
+        {
+            positions[i] = rng.nextInt(bound);
+        }
+        return positions;
+    }
+
+    /**
+     * Warm up and measure a single benchmark, then print the results. Operations are run in batches that
+     * take around TARGET_BATCH_TIME so that reading the clock does not skew the results of fast operations.
+     * @param name The name of the benchmark.
+     * @param numAsteroids The number of asteroids in the game, or zero if the benchmark does not depend on it.
+     * @param operation The operation being measured, its result is consumed so the work cannot be removed.
+     */
+    private void runBenchmark(String name, int numAsteroids, LongSupplier operation)
+    {
+        //Skip benchmarks that do not match the filter
+        if (!name.contains(filter))
+        {
+            return;
+        }
+
+        //Warm up, doubling the batch size until a batch takes long enough to time
+        int batchSize = 1;
+        long result = 0L;
+        long warmupEnd = System.nanoTime() + WARMUP_TIME;
+        while (System.nanoTime() < warmupEnd)
+        {
+            long batchStart = System.nanoTime();
+            for (int i = 0; i < batchSize; i++)
+            {
+                result = result + operation.getAsLong();
+            }
+            if (System.nanoTime() - batchStart < TARGET_BATCH_TIME && batchSize < (1 << 30))
+            {
+                batchSize = batchSize * 2;
+            }
+        }
+
+        //Measure
+        long threadId = Thread.currentThread().getId();
+        long totalOperations = 0L;
+        long totalTime = 0L;
+        long totalBytes = 0L;
+        for (int iteration = 0; iteration < MEASUREMENT_ITERATIONS; iteration++)
+        {
+            long operations = 0L;
+            long bytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+            long startTime = System.nanoTime();
+            long iterationEnd = startTime + ITERATION_TIME;
+            long currentTime;
+            do
+            {
+                for (int i = 0; i < batchSize; i++)
+                {
+                    result = result + operation.getAsLong();
+                }
+                operations = operations + batchSize;
+                currentTime = System.nanoTime();
+            }
+            while (currentTime < iterationEnd);
+            totalTime = totalTime + (currentTime - startTime);
+            totalBytes = totalBytes + (threadMXBean.getThreadAllocatedBytes(threadId) - bytesBefore);
+            totalOperations = totalOperations + operations;
+        }
+        sink = result;
+
+        //Print the results
+        double nanosPerOperation = (double) totalTime/totalOperations;
+        double bytesPerOperation = (double) totalBytes/totalOperations;
+        double megabytesPerSecond = (totalBytes/(1024.0 * 1024.0))/(totalTime/1000000000.0);
+        System.out.printf("%-40s %10s %14.1f %14.1f %14.1f%n", name, numAsteroids > 0 ? numAsteroids : "-",
+                nanosPerOperation, bytesPerOperation, megabytesPerSecond);
+    }
+
+    /**
+     * Run the benchmarks. The first command line argument only runs benchmarks whose names contain it,
+     * and the second is a comma separated list of asteroid counts (e.g. 15,1000,20000).
+     * @param args The filter and the asteroid counts, both optional.
+     */
+    public static void main(String[] args)
+    {
+        //There is no display, make sure AWT never looks for one
+        System.setProperty("java.awt.headless", "true");
+
+        //Check for command line arguments
+        String filter = args.length > 0 ? args[0] : "";
+        int[] asteroidCounts = DEFAULT_ASTEROID_COUNTS;
+        if (args.length > 1)
+        {
+            try
+            {
+                String[] counts = args[1].split(",");
+                asteroidCounts = new int[counts.length];
+                for (int i = 0; i < counts.length; i++)
+                {
+                    asteroidCounts[i] = Integer.parseInt(counts[i].trim());
+                }
+            }
+            catch (NumberFormatException e)
+            {
+                System.out.println("Usage: AsteroidRunBenchmarks [filter] [asteroid counts]\n" +
+                        "Please enter the asteroid counts as integers separated by commas.  Exiting...");
+                System.exit(0);
+            }
+        }
+
+        //Run the benchmarks
+        new AsteroidRunBenchmarks(filter).runAll(asteroidCounts);
+    }
+}
@@ -0,0 +1,188 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class AcceleratedImage
+{
+    /** The name of the image, used when reporting whether it is accelerated */
+    private String name;
+    /** The image the accelerated copy is made from, it is drawn instead whenever the copy is unusable */
+    private BufferedImage source;
+    /** The copy of the source image held in video memory */
+    private VolatileImage volatileImage;
+    /** The graphics configuration the volatileImage must be compatible with, null if it is not accelerated */
+    private GraphicsConfiguration graphicsConfiguration;
+
+    /** Determines whether the source image was changed since it was last uploaded */
+    private boolean isDirty;
+    /** Determines whether the volatileImage was accelerated the last time it was uploaded */
+    private boolean isAccelerated;
+    /** The number of times the source image has been uploaded into the volatileImage */
+    private int numUploads;
+
+    /**
+     * Create an AcceleratedImage that keeps a copy of the source image in a VolatileImage, so that drawing it
+     * is done by the graphics hardware instead of being left to Java2D's managed image heuristics. Volatile
+     * images can lose their contents at any time (e.g. when the display mode changes or the screen locks), so
+     * the copy is revalidated before each use and uploaded again whenever it has been lost. If no graphics
+     * configuration is given, no copy is made and the source image is always drawn.
+     * @param name The name of the image, used when reporting whether it is accelerated.
+     * @param source The image to copy into video memory.
+     * @param graphicsConfiguration The graphics configuration of the screen the image is drawn on, or null.
+     */
+    public AcceleratedImage(String name, BufferedImage source, GraphicsConfiguration graphicsConfiguration)
+    {
+        //Store the name, source, and graphicsConfiguration
+        this.name = name;
+        this.source = source;
+        this.graphicsConfiguration = graphicsConfiguration;
+
+        //Upload the image for the first time
+        validate();
+    }
+
+    /**
+     * Get the image to draw this frame. The volatileImage is revalidated first: it is recreated if it no
+     * longer matches the screen, and the source is uploaded again if its contents were lost. If the
+     * volatileImage cannot be used, the source image is returned instead.
+     * @return The image to draw.
+     */
+    public Image validate()
+    {
+        //Draw the source if the image is not accelerated
+        if (graphicsConfiguration == null)
+        {
+            return source;
+        }
+
+        //Create the volatileImage if it does not exist or is no longer compatible with the screen
+        int status = volatileImage == null ? VolatileImage.IMAGE_INCOMPATIBLE : volatileImage.validate(graphicsConfiguration);
+        if (status == VolatileImage.IMAGE_INCOMPATIBLE)
+        {
+            if (volatileImage != null)
+            {
+                volatileImage.flush();
+            }
+            volatileImage = graphicsConfiguration.createCompatibleVolatileImage(source.getWidth(), source.getHeight(),
+                    source.getColorModel().getTransparency());
+            if (volatileImage == null)
+            {
+                return source;
+            }
+            status = VolatileImage.IMAGE_RESTORED;
+        }
+
+        //Upload the source image if the contents are new, were lost, or the source changed
+        if (status == VolatileImage.IMAGE_RESTORED || isDirty)
+        {
+            upload();
+        }
+
+        //Draw the source instead if the contents were lost again while uploading
+        if (volatileImage.contentsLost())
+        {
+            return source;
+        }
+        return volatileImage;
+    }
+
+    /**
+     * Copy the source image into the volatileImage, replacing every pixel including the transparent ones.
+     */
+    private void upload()
+    {
+        //Replace the contents of the volatileImage with the source
+        Graphics2D g2d = volatileImage.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.drawImage(source, 0, 0, null);
+        g2d.dispose();
+        numUploads++;
+        isDirty = false;
+
+        //Check whether the image ended up in video memory and report if it fell back to software
+        boolean wasAccelerated = isAccelerated;
+        isAccelerated = volatileImage.getCapabilities().isAccelerated();
+        if (numUploads == 1 || wasAccelerated != isAccelerated)
+        {
+            System.out.println("Surface " + name + (isAccelerated ? " is accelerated" : " is NOT accelerated (software)"));
+        }
+    }
+
+    /**
+     * Mark the source image as changed, so that it is uploaded again the next time the image is validated.
+     */
+    public void invalidate()
+    {
+        isDirty = true;
+    }
+
+    /**
+     * Release the video memory held by the accelerated copy once the image is no longer drawn.
+     */
+    public void flush()
+    {
+        if (volatileImage != null)
+        {
+            volatileImage.flush();
+            volatileImage = null;
+        }
+    }
+
+    /**
+     * Get the image the accelerated copy is made from.
+     * @return The source image.
+     */
+    public BufferedImage getSource()
+    {
+        return source;
+    }
+
+    /**
+     * Determine whether a copy of the image is kept in a VolatileImage.
+     * @return True or false (true if a graphics configuration was given).
+     */
+    public boolean isVolatile()
+    {
+        return graphicsConfiguration != null;
+    }
+
+    /**
+     * Determine whether the image was accelerated the last time it was uploaded.
+     * @return True or false (true if the image is held in video memory).
+     */
+    public boolean isAccelerated()
+    {
+        return isAccelerated;
+    }
+
+    /**
+     * Get the number of times the source image has been uploaded, more than once means the contents were lost.
+     * @return The number of uploads.
+     */
+    public int getNumUploads()
+    {
+        return numUploads;
+    }
+
+    /**
+     * Get the width of the image.
+     * @return The width in pixels.
+     */
+    public int getWidth()
+    {
+        return source.getWidth();
+    }
+
+    /**
+     * Get the height of the image.
+     * @return The height in pixels.
+     */
+    public int getHeight()
+    {
+        return source.getHeight();
+    }
+}
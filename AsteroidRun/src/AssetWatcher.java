@@ -0,0 +1,136 @@
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashSet;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class AssetWatcher implements Runnable
+{
+    /** The time in milliseconds to wait for more changes before reloading, editors often write a file in steps */
+    private static final long SETTLE_TIME = 100L;
+
+    /** The ImageLoader the changed images are reloaded into */
+    private ImageLoader imageLoader;
+    /** The name of the file the images were loaded from */
+    private String fileName;
+
+    /** The service watching the images directory, null unless the watcher is running */
+    private WatchService watchService;
+    /** The thread waiting for changes */
+    private Thread watcher;
+
+    /**
+     * Create an AssetWatcher that reloads images while the game is running, for trying out changes to the
+     * artwork without restarting. The directory the images were loaded from is watched with a WatchService,
+     * and whenever files in it are created or modified, the changed images are decoded again by the ImageLoader
+     * in the background and swapped in as a whole. The game keeps running while they are decoded and draws the
+     * new images from its next frame after they are stored.
+     * @param imageLoader The ImageLoader the images were loaded with, which must have finished loading.
+     * @param fileName The name of the file the images were loaded from.
+     */
+    public AssetWatcher(ImageLoader imageLoader, String fileName)
+    {
+        this.imageLoader = imageLoader;
+        this.fileName = fileName;
+    }
+
+    /**
+     * Start watching the images directory on a daemon thread.
+     * @return True or false (true if the directory is being watched).
+     */
+    public boolean start()
+    {
+        //Only images loaded from a directory can be watched
+        Path imagesDirectory = imageLoader.getImagesDirectory();
+        if (imagesDirectory == null)
+        {
+            System.out.println("Unable to watch the images, they are not loaded from a directory");
+            return false;
+        }
+
+        //Watch the directory for new and changed files
+        try
+        {
+            watchService = imagesDirectory.getFileSystem().newWatchService();
+            imagesDirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        catch (IOException e)
+        {
+            System.out.println("Unable to watch the images directory: " + imagesDirectory + " " + e);
+            return false;
+        }
+        watcher = new Thread(this, "AssetWatcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        System.out.println("Watching for changed images in: " + imagesDirectory);
+        return true;
+    }
+
+    /**
+     * Wait for changes to the images directory and reload the images each time they settle.
+     */
+    public void run()
+    {
+        try
+        {
+            while (true)
+            {
+                //Wait for a change, then collect every change made until they settle
+                HashSet<String> changedFiles = new HashSet<>();
+                WatchKey key = watchService.take();
+                while (key != null)
+                {
+                    for (WatchEvent<?> event : key.pollEvents())
+                    {
+                        if (event.context() instanceof Path)
+                        {
+                            changedFiles.add(event.context().toString());
+                        }
+                    }
+                    key.reset();
+                    key = watchService.poll(SETTLE_TIME, TimeUnit.MILLISECONDS);
+                }
+
+                //Reload the changed images, waiting so a reload never overlaps the last one
+                if (!changedFiles.isEmpty())
+                {
+                    System.out.println("Images changed: " + changedFiles);
+                    try
+                    {
+                        imageLoader.reloadImagesFromFile(fileName, changedFiles).join();
+                    }
+                    catch (CompletionException e) //Keep watching, the next change may fix whatever failed
+                    {
+                        System.out.println("Error reloading the images: " + e.getCause());
+                    }
+                }
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException e)
+        {
+            //The watcher was stopped
+        }
+    }
+
+    /**
+     * Stop watching the images directory.
+     */
+    public void stop()
+    {
+        try
+        {
+            if (watchService != null)
+            {
+                watchService.close();
+            }
+        }
+        catch (IOException e)
+        {
+            System.out.println("Error closing the images watcher " + e);
+        }
+    }
+}
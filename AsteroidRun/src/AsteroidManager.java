@@ -1,5 +1,7 @@
-import java.awt.*;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
 
 /**
  * @author Logan Karstetter
@@ -7,121 +9,1000 @@ import java.util.Random;
  */
 public class AsteroidManager
 {
-    /** The maximum number of asteroids */
-    private static final int MAX_ASTEROIDS = 15;
+    /** The number of asteroids room is made for when the manager is created, unless more are requested */
+    private static final int INITIAL_CAPACITY = 15;
+    /** The number of pixels per second each unit of an asteroid's random speed stands for */
+    private static final int SPEED_UNIT = 10;
+    /** The id used for the spaceship in the sweep, asteroids use their index */
+    private static final int SHIP_ID = -1;
+    /** The number of asteroids in each chunk of work when updating in parallel */
+    private static final int PARALLEL_CHUNK_SIZE = 1024;
 
-    /** An array of asteroids */
-    private Asteroid[] asteroids;
-    /** The current number of asteroids in the game */
+    /** The names of the images used to display each type of asteroid */
+    public static final String[] ASTEROID_IMAGE_NAMES = {"Asteroid", "Asteroid 2", "Asteroid 3"};
+
+    /** The x-coordinate position of each asteroid */
+    private int[] xPositions;
+    /** The y-coordinate position of each asteroid */
+    private int[] yPositions;
+    /** The x-coordinate position of each asteroid before the last update */
+    private int[] prevXPositions;
+    /** The y-coordinate position of each asteroid before the last update */
+    private int[] prevYPositions;
+    /** The width of each asteroid's collision box in pixels */
+    private int[] widths;
+    /** The height of each asteroid's collision box in pixels */
+    private int[] heights;
+    /** The number of pixels each asteroid moves in the x-direction each second */
+    private int[] xVelocities;
+    /** The number of pixels each asteroid moves in the y-direction each second */
+    private int[] yVelocities;
+    /** Determines whether each asteroid is currently active (should be updated).
+     * This is used to keep an asteroid from immediately resetting after hitting the ship */
+    private boolean[] active;
+    /** Determines whether each asteroid touched another asteroid at the start of the tick, and should bounce */
+    private boolean[] bounced;
+    /** Determines whether each asteroid needs a new position from the random number generator this tick */
+    private boolean[] needsReset;
+    /** The type of each asteroid, used to pick the image that displays it */
+    private int[] types;
+    /** The collision mask of each type of asteroid, marking the pixels of its image that can be hit */
+    private CollisionMask[] asteroidMasks;
+    /** The width of the widest type of asteroid in pixels */
+    private int maxAsteroidWidth;
+    /** The current number of asteroids in the game, the asteroids are always held in the first numAsteroids indices */
     private int numAsteroids;
+    /** The number of asteroids the game should have, asteroids are spawned or despawned to reach it */
+    private int targetNumAsteroids;
+
+    /** The ids of the asteroids and the spaceship, sorted by the left edge of each. The order is kept
+     * between ticks, so sorting again only has to fix the few that moved past each other */
+    private int[] sortedIds;
+    /** The x-coordinate of the left edge of each id in sortedIds, in the same order */
+    private int[] sortedMinX;
+    /** The x-coordinate of the left edge of the box covering each id's movement over the last tick */
+    private int[] sortedMovedMinX;
+    /** The x-coordinate of the right edge of the box covering each id's movement over the last tick */
+    private int[] sortedMaxX;
+    /** The y-coordinate of the top edge of the box covering each id's movement over the last tick */
+    private int[] sortedMinY;
+    /** The y-coordinate of the bottom edge of the box covering each id's movement over the last tick */
+    private int[] sortedMaxY;
+    /** The furthest any id moved left over the last tick, so its box may start that far left of its left edge */
+    private int maxLeftwardMove;
+    /** The position of each asteroid in sortedIds, used to remove it from the sweep when it despawns */
+    private int[] sortedSlots;
+    /** The number of ids in sortedIds, the asteroids plus the spaceship */
+    private int numSorted;
+    /** Determines whether an asteroid has moved, spawned, or despawned since sortedIds was last sorted */
+    private boolean isSortDirty;
+    /** Determines whether each asteroid jumped to a new place in the sweep since the last sort, because it was
+     * reset to a random position, spawned, or moved into a despawned asteroid's slot */
+    private boolean[] jumped;
+    /** Determines whether the spaceship was moved into a despawned asteroid's slot since the last sort */
+    private boolean shipJumped;
+    /** The ids that jumped, taken out of the sweep while sorting, each stored as its left edge then its id */
+    private long[] jumpedKeys;
+
+    /** The pairs of ids touching at the start of the tick found by each chunk of the sweep, stored as first id
+     * then second id. A pair with the spaceship always has the spaceship first */
+    private int[][] contacts;
+    /** The number of pairs found by each chunk of the sweep */
+    private int[] numContacts;
+    /** The number of chunks the last sweep was split into */
+    private int numSweepChunks;
+    /** The number of sorted ids swept by each chunk of the last sweep */
+    private int sweepChunkSize;
+    /** The number of asteroids moved by each chunk of the last update */
+    private int moveChunkSize;
+
+    /** The pool used to update the asteroids in parallel, null to update them on the calling thread */
+    private ForkJoinPool forkJoinPool;
+    /** Sweeps a single chunk of the sorted ids */
+    private IntConsumer sweepChunkAction;
+    /** Moves a single chunk of the asteroids */
+    private IntConsumer moveChunkAction;
+
+    /** The x-coordinate position of the spaceship before its last update, given to the last sweep */
+    private int shipPrevXPos;
+    /** The x-coordinate position of the spaceship given to the last sweep */
+    private int shipXPos;
+    /** The y-coordinate position of the spaceship given to the last sweep */
+    private int shipYPos;
+    /** The collision mask of the spaceship given to the last sweep, null before the first sweep */
+    private CollisionMask shipMask;
 
-    /** A random number generator used to determine the type of asteroid to create */
+    /** The seeded random number generator used to determine the type, position, and velocities of the asteroids */
     private Random rng;
 
-    /** A reference to the AsteroidRunPanel that runs the game */
-    AsteroidRunPanel asteroidRunPanel;
+    /** A reference to the GameSimulation that runs the game */
+    GameSimulation gameSimulation;
 
     /**
-     * Create an AsteroidManager to manage the updating, drawing, and interactions of asteroids.
+     * Create an AsteroidManager to manage the updating and interactions of asteroids. Asteroids are obstacles
+     * floating in space that the player must dodge in their spaceship. The state of every asteroid is held in
+     * parallel arrays indexed by the asteroid's index, rather than in an object per asteroid, so that updating
+     * and checking collisions sweeps through memory in order. The arrays are a pool: asteroids are spawned
+     * into the first free index and despawned by moving the last asteroid into their place, so the live
+     * asteroids always fill the first indices and the arrays only grow when the pool runs out of room. Each
+     * type of asteroid has its own collision mask, which also gives its size, the type's index matches the
+     * ASTEROID_IMAGE_NAMES used to draw it. Every random choice the asteroids make is drawn from a single
+     * random number generator created from the seed, so two managers given the same seed and the same
+     * spaceship movements play out exactly the same.
      * @param numInitialAsteroids The desired initial number of asteroids present in the game.
-     * @param imageLoader The ImageLoader used to load images for this game.
-     * @param asteroidRunPanel The AsteroidRunPanel that runs the game.
+     * @param seed The seed of the random number generator.
+     * @param asteroidMasks The collision mask of each type of asteroid.
+     * @param gameSimulation The GameSimulation that runs the game.
      */
-    public AsteroidManager(int numInitialAsteroids, ImageLoader imageLoader, AsteroidRunPanel asteroidRunPanel)
+    public AsteroidManager(int numInitialAsteroids, long seed, CollisionMask[] asteroidMasks, GameSimulation gameSimulation)
     {
-        //Create the array of asteroids
-        asteroids = new Asteroid[MAX_ASTEROIDS];
-        numAsteroids = numInitialAsteroids;
+        //Create the arrays of asteroid state, make room for all of them if more than the initial capacity are requested
+        int capacity = Math.max(INITIAL_CAPACITY, numInitialAsteroids);
+        xPositions = new int[capacity];
+        yPositions = new int[capacity];
+        prevXPositions = new int[capacity];
+        prevYPositions = new int[capacity];
+        widths = new int[capacity];
+        heights = new int[capacity];
+        xVelocities = new int[capacity];
+        yVelocities = new int[capacity];
+        active = new boolean[capacity];
+        bounced = new boolean[capacity];
+        needsReset = new boolean[capacity];
+        jumped = new boolean[capacity];
+        types = new int[capacity];
+        this.asteroidMasks = asteroidMasks;
 
-        //Create the random number generator and an array of asteroid image names
-        rng = new Random();
-        String[] imagesNames = {"Asteroid", "Asteroid 2", "Asteroid 3"};
+        //Create the arrays of the sweep, with room for the spaceship as well
+        sortedIds = new int[capacity + 1];
+        sortedMinX = new int[capacity + 1];
+        sortedMovedMinX = new int[capacity + 1];
+        sortedMaxX = new int[capacity + 1];
+        sortedMinY = new int[capacity + 1];
+        sortedMaxY = new int[capacity + 1];
+        sortedSlots = new int[capacity];
+        jumpedKeys = new long[capacity + 1];
+        sortedIds[0] = SHIP_ID;
+        numSorted = 1;
+        contacts = new int[1][16];
+        numContacts = new int[1];
+        sweepChunkAction = this::sweepChunk;
+        moveChunkAction = this::moveChunk;
 
-        //Populate the asteroids array with new asteroids
-        for (int i = 0; i < numAsteroids; i++)
+        //Find the widest type of asteroid, which bounds how far left of a box a touching asteroid can start
+        for (int i = 0; i < asteroidMasks.length; i++)
         {
-            //Generate a random number to determine the type of asteroid, then create the asteroid
-            asteroids[i] = new Asteroid(imagesNames[rng.nextInt(3)], "Explosion", imageLoader, this);
+            maxAsteroidWidth = Math.max(maxAsteroidWidth, asteroidMasks[i].getWidth());
         }
 
-        //Store the reference to the asteroidRunPanel
-        this.asteroidRunPanel = asteroidRunPanel;
+        //Create the random number generator
+        rng = new Random(seed);
+
+        //Populate the arrays with new asteroids
+        setTargetNumAsteroids(numInitialAsteroids);
+
+        //Store the reference to the gameSimulation
+        this.gameSimulation = gameSimulation;
     }
 
     /**
-     * Update all of the asteroids.
+     * Update all of the asteroids for a single tick, in two phases. First every pair of touching asteroids,
+     * and every asteroid touching the spaceship, is found in a single sweep that only reads the state left by
+     * the last tick. The asteroids are then updated, those that touched another asteroid bouncing off it, and
+     * each asteroid that touched the spaceship explodes and costs the player a life. Hitting several asteroids
+     * at once costs a life for each. Since no asteroid reads another's new state, both phases can be split
+     * across a ForkJoinPool (see setForkJoinPool()) with exactly the same outcome as updating on one thread.
+     * @param shipPrevX The x-coordinate position of the spaceship before its last update.
+     * @param shipX The x-coordinate position of the spaceship.
+     * @param shipY The y-coordinate position of the spaceship.
+     * @param shipMask The collision mask of the spaceship.
      */
-    public void update()
+    public void update(int shipPrevX, int shipX, int shipY, CollisionMask shipMask)
     {
-        //Update the asteroids
-        for (int i = 0; i < numAsteroids; i++)
+        //Find everything that touched during the last tick
+        findContacts(shipPrevX, shipX, shipY, shipMask);
+
+        //Mark the asteroids that touched another asteroid
+        Arrays.fill(bounced, 0, numAsteroids, false);
+        for (int chunk = 0; chunk < numSweepChunks; chunk++)
+        {
+            int[] chunkContacts = contacts[chunk];
+            for (int i = 0; i < numContacts[chunk]; i++)
+            {
+                if (chunkContacts[2 * i] != SHIP_ID)
+                {
+                    bounced[chunkContacts[2 * i]] = true;
+                    bounced[chunkContacts[2 * i + 1]] = true;
+                }
+            }
+        }
+
+        //Move the asteroids that do not need the random number generator, in parallel if there is a pool
+        int numMoveChunks = getNumChunks(numAsteroids);
+        moveChunkSize = numMoveChunks > 1 ? PARALLEL_CHUNK_SIZE : numAsteroids;
+        ParallelRange.run(forkJoinPool, numMoveChunks, moveChunkAction);
+
+        //Deactivate each asteroid that hit the spaceship and remove a life
+        for (int chunk = 0; chunk < numSweepChunks; chunk++)
         {
-            asteroids[i].update(i);
+            int[] chunkContacts = contacts[chunk];
+            for (int i = 0; i < numContacts[chunk]; i++)
+            {
+                if (chunkContacts[2 * i] == SHIP_ID)
+                {
+                    active[chunkContacts[2 * i + 1]] = false;
+                    gameSimulation.lifeLost();
+                }
+            }
+        }
+
+        //Reset the rest in order, so the random numbers are drawn in the same order however the moves were split.
+        //While there are more asteroids than the target, they are despawned instead. Going from the last index
+        //down means the asteroid moved into a despawned asteroid's place has already been handled
+        for (int i = numAsteroids - 1; i >= 0; i--)
+        {
+            if (needsReset[i])
+            {
+                if (numAsteroids > targetNumAsteroids)
+                {
+                    despawn(i);
+                }
+                else
+                {
+                    update(i);
+                }
+            }
         }
     }
 
     /**
-     * Determine whether the given rectangle intersects the collision rectangles of any of the asteroids.
-     * @param rect The rectangle to check for collisions/intersections.
-     * @param isSpaceship Determines whether the rectangle being checked is the spaceship's bounding box.
-     * @return True or false (true if the rectangles intersect, false otherwise).
+     * Set the number of asteroids the game should have, which can be changed at any time to make the game
+     * harder or easier. New asteroids are spawned right away just above the top of the screen. Extra asteroids
+     * are despawned as they go offscreen or finish exploding, so they never vanish in plain sight. This must
+     * be called on the thread that updates the game.
+     * @param targetNumAsteroids The number of asteroids the game should have.
      */
-    public boolean checkCollisions(Rectangle rect, boolean isSpaceship)
+    public void setTargetNumAsteroids(int targetNumAsteroids)
     {
-        //Determine if this rectangle has collided with any asteroids
-        for (int i = 0; i < numAsteroids; i++)
+        this.targetNumAsteroids = Math.max(0, targetNumAsteroids);
+        while (numAsteroids < this.targetNumAsteroids)
+        {
+            spawn();
+        }
+    }
+
+    /**
+     * Get the number of asteroids the game should have.
+     * @return The target number of asteroids.
+     */
+    public int getTargetNumAsteroids()
+    {
+        return targetNumAsteroids;
+    }
+
+    /**
+     * Spawn a new asteroid of a random type just above the top of the screen, in the first free index of the
+     * pool. The arrays double in size if the pool is full, so spawning takes constant time on average.
+     * @return The index of the new asteroid.
+     */
+    public int spawn()
+    {
+        //Make room for the asteroid
+        if (numAsteroids == xPositions.length)
+        {
+            grow(2 * xPositions.length);
+        }
+        int index = numAsteroids;
+        numAsteroids++;
+
+        //Generate a random number to determine the type of asteroid, then set its size
+        int type = rng.nextInt(asteroidMasks.length);
+        types[index] = type;
+        widths[index] = asteroidMasks[type].getWidth();
+        heights[index] = asteroidMasks[type].getHeight();
+
+        //Set the initial position and steps of the asteroid
+        active[index] = true;
+        reset(index);
+
+        //Add the asteroid to the end of the sweep, the next sort moves it into place
+        sortedIds[numSorted] = index;
+        sortedSlots[index] = numSorted;
+        numSorted++;
+        return index;
+    }
+
+    /**
+     * Despawn an asteroid in constant time. The last asteroid is moved into its index so that the live
+     * asteroids stay in the first indices, which means the last asteroid's index changes.
+     * @param index The index of the asteroid, less than getNumAsteroids().
+     */
+    public void despawn(int index)
+    {
+        //Remove the asteroid from the sweep by moving the last sorted id into its place, the next sort moves it into place
+        numSorted--;
+        int slot = sortedSlots[index];
+        int movedId = sortedIds[numSorted];
+        sortedIds[slot] = movedId;
+        if (movedId != SHIP_ID)
+        {
+            sortedSlots[movedId] = slot;
+            jumped[movedId] = true;
+        }
+        else
+        {
+            shipJumped = true;
+        }
+
+        //Move the last asteroid into the empty index
+        numAsteroids--;
+        int last = numAsteroids;
+        if (index != last)
+        {
+            xPositions[index] = xPositions[last];
+            yPositions[index] = yPositions[last];
+            prevXPositions[index] = prevXPositions[last];
+            prevYPositions[index] = prevYPositions[last];
+            widths[index] = widths[last];
+            heights[index] = heights[last];
+            xVelocities[index] = xVelocities[last];
+            yVelocities[index] = yVelocities[last];
+            active[index] = active[last];
+            bounced[index] = bounced[last];
+            needsReset[index] = needsReset[last];
+            jumped[index] = jumped[last];
+            types[index] = types[last];
+
+            //The moved asteroid keeps its place in the sweep under its new index
+            sortedSlots[index] = sortedSlots[last];
+            sortedIds[sortedSlots[index]] = index;
+        }
+        isSortDirty = true;
+    }
+
+    /**
+     * Grow the arrays of the pool and the sweep to hold more asteroids.
+     * @param capacity The number of asteroids the arrays must hold.
+     */
+    private void grow(int capacity)
+    {
+        xPositions = Arrays.copyOf(xPositions, capacity);
+        yPositions = Arrays.copyOf(yPositions, capacity);
+        prevXPositions = Arrays.copyOf(prevXPositions, capacity);
+        prevYPositions = Arrays.copyOf(prevYPositions, capacity);
+        widths = Arrays.copyOf(widths, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        xVelocities = Arrays.copyOf(xVelocities, capacity);
+        yVelocities = Arrays.copyOf(yVelocities, capacity);
+        active = Arrays.copyOf(active, capacity);
+        bounced = Arrays.copyOf(bounced, capacity);
+        needsReset = Arrays.copyOf(needsReset, capacity);
+        jumped = Arrays.copyOf(jumped, capacity);
+        types = Arrays.copyOf(types, capacity);
+        sortedIds = Arrays.copyOf(sortedIds, capacity + 1);
+        sortedMinX = Arrays.copyOf(sortedMinX, capacity + 1);
+        sortedMovedMinX = Arrays.copyOf(sortedMovedMinX, capacity + 1);
+        sortedMaxX = Arrays.copyOf(sortedMaxX, capacity + 1);
+        sortedMinY = Arrays.copyOf(sortedMinY, capacity + 1);
+        sortedMaxY = Arrays.copyOf(sortedMaxY, capacity + 1);
+        sortedSlots = Arrays.copyOf(sortedSlots, capacity);
+        jumpedKeys = Arrays.copyOf(jumpedKeys, capacity + 1);
+    }
+
+    /**
+     * Move a chunk of the asteroids. Asteroids that are inactive or have gone offscreen are only marked as
+     * needing a reset, since resetting draws from the shared random number generator.
+     * @param chunk The number of the chunk.
+     */
+    private void moveChunk(int chunk)
+    {
+        int end = Math.min(numAsteroids, (chunk + 1) * moveChunkSize);
+        for (int i = chunk * moveChunkSize; i < end; i++)
+        {
+            needsReset[i] = !active[i] || hasGoneOffScreen(i);
+            if (!needsReset[i])
+            {
+                update(i);
+            }
+        }
+    }
+
+    /**
+     * Get the number of chunks to split some work into, a single chunk unless updating in parallel.
+     * @param numItems The number of asteroids or sorted ids the work covers.
+     * @return The number of chunks.
+     */
+    private int getNumChunks(int numItems)
+    {
+        if (forkJoinPool == null)
+        {
+            return 1;
+        }
+        return Math.max(1, (numItems + PARALLEL_CHUNK_SIZE - 1)/PARALLEL_CHUNK_SIZE);
+    }
+
+    /**
+     * Set the pool used to update the asteroids in parallel. Both phases of update() are split into chunks
+     * of asteroids that run across the pool, which only pays off for fields of thousands of asteroids. The
+     * outcome is identical to updating on the calling thread.
+     * @param forkJoinPool The pool to update the asteroids on, or null to update them on the calling thread.
+     */
+    public void setForkJoinPool(ForkJoinPool forkJoinPool)
+    {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * Update a single asteroid. Checks if the asteroid has gone offscreen and moves the asteroid by the
+     * distance its velocities cover this tick. If the asteroid touched another asteroid in the last sweep it
+     * bounces off.
+     * @param index The index of the asteroid.
+     */
+    public void update(int index)
+    {
+        //Only update the asteroid if it is active
+        if (active[index])
+        {
+            //Store the position before the update, used to interpolate when drawing
+            prevXPositions[index] = xPositions[index];
+            prevYPositions[index] = yPositions[index];
+
+            //Check if the asteroid has gone off the screen
+            if (hasGoneOffScreen(index))
+            {
+                //Reset the position and steps of the asteroid
+                reset(index);
+            }
+            else if (bounced[index]) //Check if the asteroid has collided with another asteroid
+            {
+                xVelocities[index] = -xVelocities[index]; //Invert the direction
+                xPositions[index] = xPositions[index] + gameSimulation.getTickDistance(xVelocities[index]); //Give the asteroid an extra push to separate the asteroids
+            }
+
+            //Move the asteroid
+            xPositions[index] = xPositions[index] + gameSimulation.getTickDistance(xVelocities[index]);
+            yPositions[index] = yPositions[index] + gameSimulation.getTickDistance(yVelocities[index]);
+            isSortDirty = true;
+        }
+        else //Make the asteroid active, this will update it on the next tick
+        {
+            active[index] = true;
+            reset(index);
+        }
+    }
+
+    /**
+     * Determine whether an asteroid has gone outside the bounds of the screen
+     * @param index The index of the asteroid.
+     * @return True or false (true if the asteroid has gone offscreen, false otherwise).
+     */
+    private boolean hasGoneOffScreen(int index)
+    {
+        //Check if the asteroid has gone off the left, right, or bottom of the screen
+        return xPositions[index] + widths[index] <= 0 || xPositions[index] >= GameSimulation.WIDTH ||
+                yPositions[index] >= GameSimulation.HEIGHT;
+    }
+
+    /**
+     * Reset the position and velocities of an asteroid, placing it just above the top of the screen.
+     * @param index The index of the asteroid.
+     */
+    public void reset(int index)
+    {
+        //Calculate a new position
+        xPositions[index] = rng.nextInt(GameSimulation.WIDTH - widths[index]);
+        yPositions[index] = -rng.nextInt(heights[index]);
+
+        //Calculate new velocities
+        if (rng.nextBoolean())
+        {
+            xVelocities[index] = -SPEED_UNIT * rng.nextInt(5);
+        }
+        else //Move the asteroid right
+        {
+            xVelocities[index] = SPEED_UNIT * rng.nextInt(5);
+        }
+
+        //Add a value so that this cannot be zero
+        yVelocities[index] = SPEED_UNIT * (5 + rng.nextInt(10));
+
+        //The asteroid jumped to its new position, so there is nothing to interpolate and it has a new place in the sweep
+        prevXPositions[index] = xPositions[index];
+        prevYPositions[index] = yPositions[index];
+        jumped[index] = true;
+        isSortDirty = true;
+    }
+
+    /**
+     * Sort the asteroids and the spaceship by their left edges, if anything moved since the last sort.
+     * Insertion sort is used for the ids that moved, because very little moves between ticks, so they are
+     * nearly in order already and each one only shifts past the few it overtook. The ids that jumped to a
+     * new place, such as asteroids reset to a random position or spawned, are taken out first, sorted on
+     * their own, and merged back in, so a tick costs time in proportion to the number of ids plus the
+     * jumped ids' own sort rather than a shift across the sweep for each of them. The edges of the box
+     * covering each id's movement over the last tick are then copied in the sorted order, so the sweep can
+     * reject most pairs without looking up either id.
+     */
+    private void sortByX()
+    {
+        if (!isSortDirty)
+        {
+            return;
+        }
+
+        //Read the current left edges in the order of the last sort, taking out the ids that jumped
+        int numKept = 0;
+        int numJumped = 0;
+        for (int k = 0; k < numSorted; k++)
+        {
+            int id = sortedIds[k];
+            int minX = id == SHIP_ID ? shipXPos : xPositions[id];
+            boolean hasJumped = id == SHIP_ID ? shipJumped : jumped[id];
+            if (hasJumped)
+            {
+                jumpedKeys[numJumped] = ((long) minX << 32) | (id & 0xFFFFFFFFL);
+                numJumped++;
+            }
+            else
+            {
+                sortedIds[numKept] = id;
+                sortedMinX[numKept] = minX;
+                numKept++;
+            }
+        }
+
+        //Shift each id that moved left past any ids with larger left edges
+        for (int k = 1; k < numKept; k++)
+        {
+            int id = sortedIds[k];
+            int minX = sortedMinX[k];
+            int j = k - 1;
+            while (j >= 0 && sortedMinX[j] > minX)
+            {
+                sortedIds[j + 1] = sortedIds[j];
+                sortedMinX[j + 1] = sortedMinX[j];
+                j--;
+            }
+            sortedIds[j + 1] = id;
+            sortedMinX[j + 1] = minX;
+        }
+
+        //Sort the ids that jumped and merge them in from the back, so nothing is overwritten before it is read
+        Arrays.sort(jumpedKeys, 0, numJumped);
+        int kept = numKept - 1;
+        int jump = numJumped - 1;
+        for (int k = numSorted - 1; jump >= 0; k--)
+        {
+            int jumpMinX = (int) (jumpedKeys[jump] >> 32);
+            if (kept >= 0 && sortedMinX[kept] > jumpMinX)
+            {
+                sortedIds[k] = sortedIds[kept];
+                sortedMinX[k] = sortedMinX[kept];
+                kept--;
+            }
+            else
+            {
+                int id = (int) jumpedKeys[jump];
+                sortedIds[k] = id;
+                sortedMinX[k] = jumpMinX;
+                if (id != SHIP_ID)
+                {
+                    jumped[id] = false;
+                }
+                jump--;
+            }
+        }
+        shipJumped = false;
+
+        //Copy the edges of the boxes covering the movement in the sorted order
+        maxLeftwardMove = 0;
+        for (int k = 0; k < numSorted; k++)
+        {
+            int id = sortedIds[k];
+            if (id == SHIP_ID)
+            {
+                sortedMovedMinX[k] = Math.min(shipPrevXPos, shipXPos);
+                sortedMaxX[k] = Math.max(shipPrevXPos, shipXPos) + (shipMask != null ? shipMask.getWidth() : 0);
+                sortedMinY[k] = shipYPos;
+                sortedMaxY[k] = shipYPos + (shipMask != null ? shipMask.getHeight() : 0);
+            }
+            else
+            {
+                sortedMovedMinX[k] = Math.min(prevXPositions[id], xPositions[id]);
+                sortedMaxX[k] = Math.max(prevXPositions[id], xPositions[id]) + widths[id];
+                sortedMinY[k] = Math.min(prevYPositions[id], yPositions[id]);
+                sortedMaxY[k] = Math.max(prevYPositions[id], yPositions[id]) + heights[id];
+                sortedSlots[id] = k;
+            }
+            maxLeftwardMove = Math.max(maxLeftwardMove, sortedMinX[k] - sortedMovedMinX[k]);
+        }
+        isSortDirty = false;
+    }
+
+    /**
+     * Find every pair of asteroids that touched during the last tick, and every asteroid that touched the
+     * spaceship, and store them in contacts. Each id is treated as moving in a straight line from where it was
+     * before the last update to where it is now, so fast asteroids cannot pass through the spaceship or each
+     * other between two ticks. The ids are swept from left to right, and each one is only compared with the
+     * ids whose movement overlaps its own on the x-axis, so the sweep costs little more than the number of
+     * pairs whose x-ranges overlap. Inactive asteroids have just exploded and do not touch anything. When
+     * updating in parallel, each chunk of sorted ids is swept on its own and keeps its own pairs, so the pairs
+     * come out in the same order.
+     * @param shipPrevX The x-coordinate position of the spaceship before its last update.
+     * @param shipX The x-coordinate position of the spaceship.
+     * @param shipY The y-coordinate position of the spaceship.
+     * @param shipMask The collision mask of the spaceship.
+     */
+    private void findContacts(int shipPrevX, int shipX, int shipY, CollisionMask shipMask)
+    {
+        //Store the spaceship and sort everything by its left edge
+        if (shipPrevX != shipPrevXPos || shipX != shipXPos || shipY != shipYPos || this.shipMask != shipMask)
         {
-            //If the rectangles intersect and are not the exact same
-            if (asteroids[i].getRectangle().intersects(rect))
+            isSortDirty = true;
+        }
+        shipPrevXPos = shipPrevX;
+        shipXPos = shipX;
+        shipYPos = shipY;
+        this.shipMask = shipMask;
+        sortByX();
+
+        //Make room for the pairs found by each chunk
+        numSweepChunks = getNumChunks(numSorted);
+        sweepChunkSize = numSweepChunks > 1 ? PARALLEL_CHUNK_SIZE : numSorted;
+        if (contacts.length < numSweepChunks)
+        {
+            int oldLength = contacts.length;
+            contacts = Arrays.copyOf(contacts, numSweepChunks);
+            numContacts = Arrays.copyOf(numContacts, numSweepChunks);
+            for (int chunk = oldLength; chunk < numSweepChunks; chunk++)
+            {
+                contacts[chunk] = new int[16];
+            }
+        }
+
+        //Sweep from left to right
+        ParallelRange.run(forkJoinPool, numSweepChunks, sweepChunkAction);
+    }
+
+    /**
+     * Sweep a chunk of the sorted ids, comparing each with the ids after it that it could have touched.
+     * @param chunk The number of the chunk.
+     */
+    private void sweepChunk(int chunk)
+    {
+        numContacts[chunk] = 0;
+        int end = Math.min(numSorted, (chunk + 1) * sweepChunkSize);
+        for (int k = chunk * sweepChunkSize; k < end; k++)
+        {
+            int id = sortedIds[k];
+            if (id != SHIP_ID && !active[id])
             {
-                //If the spaceship hit an asteroid, deactivate the asteroid and remove a life
-                if (isSpaceship)
+                continue;
+            }
+
+            //Compare with each id whose movement overlaps this one's. The ids after this one start further
+            //right, so their boxes only reach left of their left edges by as much as anything moved left
+            int maxX = sortedMaxX[k];
+            int minY = sortedMinY[k];
+            int maxY = sortedMaxY[k];
+            int scanMaxX = maxX + maxLeftwardMove;
+            for (int j = k + 1; j < numSorted && sortedMinX[j] < scanMaxX; j++)
+            {
+                if (sortedMovedMinX[j] < maxX && sortedMinY[j] < maxY && minY < sortedMaxY[j])
                 {
-                    asteroids[i].hitShip();
-                    asteroidRunPanel.lifeLost();
+                    int otherId = sortedIds[j];
+                    if ((otherId == SHIP_ID || active[otherId]) && isTouching(id, otherId))
+                    {
+                        addContact(chunk, id, otherId);
+                    }
                 }
-                return true;
             }
         }
+    }
+
+    /**
+     * Determine whether two ids in the sweep touched during the last tick, the boxes covering their movement
+     * are already known to intersect.
+     * @param id The index of an asteroid, or SHIP_ID.
+     * @param otherId The index of another asteroid, or SHIP_ID.
+     * @return True or false (true if the solid pixels of the two overlapped at some point during the tick).
+     */
+    private boolean isTouching(int id, int otherId)
+    {
+        //Make sure the spaceship, if present, is second
+        if (id == SHIP_ID)
+        {
+            id = otherId;
+            otherId = SHIP_ID;
+        }
+
+        //Compare the masks along their movement
+        if (otherId == SHIP_ID)
+        {
+            return CollisionMask.overlapsMoving(asteroidMasks[types[id]], prevXPositions[id], prevYPositions[id],
+                    xPositions[id], yPositions[id], shipMask, shipPrevXPos, shipYPos, shipXPos, shipYPos);
+        }
+        return CollisionMask.overlapsMoving(asteroidMasks[types[id]], prevXPositions[id], prevYPositions[id],
+                xPositions[id], yPositions[id], asteroidMasks[types[otherId]], prevXPositions[otherId],
+                prevYPositions[otherId], xPositions[otherId], yPositions[otherId]);
+    }
+
+    /**
+     * Store a pair of touching ids in the contacts of a chunk, growing them if they are full.
+     * @param chunk The number of the chunk that found the pair.
+     * @param id The index of an asteroid, or SHIP_ID.
+     * @param otherId The index of another asteroid, or SHIP_ID.
+     */
+    private void addContact(int chunk, int id, int otherId)
+    {
+        int count = numContacts[chunk];
+        if (2 * count == contacts[chunk].length)
+        {
+            contacts[chunk] = Arrays.copyOf(contacts[chunk], contacts[chunk].length * 2);
+        }
+
+        //The spaceship goes first so its pairs are easy to tell apart
+        contacts[chunk][2 * count] = Math.min(id, otherId);
+        contacts[chunk][2 * count + 1] = Math.max(id, otherId);
+        numContacts[chunk] = count + 1;
+    }
+
+    /**
+     * Determine whether the given mask overlaps the solid pixels of any of the asteroids. Only the asteroids
+     * near the mask are checked. If the spaceship hits more than one asteroid, the one with the lowest index
+     * is the one that hits it.
+     * @param x The x-coordinate of the mask to check for collisions.
+     * @param y The y-coordinate of the mask.
+     * @param mask The collision mask.
+     * @param isSpaceship Determines whether the mask being checked is the spaceship's.
+     * @return True or false (true if the mask overlaps an asteroid, false otherwise).
+     */
+    public boolean checkCollisions(int x, int y, CollisionMask mask, boolean isSpaceship)
+    {
+        //Find the asteroid with the lowest index that this mask has collided with
+        int hitIndex = findCollision(x, y, mask, -1, isSpaceship);
 
         //There were no collisions
-        return false;
+        if (hitIndex < 0)
+        {
+            return false;
+        }
+
+        //If the spaceship hit an asteroid, deactivate the asteroid and remove a life
+        if (isSpaceship)
+        {
+            active[hitIndex] = false;
+            gameSimulation.lifeLost();
+        }
+        return true;
     }
 
     /**
-     * Determine whether the given asteroid's rectangle intersects the collision rectangles of any of
-     * the other asteroids. The index of the asteroid calling this method is passed so that the asteroid
-     * does not check collisions with itself.
-     * @param rect The rectangle to check for collisions/intersections.
+     * Determine whether the given asteroid's mask overlaps the solid pixels of any of the other asteroids.
+     * The index of the asteroid calling this method is passed so that the asteroid does not check collisions
+     * with itself. Only the asteroids near the mask are checked.
+     * @param x The x-coordinate of the asteroid's mask.
+     * @param y The y-coordinate of the asteroid's mask.
+     * @param mask The asteroid's collision mask.
      * @param index The index of the asteroid being compared.
-     * @return True or false (true if the rectangles intersect, false otherwise).
+     * @return True or false (true if the masks overlap, false otherwise).
      */
-    public boolean checkAsteroidCollisions(Rectangle rect, int index)
+    public boolean checkAsteroidCollisions(int x, int y, CollisionMask mask, int index)
     {
-        //Determine if this rectangle has collided with any asteroids
-        for (int i = 0; i < numAsteroids; i++)
+        return findCollision(x, y, mask, index, false) >= 0;
+    }
+
+    /**
+     * Find an asteroid whose solid pixels overlap the given mask. The asteroids are sorted by their left
+     * edges, so only those starting between the widest asteroid's width left of the mask and the mask's
+     * right edge are checked. The rectangles are compared first, and only asteroids whose rectangles
+     * intersect have their masks compared.
+     * @param x The x-coordinate of the mask.
+     * @param y The y-coordinate of the mask.
+     * @param mask The collision mask.
+     * @param ignoredIndex The index of an asteroid to skip, or -1 to check them all.
+     * @param findLowest Determines whether the asteroid with the lowest index must be found, otherwise
+     *                   the search stops at the first collision.
+     * @return The index of the asteroid, or -1 if there were no collisions.
+     */
+    private int findCollision(int x, int y, CollisionMask mask, int ignoredIndex, boolean findLowest)
+    {
+        //The rectangle covered by the mask
+        int width = mask.getWidth();
+        int height = mask.getHeight();
+
+        //Find the first asteroid that could reach the rectangle
+        sortByX();
+        int k = firstStartingAfter(x - maxAsteroidWidth);
+
+        //Check each asteroid that starts before the rectangle's right edge
+        int hitIndex = -1;
+        for (; k < numSorted && sortedMinX[k] < x + width; k++)
         {
-            //If the rectangles intersect and are not the exact same
-            if (i != index && asteroids[i].getRectangle().intersects(rect))
+            int index = sortedIds[k];
+            if (index != SHIP_ID && index != ignoredIndex && (hitIndex < 0 || index < hitIndex) &&
+                    intersects(xPositions[index], yPositions[index], widths[index], heights[index], x, y, width, height)
+                    && CollisionMask.overlaps(asteroidMasks[types[index]], xPositions[index], yPositions[index], mask, x, y))
             {
-                return true;
+                //Stop at the first collision unless the lowest index is needed
+                if (!findLowest)
+                {
+                    return index;
+                }
+                hitIndex = index;
             }
         }
+        return hitIndex;
+    }
 
-        //There were no collisions
-        return false;
+    /**
+     * Find the first position in sortedMinX whose left edge is greater than the given x-coordinate.
+     * @param x The x-coordinate.
+     * @return The position, numSorted if every left edge is at or before x.
+     */
+    private int firstStartingAfter(int x)
+    {
+        //Binary search the sorted left edges
+        int low = 0;
+        int high = numSorted;
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (sortedMinX[middle] <= x)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Determine whether two rectangles intersect. Rectangles with no width or height never intersect,
+     * matching java.awt.Rectangle.intersects().
+     * @param x1 The x-coordinate of the first rectangle.
+     * @param y1 The y-coordinate of the first rectangle.
+     * @param width1 The width of the first rectangle.
+     * @param height1 The height of the first rectangle.
+     * @param x2 The x-coordinate of the second rectangle.
+     * @param y2 The y-coordinate of the second rectangle.
+     * @param width2 The width of the second rectangle.
+     * @param height2 The height of the second rectangle.
+     * @return True or false (true if the rectangles intersect, false otherwise).
+     */
+    public static boolean intersects(int x1, int y1, int width1, int height1, int x2, int y2, int width2, int height2)
+    {
+        //Empty rectangles cannot intersect anything
+        if (width1 <= 0 || height1 <= 0 || width2 <= 0 || height2 <= 0)
+        {
+            return false;
+        }
+
+        //The rectangles intersect if they overlap on both axes
+        return x1 < x2 + width2 && x2 < x1 + width1 && y1 < y2 + height2 && y2 < y1 + height1;
     }
 
     /**
-     * Draw all of the asteroids.
-     * @param dbGraphics The Graphics object used to draw the asteroids.
+     * Add the state of every asteroid to a hash of the game's state, used to check that a replayed game
+     * plays out the same as when it was recorded.
+     * @param hash The hash of the rest of the game's state.
+     * @return The hash including the asteroids.
      */
-    public void draw(Graphics dbGraphics)
+    public long hashState(long hash)
     {
-        //Update the asteroids
+        //Hash everything that decides how the asteroids move next
+        hash = GameSimulation.hashState(hash, numAsteroids);
         for (int i = 0; i < numAsteroids; i++)
         {
-            asteroids[i].draw(dbGraphics);
+            hash = GameSimulation.hashState(hash, xPositions[i]);
+            hash = GameSimulation.hashState(hash, yPositions[i]);
+            hash = GameSimulation.hashState(hash, xVelocities[i]);
+            hash = GameSimulation.hashState(hash, yVelocities[i]);
+            hash = GameSimulation.hashState(hash, types[i]);
+            hash = GameSimulation.hashState(hash, active[i] ? 1 : 0);
         }
+        return hash;
+    }
+
+    /**
+     * Get the current number of asteroids in the game.
+     * @return The number of asteroids.
+     */
+    public int getNumAsteroids()
+    {
+        return numAsteroids;
+    }
+
+    /**
+     * Get the x-coordinate position of an asteroid.
+     * @param index The index of the asteroid, less than getNumAsteroids().
+     * @return The x-coordinate.
+     */
+    public int getXPos(int index)
+    {
+        return xPositions[index];
+    }
+
+    /**
+     * Get the y-coordinate position of an asteroid.
+     * @param index The index of the asteroid, less than getNumAsteroids().
+     * @return The y-coordinate.
+     */
+    public int getYPos(int index)
+    {
+        return yPositions[index];
+    }
+
+    /**
+     * Get the x-coordinate position of an asteroid before the last update.
+     * @param index The index of the asteroid, less than getNumAsteroids().
+     * @return The previous x-coordinate.
+     */
+    public int getPrevXPos(int index)
+    {
+        return prevXPositions[index];
+    }
+
+    /**
+     * Get the y-coordinate position of an asteroid before the last update.
+     * @param index The index of the asteroid, less than getNumAsteroids().
+     * @return The previous y-coordinate.
+     */
+    public int getPrevYPos(int index)
+    {
+        return prevYPositions[index];
+    }
+
+    /**
+     * Get the collision mask of an asteroid.
+     * @param index The index of the asteroid, less than getNumAsteroids().
+     * @return The CollisionMask.
+     */
+    public CollisionMask getMask(int index)
+    {
+        return asteroidMasks[types[index]];
+    }
+
+    /**
+     * Get the width of an asteroid's collision box.
+     * @param index The index of the asteroid, less than getNumAsteroids().
+     * @return The width in pixels.
+     */
+    public int getWidth(int index)
+    {
+        return widths[index];
+    }
+
+    /**
+     * Get the height of an asteroid's collision box.
+     * @param index The index of the asteroid, less than getNumAsteroids().
+     * @return The height in pixels.
+     */
+    public int getHeight(int index)
+    {
+        return heights[index];
+    }
+
+    /**
+     * Get the type of an asteroid, used to pick the image that displays it.
+     * @param index The index of the asteroid, less than getNumAsteroids().
+     * @return The type.
+     */
+    public int getType(int index)
+    {
+        return types[index];
+    }
+
+    /**
+     * Determine whether an asteroid is active. Inactive asteroids have just hit the ship.
+     * @param index The index of the asteroid, less than getNumAsteroids().
+     * @return True or false.
+     */
+    public boolean isActive(int index)
+    {
+        return active[index];
     }
 }
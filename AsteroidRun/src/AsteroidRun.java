@@ -19,16 +19,26 @@ public class AsteroidRun extends JFrame implements WindowListener
      * @param FPS The desired FPS.
      */
     public AsteroidRun(int FPS)
+    {
+        this(FPS, new GameSettings());
+    }
+
+    /**
+     * A single-player AsteroidRun game using the given settings.
+     * @param FPS The desired FPS.
+     * @param settings The GameSettings used to configure the game loop.
+     */
+    public AsteroidRun(int FPS, GameSettings settings)
     {
         super("AsteroidRun");
 
         //Create the AsteroidRun and add it to the contentPane
-        asteroidRunPanel = new AsteroidRunPanel(FPS);
+        asteroidRunPanel = new AsteroidRunPanel(FPS, settings);
         getContentPane().add(asteroidRunPanel);
 
-        //Add a window listener to handle pausing
+        //Add a window listener to handle pausing, the window can only be resized if the game is scaled to fit it
         addWindowListener(this);
-        setResizable(false);
+        setResizable(settings.isScaled());
         setVisible(true);
         pack();
         setLocationRelativeTo(null);
@@ -100,10 +110,18 @@ public class AsteroidRun extends JFrame implements WindowListener
     /**
      * Launches a game of AsteroidRun. A single integer value can be specified as a command line
      * argument to set the FPS for the game. If no value is provided it will run at the default FPS.
+     * Additional settings are read from the asteroidrun.* system properties (see GameSettings).
      * @param args An integer specifying the requested FPS.
      */
     public static void main(String[] args)
     {
+        //Read the settings and report the tick rate if it is not tied to the FPS
+        GameSettings settings = GameSettings.fromSystemProperties();
+        if (settings.isFixedTimestep())
+        {
+            System.out.println("Running AsteroidRun simulation with tick rate: " + settings.getTickRate());
+        }
+
         //Check for command line arguments
         if (args.length > 0)
         {
@@ -113,7 +131,7 @@ public class AsteroidRun extends JFrame implements WindowListener
                 //Start a game with the requested FPS
                 int FPS = Integer.valueOf(args[0]);
                 System.out.println("Running AsteroidRun with FPS: " + FPS);
-                new AsteroidRun(FPS);
+                new AsteroidRun(FPS, settings);
             }
             catch (Exception e) //Horrible practice, but error catching isn't useful here
             {
@@ -125,7 +143,7 @@ public class AsteroidRun extends JFrame implements WindowListener
         else //Use the default FPS
         {
             System.out.println("Running AsteroidRun with default FPS: " + DEFAULT_FPS);
-            new AsteroidRun(DEFAULT_FPS);
+            new AsteroidRun(DEFAULT_FPS, settings);
         }
     }
 }
@@ -1,6 +1,8 @@
 import javax.swing.*;
 import java.awt.*;
-import java.awt.image.BufferedImage;
+import java.awt.image.BufferStrategy;
+import java.awt.image.VolatileImage;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Logan Karstetter
@@ -9,9 +11,9 @@ import java.awt.image.BufferedImage;
 public class AsteroidRunPanel extends JPanel implements Runnable
 {
     /** The width of this AsteroidRunPanel */
-    public static final int WIDTH = 700;
+    public static final int WIDTH = GameSimulation.WIDTH;
     /** The height of this AsteroidRunPanel */
-    public static final int HEIGHT = 800;
+    public static final int HEIGHT = GameSimulation.HEIGHT;
 
     /** The thread that runs the animation loop */
     private Thread animator;
@@ -19,17 +21,19 @@ public class AsteroidRunPanel extends JPanel implements Runnable
     private volatile boolean isRunning;
     /** Determines whether the game is paused; */
     private volatile boolean isPaused;
-    /** Determines whether the game is over */
-    private volatile boolean gameOver;
 
     /** The desired FPS/UPS for the animation loop */
     private int FPS;
     /** The amount of time allocated for each cycle of the game loop (in nanos) */
     private long loopPeriod;
-    /** The time the game started (in nanos) */
-    private long gameStartTime;
-    /** The amount of time spent playing the game (in secs) */
-    private int timeSpentInGame;
+    /** The amount of simulated time that passes with each game update (in nanos) */
+    private long tickPeriod;
+    /** The settings used to configure the game loop */
+    private GameSettings settings;
+    /** The FrameMetrics that record how long each phase of the game loop takes */
+    private FrameMetrics frameMetrics;
+    /** Adjusts the FPS to what the machine can keep up with, null unless the FPS is adaptive */
+    private FrameRateGovernor frameRateGovernor;
 
     /** The max number of times the animator thread can loop without sleeping
      * before it is forced to sleep/yield and let other threads execute */
@@ -42,29 +46,57 @@ public class AsteroidRunPanel extends JPanel implements Runnable
     private Graphics dbGraphics;
     /** The image that is created/rendered offscreen and later painted to the screen */
     private Image dbImage;
+    /** The dbImage held in video memory when accelerated surfaces are used, null otherwise */
+    private VolatileImage volatileImage;
+    /** Determines whether the volatileImage was accelerated the last time it was checked */
+    private boolean isBackBufferAccelerated;
 
-    /** The font used to display messages to the user */
-    private Font asteroidFont;
-    /** The font metrics used to help render the font messages */
-    private FontMetrics fontMetrics;
+    /** The Canvas drawn on in the BUFFER_STRATEGY render mode, null in the IMAGE render mode */
+    private Canvas canvas;
+    /** The BufferStrategy used to draw on and flip the canvas */
+    private BufferStrategy bufferStrategy;
+    /** The alpha used to render the last frame, used to render it again if the buffer's contents are lost */
+    private double lastAlpha;
+
+    /** The scale the game is drawn at, the size of the panel over the size of the game when the window resizes */
+    private double scale = 1.0;
+    /** The width of the frame drawn at the scale */
+    private int frameWidth = WIDTH;
+    /** The height of the frame drawn at the scale */
+    private int frameHeight = HEIGHT;
+    /** The x-coordinate position of the frame in the panel, the frame is centered with black bars around it */
+    private int frameX;
+    /** The y-coordinate position of the frame in the panel */
+    private int frameY;
+    /** Determines whether the back buffer still holds the last frame drawn, so the background can be scrolled in place */
+    private boolean isBackBufferValid;
+    /** The max number of times a frame is rendered again when the buffer's contents are lost before it is shown */
+    private final int MAX_CONTENTS_LOST_RETRIES = 3;
 
     /** The ImageLoader used to load the game images */
     private ImageLoader imageLoader;
+    /** Completes once the game images are loaded, the loading screen is shown until then */
+    private CompletableFuture<Void> imagesLoaded;
+    /** Reloads the game images when they change, null unless the settings enable hot reloading */
+    private AssetWatcher assetWatcher;
+    /** The font used to write the stats and the loading screen */
+    private Font asteroidFont;
     /** The KeyManager used to process key events */
     private KeyManager keyManager;
 
-    /** The Spaceship controlled by the player in this game */
-    private Spaceship spaceship;
-    /** The number of lives the player starts with */
-    private int initialNumberOfLives;
-    /** The number of lives the player has remaining before the game is over */
-    private int livesRemaining;
-    /** The AsteroidManager that manages the game's asteroids */
-    private AsteroidManager asteroidManager;
-    /** The Ribbon used to display the moving background */
-    private Ribbon backgroundRibbon;
-    /** The BufferedImage used to display the panel behind the game timer and lives remaining counter */
-    private BufferedImage panelImage;
+    /** The GameSimulation that holds and updates the state of the game */
+    private GameSimulation gameSimulation;
+    /** The GameRenderer that draws the state of the game */
+    private GameRenderer gameRenderer;
+    /** Records the game to a replay file, null unless the settings give a replay file */
+    private ReplayRecorder replayRecorder;
+
+    /** The snapshot of the game being drawn this frame */
+    private GameSnapshot renderSnapshot;
+    /** The snapshot the game is copied into when it is updated and rendered on the same thread */
+    private GameSnapshot frameSnapshot;
+    /** Passes snapshots from the simulation thread to the render thread, null unless the game loop is pipelined */
+    private SnapshotBuffer snapshotBuffer;
 
 
     /**
@@ -74,9 +106,44 @@ public class AsteroidRunPanel extends JPanel implements Runnable
      */
     public AsteroidRunPanel(int desiredFPS)
     {
-        //Store the FPS and calculate the loop period
+        this(desiredFPS, new GameSettings());
+    }
+
+    /**
+     * Create a new AsteroidRunPanel for playing AsteroidRun using the given settings.
+     * If the settings specify a tick rate, the game is updated at that rate and
+     * rendered at the desired FPS, otherwise the game is updated once per frame.
+     */
+    public AsteroidRunPanel(int desiredFPS, GameSettings settings)
+    {
+        //Store the FPS and settings, then calculate the loop and tick periods
         FPS = desiredFPS;
+        this.settings = settings;
         loopPeriod = 1000000000/FPS; //secs -> nanos
+        if (settings.isFixedTimestep())
+        {
+            tickPeriod = 1000000000/settings.getTickRate(); //secs -> nanos
+        }
+        else //One update per loop
+        {
+            tickPeriod = loopPeriod;
+        }
+
+        //Create the frameRateGovernor if the FPS is adaptive, the desired FPS is the ceiling unless one is given
+        if (settings.isAdaptiveFps())
+        {
+            int maxFps = settings.getMaxFps() > 0 ? settings.getMaxFps() : FPS;
+            frameRateGovernor = new FrameRateGovernor(FPS, settings.getMinFps(), maxFps);
+            loopPeriod = frameRateGovernor.getLoopPeriod();
+        }
+
+        //Create the frameMetrics and publish them over JMX if requested
+        frameMetrics = new FrameMetrics();
+        frameMetrics.recordTargetFps((int) (1000000000L/loopPeriod));
+        if (settings.isMetricsEnabled())
+        {
+            frameMetrics.register();
+        }
 
         //Set up the panel
         setBackground(Color.BLACK);
@@ -85,30 +152,81 @@ public class AsteroidRunPanel extends JPanel implements Runnable
         setFocusable(true); //Request focus to the panel
         requestFocus();
 
-        //Create the ImageLoader and KeyManager
+        //Create the ImageLoader and start loading the images in the background, then create the KeyManager
         imageLoader = new ImageLoader();
-        imageLoader.loadImagesFromFile("ImagesConfig.txt");
-        keyManager = new KeyManager(this);
+        imageLoader.setSpriteCacheDirectory(settings.getSpriteCacheDirectory());
+        imagesLoaded = imageLoader.loadImagesFromFileAsync("ImagesConfig.txt");
+        asteroidFont = new Font("SansSerif", Font.BOLD, 19);
+        keyManager = new KeyManager();
         this.addKeyListener(keyManager);
 
-        //Create the asteroidManager and spaceship
-        asteroidManager = new AsteroidManager(7, imageLoader, this);
-        spaceship = new Spaceship("Space Heavy Freighter", loopPeriod, asteroidManager,
-                imageLoader, keyManager, this );
+        //In the BUFFER_STRATEGY render mode the game is drawn on a Canvas filling the panel
+        if (settings.getRenderMode() == GameSettings.RenderMode.BUFFER_STRATEGY)
+        {
+            canvas = new Canvas();
+            canvas.setPreferredSize(new Dimension(WIDTH, HEIGHT));
+            canvas.setBackground(Color.BLACK);
+            canvas.setIgnoreRepaint(true); //Active rendering is used
+            canvas.setFocusable(true);
+            canvas.addKeyListener(keyManager);
+            setLayout(new BorderLayout());
+            add(canvas, BorderLayout.CENTER);
+        }
 
-        //Set the number of lives, the initial number of lives variable is only used for printing
-        initialNumberOfLives = 3;
-        livesRemaining = initialNumberOfLives;
+        //Create the snapshots the game is drawn from
+        frameSnapshot = new GameSnapshot();
+        if (settings.isPipelined())
+        {
+            snapshotBuffer = new SnapshotBuffer();
+        }
+    }
 
-        //Create the backgroundRibbon
-        backgroundRibbon = new Ribbon(imageLoader.getImage("Space Background"), 1);
+    /**
+     * Create the gameSimulation and the gameRenderer that draws it, once the images are loaded. The
+     * simulation needs the collision masks of the asteroid and spaceship images, and the renderer the images.
+     */
+    private void createGame()
+    {
+        //Create the gameSimulation using the collision masks of the asteroid and spaceship images
+        CollisionMask[] asteroidMasks = new CollisionMask[AsteroidManager.ASTEROID_IMAGE_NAMES.length];
+        for (int i = 0; i < asteroidMasks.length; i++)
+        {
+            asteroidMasks[i] = imageLoader.getMask(AsteroidManager.ASTEROID_IMAGE_NAMES[i]);
+        }
+        CollisionMask shipMask = imageLoader.getMask(Spaceship.IMAGE_NAME, 0);
+        if (settings.isSeeded())
+        {
+            gameSimulation = new GameSimulation(GameSimulation.NUM_INITIAL_ASTEROIDS, settings.getSeed(), asteroidMasks,
+                    shipMask, tickPeriod);
+        }
+        else //Pick a new random seed
+        {
+            gameSimulation = new GameSimulation(asteroidMasks, shipMask, tickPeriod);
+        }
+        gameSimulation.setParallelUpdate(settings.isParallelUpdate());
 
-        //Load the panelImage
-        panelImage = imageLoader.getImage("AsteroidRun Panel");
+        //Record the game if requested
+        if (settings.getReplayFile() != null)
+        {
+            replayRecorder = new ReplayRecorder(settings.getReplayFile(), gameSimulation);
+        }
 
-        //Create the font and font metrics
-        asteroidFont = new Font("SansSerif", Font.BOLD, 19);
-        fontMetrics = this.getFontMetrics(asteroidFont);
+        //Create the gameRenderer, the sprites are accelerated for the default screen
+        GraphicsConfiguration graphicsConfiguration = null;
+        if (settings.isAcceleratedSurfaces())
+        {
+            graphicsConfiguration = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration();
+        }
+        gameRenderer = new GameRenderer(gameSimulation, imageLoader, asteroidFont, this.getFontMetrics(asteroidFont),
+                graphicsConfiguration, settings.getBackgroundLayers());
+
+        //Watch the images for changes if requested, the gameRenderer draws the reloaded images
+        if (settings.isHotReload())
+        {
+            assetWatcher = new AssetWatcher(imageLoader, "ImagesConfig.txt");
+            assetWatcher.start();
+        }
     }
 
     /**
@@ -162,23 +280,65 @@ public class AsteroidRunPanel extends JPanel implements Runnable
     }
 
     /**
-     * Ends the game, sets gameOver to true.
+     * Run the game loop. The loading screen is shown until the images are loaded and the game is created. Then
+     * if the settings ask for a pipelined loop the game is updated and rendered on separate threads, if they
+     * specify a tick rate or an adaptive FPS the fixed timestep loop is used, otherwise the game is updated once
+     * per rendered frame.
      */
-    public void gameOver()
+    public void run()
     {
-        gameOver = true;
+        //Show the loading screen, then create the game if the window was not closed in the meantime
+        isRunning = true;
+        showLoadingScreen();
+        if (isRunning)
+        {
+            createGame();
+
+            //Run the requested game loop
+            if (settings.isPipelined())
+            {
+                runPipelined();
+            }
+            else if (settings.isFixedTimestep() || frameRateGovernor != null)
+            {
+                runFixedTimestep();
+            }
+            else
+            {
+                runFrameLocked();
+            }
+        }
+
+        //Running is false, so finish the recording, stop watching the images, and exit
+        if (replayRecorder != null)
+        {
+            replayRecorder.close();
+        }
+        if (assetWatcher != null)
+        {
+            assetWatcher.stop();
+        }
+        System.exit(0);
     }
 
-    /** Remove one of the player's remaining lives. If the number of remaining lives is less than
-     * zero, then the game is over.
+    /**
+     * Render and paint the loading screen at the desired FPS until the images are loaded, so the window shows
+     * the progress straight away rather than staying black while the images load.
      */
-    public void lifeLost()
+    private void showLoadingScreen()
     {
-        //Decrement the lives remaining
-        livesRemaining--;
-        if (livesRemaining < 0)
+        while (isRunning && !imagesLoaded.isDone())
         {
-            gameOver();
+            gameRender(null, 1.0);
+            paintScreen();
+            try
+            {
+                Thread.sleep(loopPeriod/1000000); //nanos -> ms
+            }
+            catch (InterruptedException e)
+            {
+                //Do nothing
+            }
         }
     }
 
@@ -186,7 +346,7 @@ public class AsteroidRunPanel extends JPanel implements Runnable
      * Repeatably update, render, paint, and sleep such that the game loop takes close to the amount of
      * time allotted by the desired FPS (loopPeriod).
      */
-    public void run()
+    private void runFrameLocked()
     {
         //The time before the current loop/cycle begins
         long beforeTime;
@@ -208,15 +368,13 @@ public class AsteroidRunPanel extends JPanel implements Runnable
 
         //Get the current time before the first loop
         beforeTime = System.nanoTime();
-        gameStartTime = beforeTime; //Store the time the game started
 
         //Game loop
-        isRunning = true;
         while (isRunning)
         {
             //Update, render, and paint the screen
             gameUpdate();
-            gameRender();
+            gameRender(captureFrameSnapshot(), 1.0); //The game is drawn exactly where it was updated
             paintScreen(); //active rendering
 
             //Get the current time after the methods executed
@@ -239,6 +397,7 @@ public class AsteroidRunPanel extends JPanel implements Runnable
                 }
                 //Check if the animator overslept, overSleepTime will be deducted from the next sleepTime
                 overSleepTime = (System.nanoTime() - afterTime) - sleepTime;
+                frameMetrics.recordOverSleep(overSleepTime);
             }
             else //If we didn't get a chance to sleep this loopPeriod (sleepTime <= 0)
             {
@@ -255,6 +414,7 @@ public class AsteroidRunPanel extends JPanel implements Runnable
 
             //Get the beforeTime for the next cycle
             beforeTime = System.nanoTime();
+            frameMetrics.frameFinished(beforeTime);
 
             //If rendering and animation are taking too long, update the game without rendering it
             //This will get the UPS closer to the desired FPS
@@ -264,11 +424,231 @@ public class AsteroidRunPanel extends JPanel implements Runnable
                 //Update x times without rendering, won't be noticeable if MAX_SKIPPED_FRAMES is small
                 overTime = overTime - loopPeriod;
                 gameUpdate();
+                frameMetrics.recordSkippedFrame();
                 skips++;
             }
         }
-        //Running is false, so exit
-        System.exit(0);
+    }
+
+    /**
+     * Repeatably update the game in fixed steps of tickPeriod and render it at the desired FPS. The time
+     * that passes between frames is added to an accumulator, and the game is updated once for each
+     * tickPeriod in the accumulator. The time left over in the accumulator is used to interpolate the
+     * rendered positions between the last two updates, which keeps motion smooth when the FPS is higher
+     * than the tick rate and keeps the game speed the same at any FPS.
+     */
+    private void runFixedTimestep()
+    {
+        //The time the previous frame started
+        long previousTime;
+        //The time the current frame started
+        long currentTime;
+        //The amount of time that passed between the previous and current frame
+        long frameTime;
+        //The amount of time that has passed but has not been simulated yet
+        long accumulator = 0L;
+        //The amount of time left in the current loopPeriod that the thread can sleep for
+        long sleepTime;
+
+        //The largest frameTime that will be simulated, longer frames (e.g. after a stall) are cut short
+        //so that the game does not try to catch up with an endless number of updates
+        long maxFrameTime;
+        //The number of times the thread looped/cycled without sleeping
+        int numDelays = 0;
+
+        //Get the current time before the first loop
+        previousTime = System.nanoTime();
+
+        //Game loop
+        while (isRunning)
+        {
+            //Add the time that passed since the previous frame to the accumulator
+            currentTime = System.nanoTime();
+            maxFrameTime = MAX_FRAMES_SKIPPED * Math.max(loopPeriod, tickPeriod); //The loopPeriod may be adapted
+            frameTime = Math.min(currentTime - previousTime, maxFrameTime);
+            previousTime = currentTime;
+            accumulator = accumulator + frameTime;
+
+            //Update the game once for every tickPeriod in the accumulator
+            int numUpdates = 0;
+            while (accumulator >= tickPeriod)
+            {
+                gameUpdate();
+                accumulator = accumulator - tickPeriod;
+
+                //Every update after the first is one that will not be rendered
+                if (++numUpdates > 1)
+                {
+                    frameMetrics.recordSkippedFrame();
+                }
+            }
+
+            //Render the game between the last two updates and paint the screen
+            gameRender(captureFrameSnapshot(), (double) accumulator/tickPeriod);
+            paintScreen(); //active rendering
+
+            //Adapt the FPS to the time this frame took, then sleep for whatever is left of this loopPeriod
+            adaptFrameRate(System.nanoTime() - currentTime);
+            sleepTime = loopPeriod - (System.nanoTime() - currentTime);
+            if (sleepTime > 0)
+            {
+                try
+                {
+                    Thread.sleep(sleepTime/1000000L, (int) (sleepTime % 1000000L)); //nanos -> ms
+                }
+                catch (InterruptedException e)
+                {
+                    //Do nothing
+                }
+                //Check how long the animator overslept
+                frameMetrics.recordOverSleep((System.nanoTime() - currentTime) - loopPeriod);
+            }
+            else if (++numDelays >= NUM_DELAYS_FOR_YIELD) //See if the animator thread needs to yield
+            {
+                Thread.yield();
+                numDelays = 0;
+            }
+            frameMetrics.frameFinished(System.nanoTime());
+        }
+    }
+
+    /**
+     * Update and render the game on separate threads. A simulation thread updates the game every tickPeriod
+     * and publishes a snapshot of it after each update, while this thread draws the latest snapshot at the
+     * desired FPS. Neither thread waits for the other, so frame N can be drawn while tick N+1 is simulated and
+     * a slow frame never delays an update. The snapshot is drawn between its previous and current positions
+     * by how much of a tickPeriod has passed since it was published.
+     */
+    private void runPipelined()
+    {
+        //The time the current frame started
+        long currentTime;
+        //The amount of time left in the current loopPeriod that the thread can sleep for
+        long sleepTime;
+        //The number of times the thread looped/cycled without sleeping
+        int numDelays = 0;
+
+        //Publish the game as it starts before the simulation thread does, so the first frame has a snapshot to draw
+        GameSnapshot firstSnapshot = snapshotBuffer.getBackSnapshot();
+        gameRenderer.captureSnapshot(firstSnapshot);
+        firstSnapshot.setPublishTime(System.nanoTime());
+        snapshotBuffer.publish();
+
+        //Start the simulation thread
+        Thread simulator = new Thread(this::runSimulation, "AsteroidRun Simulation");
+        simulator.start();
+
+        //Render loop
+        while (isRunning)
+        {
+            //Draw the latest snapshot, interpolated by the time passed since it was published
+            currentTime = System.nanoTime();
+            GameSnapshot snapshot = snapshotBuffer.acquireLatest();
+            double alpha = Math.min(1.0, (double) (currentTime - snapshot.getPublishTime())/tickPeriod);
+            gameRender(snapshot, alpha);
+            paintScreen(); //active rendering
+
+            //Adapt the FPS to the time this frame took, then sleep for whatever is left of this loopPeriod
+            adaptFrameRate(System.nanoTime() - currentTime);
+            sleepTime = loopPeriod - (System.nanoTime() - currentTime);
+            if (sleepTime > 0)
+            {
+                try
+                {
+                    Thread.sleep(sleepTime/1000000L, (int) (sleepTime % 1000000L)); //nanos -> ms
+                }
+                catch (InterruptedException e)
+                {
+                    //Do nothing
+                }
+                //Check how long the animator overslept
+                frameMetrics.recordOverSleep((System.nanoTime() - currentTime) - loopPeriod);
+            }
+            else if (++numDelays >= NUM_DELAYS_FOR_YIELD) //See if the animator thread needs to yield
+            {
+                Thread.yield();
+                numDelays = 0;
+            }
+            frameMetrics.frameFinished(System.nanoTime());
+        }
+
+        //Wait for the simulation thread to finish its last update
+        try
+        {
+            simulator.join();
+        }
+        catch (InterruptedException e)
+        {
+            //Do nothing
+        }
+    }
+
+    /**
+     * Repeatably update the game every tickPeriod and publish a snapshot of it to the render thread. If the
+     * updates fall behind by more than MAX_FRAMES_SKIPPED ticks (e.g. after a stall), the missed time is
+     * dropped rather than caught up.
+     */
+    private void runSimulation()
+    {
+        //The time the next update is due
+        long nextTickTime = System.nanoTime();
+        //The amount of time until the next update is due
+        long sleepTime;
+
+        //Simulation loop
+        while (isRunning)
+        {
+            //Update the game and publish a snapshot of it
+            gameUpdate();
+            GameSnapshot snapshot = snapshotBuffer.getBackSnapshot();
+            gameRenderer.captureSnapshot(snapshot);
+            snapshot.setPublishTime(System.nanoTime());
+            snapshotBuffer.publish();
+
+            //Sleep until the next update is due
+            nextTickTime = nextTickTime + tickPeriod;
+            sleepTime = nextTickTime - System.nanoTime();
+            if (sleepTime > 0)
+            {
+                try
+                {
+                    Thread.sleep(sleepTime/1000000L, (int) (sleepTime % 1000000L)); //nanos -> ms
+                }
+                catch (InterruptedException e)
+                {
+                    //Do nothing
+                }
+            }
+            else if (-sleepTime > MAX_FRAMES_SKIPPED * tickPeriod) //Drop the time if too far behind
+            {
+                nextTickTime = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Let the frameRateGovernor adjust the FPS to the time the last frame took, if the FPS is adaptive.
+     * @param workTime The time taken to update, render, and paint the frame (in nanos).
+     */
+    private void adaptFrameRate(long workTime)
+    {
+        if (frameRateGovernor != null && frameRateGovernor.frameFinished(workTime))
+        {
+            loopPeriod = frameRateGovernor.getLoopPeriod();
+            frameMetrics.recordTargetFps(frameRateGovernor.getFps());
+            System.out.println("Target FPS changed to " + frameRateGovernor.getFps());
+        }
+    }
+
+    /**
+     * Copy the current state of the game into the frameSnapshot, used when the game is updated and rendered
+     * on the same thread.
+     * @return The frameSnapshot.
+     */
+    private GameSnapshot captureFrameSnapshot()
+    {
+        gameRenderer.captureSnapshot(frameSnapshot);
+        return frameSnapshot;
     }
 
     /**
@@ -276,14 +656,110 @@ public class AsteroidRunPanel extends JPanel implements Runnable
      */
     private void gameUpdate()
     {
+        //Get the time before updating, the time taken is recorded in the frameMetrics
+        long startTime = System.nanoTime();
+
         //If the game is not over or paused, update
-        if (!gameOver && !isPaused)
+        if (!gameSimulation.isGameOver() && !isPaused)
         {
-            //Update the game elements
-            backgroundRibbon.update();
+            //Update the game elements and the background and animations that display them
             keyManager.update();
-            asteroidManager.update();
-            spaceship.update();
+            int input = keyManager.getInput();
+            gameSimulation.step(input);
+            if (replayRecorder != null)
+            {
+                replayRecorder.record(input);
+            }
+            gameRenderer.update();
+
+            //Stop the game if the player pressed escape
+            if (gameSimulation.isQuitRequested())
+            {
+                stopGame();
+            }
+        }
+        frameMetrics.recordUpdate(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Render the game offscreen using the render mode chosen in the settings. The paintScreen()
+     * method then presents the rendered frame on the screen.
+     * @param snapshot The GameSnapshot to draw, or null to draw the loading screen.
+     * @param alpha How far the game is between the previous and current update (0.0 - 1.0), used to
+     *              interpolate the positions of the game elements.
+     */
+    private void gameRender(GameSnapshot snapshot, double alpha)
+    {
+        //Get the time before rendering, the time taken is recorded in the frameMetrics
+        long startTime = System.nanoTime();
+
+        //Nothing moves while the game is paused or over, so draw the current positions
+        if (isPaused || (snapshot != null && snapshot.isGameOver()))
+        {
+            alpha = 1.0;
+        }
+        renderSnapshot = snapshot;
+        lastAlpha = alpha;
+
+        //Fit the game to the size of the window if it can be resized
+        if (settings.isScaled())
+        {
+            updateScale();
+        }
+
+        //Render the game
+        if (canvas != null)
+        {
+            renderToBufferStrategy(alpha);
+        }
+        else if (settings.isAcceleratedSurfaces())
+        {
+            renderToVolatileImage(alpha);
+        }
+        else
+        {
+            renderToImage(alpha);
+        }
+        frameMetrics.recordRender(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Find the scale that fits the game into the panel (or canvas) while keeping its shape, and where the frame
+     * sits in the panel. The frame is drawn at the scale with pre-scaled images, and centered with black bars
+     * filling the rest of the panel.
+     */
+    private void updateScale()
+    {
+        //The panel has no size until it is laid out
+        Component surface = (canvas != null) ? canvas : this;
+        int panelWidth = surface.getWidth();
+        int panelHeight = surface.getHeight();
+        if (panelWidth <= 0 || panelHeight <= 0)
+        {
+            return;
+        }
+
+        //Fit the game inside the panel
+        scale = Math.min((double) panelWidth/WIDTH, (double) panelHeight/HEIGHT);
+        frameWidth = Math.max(1, (int) Math.round(WIDTH * scale));
+        frameHeight = Math.max(1, (int) Math.round(HEIGHT * scale));
+        frameX = (panelWidth - frameWidth)/2;
+        frameY = (panelHeight - frameHeight)/2;
+    }
+
+    /**
+     * Fill the parts of the panel around the frame with black.
+     * @param g The Graphics object of the panel.
+     */
+    private void drawBars(Graphics g)
+    {
+        if (frameX > 0 || frameY > 0)
+        {
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, frameX, frameY + frameHeight);
+            g.fillRect(frameX, 0, frameWidth + frameX + 1, frameY);
+            g.fillRect(frameX + frameWidth, frameY, frameX + 1, frameHeight + frameY + 1);
+            g.fillRect(0, frameY + frameHeight, frameX + frameWidth, frameY + 1);
         }
     }
 
@@ -292,14 +768,20 @@ public class AsteroidRunPanel extends JPanel implements Runnable
      * method creates an Image the size of the AsteroidRunPanel and draws to it offscreen.
      * Drawing offscreen prevents flickering and then allows the paintScreen() method
      * to draw the entire screen as an image rather than in layers.
+     * @param alpha How far the game is between the previous and current update (0.0 - 1.0).
      */
-    private void gameRender()
+    private void renderToImage(double alpha)
     {
-        //If the dbImage (double buffered image) has not been created
-        if (dbImage == null)
+        //If the dbImage (double buffered image) has not been created, or the frame changed size
+        if (dbImage == null || dbImage.getWidth(null) != frameWidth || dbImage.getHeight(null) != frameHeight)
         {
-            //Make an image the size of the panel
-            dbImage = createImage(WIDTH, HEIGHT);
+            //Make an image the size of the frame
+            if (dbGraphics != null)
+            {
+                dbGraphics.dispose();
+            }
+            dbImage = createImage(frameWidth, frameHeight);
+            isBackBufferValid = false;
             if (dbImage == null)
             {
                 return;
@@ -308,89 +790,244 @@ public class AsteroidRunPanel extends JPanel implements Runnable
             {
                 //Get the graphics context to draw to the dbImage
                 dbGraphics = dbImage.getGraphics();
-
-                //Set the font once
-                dbGraphics.setFont(asteroidFont);
             }
         }
 
-        //Draw the background image
-        backgroundRibbon.draw(dbGraphics);
-
-        //Render the game elements
-        spaceship.draw(dbGraphics);
-        asteroidManager.draw(dbGraphics);
-
-        //Print the game stats
-        printStats(dbGraphics);
+        //Render the game
+        drawFrame(dbGraphics, alpha);
     }
 
     /**
-     * Actively render/draw the dbImage (created in gameRender()) onto the screen/AsteroidRunPanel.
+     * Render the game into a VolatileImage held in video memory. The image is checked against the panel's
+     * graphics configuration every frame and recreated if it is no longer compatible (e.g. the window moved
+     * to another screen). If its contents are lost while drawing, the frame is drawn again.
+     * @param alpha How far the game is between the previous and current update (0.0 - 1.0).
      */
-    private void paintScreen()
+    private void renderToVolatileImage(double alpha)
     {
-        //Declare a graphics object
-        Graphics g;
+        //The panel has no graphics configuration until it is displayable
+        GraphicsConfiguration graphicsConfiguration = getGraphicsConfiguration();
+        if (graphicsConfiguration == null)
+        {
+            return;
+        }
 
-        try
+        int retries = 0;
+        do
         {
-            //Get the graphics context from the AsteroidRunPanel so we can to draw to the panel
-            g = this.getGraphics();
+            //Create the volatileImage if it does not exist, is no longer compatible with the screen, or changed size
+            int status = VolatileImage.IMAGE_INCOMPATIBLE;
+            if (volatileImage != null && volatileImage.getWidth() == frameWidth && volatileImage.getHeight() == frameHeight)
+            {
+                status = volatileImage.validate(graphicsConfiguration);
+            }
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE)
+            {
+                if (volatileImage != null)
+                {
+                    volatileImage.flush();
+                }
+                volatileImage = graphicsConfiguration.createCompatibleVolatileImage(frameWidth, frameHeight);
+                dbImage = volatileImage;
+            }
 
-            if ((g != null) && (dbImage != null))
+            //A new or restored image no longer holds the last frame
+            if (status != VolatileImage.IMAGE_OK)
             {
-                g.drawImage(dbImage, 0, 0, null);
+                isBackBufferValid = false;
             }
-            Toolkit.getDefaultToolkit().sync(); //Sync the display (only applies to odd systems)
+
+            //Render the game with a fresh graphics context, the old one is invalid once the image is restored
+            Graphics g = volatileImage.getGraphics();
+            drawFrame(g, alpha);
             g.dispose();
+        }
+        while (volatileImage.contentsLost() && ++retries < MAX_CONTENTS_LOST_RETRIES);
 
+        //Report whether the back buffer is accelerated when it first is created and whenever it changes
+        boolean wasAccelerated = isBackBufferAccelerated;
+        isBackBufferAccelerated = volatileImage.getCapabilities().isAccelerated();
+        if (wasAccelerated != isBackBufferAccelerated || frameMetrics.getFrameCount() == 0)
+        {
+            System.out.println("Back buffer " + (isBackBufferAccelerated ? "is accelerated" :
+                    "is NOT accelerated (software)"));
         }
-        catch (NullPointerException e)
+        if (gameRenderer != null)
         {
-            System.out.println("Graphics context error: " + e);
+            frameMetrics.recordSurfaces(gameRenderer.getNumAcceleratedSurfaces() + (isBackBufferAccelerated ? 1 : 0),
+                    gameRenderer.getNumSurfaces() + 1);
         }
     }
 
     /**
-     * Print the game statistics onto the screen.
+     * Render the game into the back buffer of the canvas's BufferStrategy. The BufferStrategy is created
+     * the first time the canvas can be drawn on, using page flipping if the graphics pipeline supports it and
+     * accelerated copying otherwise. If the back buffer is restored after being lost while drawing, the frame
+     * is drawn again.
+     * @param alpha How far the game is between the previous and current update (0.0 - 1.0).
      */
-    private void printStats(Graphics dbGraphics)
+    private void renderToBufferStrategy(double alpha)
     {
-        //Set the color to white
-        dbGraphics.setColor(Color.BLACK);
+        //Create the bufferStrategy once the canvas is displayable
+        if (bufferStrategy == null)
+        {
+            if (!canvas.isDisplayable())
+            {
+                return;
+            }
+            canvas.createBufferStrategy(settings.getNumBuffers());
+            bufferStrategy = canvas.getBufferStrategy();
+            System.out.println("Created BufferStrategy with " + settings.getNumBuffers() + " buffers, page flipping: " +
+                    bufferStrategy.getCapabilities().isPageFlipping());
+        }
 
-        //Draw the panelImage
-        dbGraphics.drawImage(panelImage, 0, 0, null);
+        //Draw the frame, draw it again if the back buffer was restored while drawing. The back buffer
+        //never holds the last frame, it is one of several buffers being flipped or copied
+        do
+        {
+            isBackBufferValid = false;
+            Graphics g = bufferStrategy.getDrawGraphics();
+            drawBars(g);
+            Graphics frameGraphics = g.create(frameX, frameY, frameWidth, frameHeight);
+            drawFrame(frameGraphics, alpha);
+            frameGraphics.dispose();
+            g.dispose();
+        }
+        while (bufferStrategy.contentsRestored());
+    }
 
-        //Calculate the time playing as long as the game isn't over
-        if (!gameOver)
+    /**
+     * Draw the frame being rendered, the renderSnapshot once the game is created and the loading screen before.
+     * @param g The Graphics object used to draw the frame.
+     * @param alpha How far the game is between the previous and current update (0.0 - 1.0).
+     */
+    private void drawFrame(Graphics g, double alpha)
+    {
+        if (renderSnapshot != null)
         {
-            timeSpentInGame = (int) ((System.nanoTime() - gameStartTime)/1000000000L);  // ns --> secs
-            //Write out the time spent in game
-            dbGraphics.drawString("Game time: " + timeSpentInGame, 5, 20);
-            //Print the number of lives/shields the player has remaining
-            dbGraphics.drawString("Shields: " + ((float) livesRemaining/initialNumberOfLives) * 100 + "%", 5, 40);
+            gameRenderer.setScale(scale);
+            gameRenderer.setBackBufferRetained(isBackBufferValid);
+            gameRenderer.render(g, renderSnapshot, alpha);
+            isBackBufferValid = true;
+        }
+        else if (scale != 1.0) //The loading screen is only shown briefly, so it is scaled as it is drawn
+        {
+            Graphics2D g2d = (Graphics2D) g.create();
+            g2d.scale(scale, scale);
+            drawLoadingScreen(g2d);
+            g2d.dispose();
+            isBackBufferValid = false;
         }
         else
         {
-            //Write out the time spent in game
-            dbGraphics.drawString("Game time: " + timeSpentInGame, 5, 20);
-            //The player lost, so the shields/lives must be at zero percent
-            dbGraphics.drawString("Shields: 0.0%", 5, 40);
+            drawLoadingScreen(g);
+            isBackBufferValid = false;
+        }
+    }
+
+    /**
+     * Draw the loading screen, a message and a bar that fills up as the images are loaded.
+     * @param g The Graphics object used to draw the loading screen.
+     */
+    private void drawLoadingScreen(Graphics g)
+    {
+        //Clear the screen
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
 
-            //Write the game over message to the screen
-            int msgX = (WIDTH - fontMetrics.stringWidth("Game Over!"))/2;
-            int msgY = (HEIGHT - fontMetrics.getHeight())/2;
-            dbGraphics.setColor(Color.WHITE);
-            dbGraphics.drawString("Game Over!", msgX, msgY);
+        //Write the message in the middle of the screen
+        g.setFont(asteroidFont);
+        FontMetrics fontMetrics = g.getFontMetrics();
+        String message = "Loading...";
+        g.setColor(Color.WHITE);
+        g.drawString(message, (WIDTH - fontMetrics.stringWidth(message))/2, HEIGHT/2 - fontMetrics.getDescent());
 
-            //Write the created by message to the screen
-            msgX = (WIDTH - fontMetrics.stringWidth("Code and Graphics by: Logan Karstetter"))/2;
-            msgY = (HEIGHT - fontMetrics.getHeight())/2;
-            dbGraphics.drawString("Code and Graphics by: Logan Karstetter", msgX, msgY + fontMetrics.getHeight());
+        //Draw the progress bar under the message
+        int barWidth = WIDTH/2;
+        int barX = (WIDTH - barWidth)/2;
+        int barY = HEIGHT/2 + 10;
+        g.drawRect(barX, barY, barWidth, 12);
+        g.fillRect(barX, barY, (int) (barWidth * imageLoader.getLoadProgress()), 12);
+    }
+
+    /**
+     * Present the rendered frame on the screen using the render mode chosen in the settings.
+     */
+    private void paintScreen()
+    {
+        //Get the time before painting, the time taken is recorded in the frameMetrics
+        long startTime = System.nanoTime();
+
+        //Present the frame
+        if (canvas != null)
+        {
+            showBufferStrategy();
         }
+        else
+        {
+            paintImage();
+        }
+        frameMetrics.recordPaint(System.nanoTime() - startTime);
     }
 
+    /**
+     * Flip/copy the back buffer of the canvas's BufferStrategy onto the screen. If the back buffer was lost
+     * before it could be shown, the frame is rendered and shown again.
+     */
+    private void showBufferStrategy()
+    {
+        //Make sure there is something to show
+        if (bufferStrategy == null)
+        {
+            return;
+        }
+
+        //Show the back buffer, render the frame again if it was lost
+        bufferStrategy.show();
+        int retries = 0;
+        while (bufferStrategy.contentsLost() && retries < MAX_CONTENTS_LOST_RETRIES)
+        {
+            renderToBufferStrategy(lastAlpha);
+            bufferStrategy.show();
+            retries++;
+        }
+        Toolkit.getDefaultToolkit().sync(); //Sync the display (only applies to odd systems)
+    }
+
+    /**
+     * Actively render/draw the dbImage (created in gameRender()) onto the screen/AsteroidRunPanel.
+     */
+    private void paintImage()
+    {
+        //Declare a graphics object
+        Graphics g;
+
+        try
+        {
+            //Get the graphics context from the AsteroidRunPanel so we can to draw to the panel
+            g = this.getGraphics();
+
+            if ((g != null) && (dbImage != null))
+            {
+                drawBars(g);
+                g.drawImage(dbImage, frameX, frameY, null);
 
-}
+                //If the volatileImage was lost before it was copied, render and copy the frame again
+                int retries = 0;
+                while (volatileImage != null && volatileImage.contentsLost() && retries < MAX_CONTENTS_LOST_RETRIES)
+                {
+                    renderToVolatileImage(lastAlpha);
+                    g.drawImage(dbImage, frameX, frameY, null);
+                    retries++;
+                }
+            }
+            Toolkit.getDefaultToolkit().sync(); //Sync the display (only applies to odd systems)
+            g.dispose();
+
+        }
+        catch (NullPointerException e)
+        {
+            System.out.println("Graphics context error: " + e);
+        }
+    }
+}
\ No newline at end of file
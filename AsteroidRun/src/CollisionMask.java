@@ -0,0 +1,323 @@
+import java.awt.image.BufferedImage;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class CollisionMask
+{
+    /** The lowest alpha value (0 - 255) a pixel must have to count as solid */
+    public static final int ALPHA_THRESHOLD = 128;
+    /** The furthest two moving masks move relative to each other between the points where they are compared */
+    private static final double SWEEP_STEP = 2.0;
+
+    /** The width of the mask in pixels */
+    private int width;
+    /** The height of the mask in pixels */
+    private int height;
+    /** The number of longs used to hold each row */
+    private int wordsPerRow;
+    /** The bits of every row, one bit per pixel, with the first pixel of a row in the lowest bit of its first long */
+    private long[] bits;
+    /** Determines whether every pixel in the mask is solid */
+    private boolean isSolid;
+
+    /**
+     * Create an empty CollisionMask of the given size.
+     * @param width The width of the mask in pixels.
+     * @param height The height of the mask in pixels.
+     */
+    private CollisionMask(int width, int height)
+    {
+        this.width = width;
+        this.height = height;
+        wordsPerRow = (width + 63)/64;
+        bits = new long[wordsPerRow * height];
+    }
+
+    /**
+     * Create a CollisionMask from the alpha channel of an image. Every pixel with an alpha of at least
+     * ALPHA_THRESHOLD is solid. The pixels are read once here, so that collisions can later be checked
+     * 64 pixels at a time without reading the image again.
+     * @param image The image to create the mask from.
+     * @return The CollisionMask.
+     */
+    public static CollisionMask fromImage(BufferedImage image)
+    {
+        //Read the pixels of the image in one go
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        boolean hasAlpha = image.getColorModel().hasAlpha();
+
+        //Set the bit of every solid pixel
+        CollisionMask mask = new CollisionMask(width, height);
+        int numSolid = 0;
+        for (int y = 0; y < height; y++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                if (!hasAlpha || (pixels[y * width + x] >>> 24) >= ALPHA_THRESHOLD)
+                {
+                    mask.bits[y * mask.wordsPerRow + (x >>> 6)] |= 1L << (x & 63);
+                    numSolid++;
+                }
+            }
+        }
+        mask.isSolid = numSolid == width * height;
+        return mask;
+    }
+
+    /**
+     * Create a CollisionMask where every pixel is solid, which collides exactly like a rectangle.
+     * @param width The width of the mask in pixels.
+     * @param height The height of the mask in pixels.
+     * @return The CollisionMask.
+     */
+    public static CollisionMask solid(int width, int height)
+    {
+        CollisionMask mask = new CollisionMask(width, height);
+        for (int y = 0; y < height; y++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                mask.bits[y * mask.wordsPerRow + (x >>> 6)] |= 1L << (x & 63);
+            }
+        }
+        mask.isSolid = true;
+        return mask;
+    }
+
+    /**
+     * Determine whether two masks overlap, meaning at least one solid pixel of each is in the same place.
+     * The rectangles of the masks should already be known to intersect, this only checks the pixels. Each
+     * row of the overlapping area is checked 64 pixels at a time by ANDing the words of the two masks.
+     * @param mask1 The first mask.
+     * @param x1 The x-coordinate of the first mask.
+     * @param y1 The y-coordinate of the first mask.
+     * @param mask2 The second mask.
+     * @param x2 The x-coordinate of the second mask.
+     * @param y2 The y-coordinate of the second mask.
+     * @return True or false (true if the masks overlap).
+     */
+    public static boolean overlaps(CollisionMask mask1, int x1, int y1, CollisionMask mask2, int x2, int y2)
+    {
+        //Find the overlapping area
+        int left = Math.max(x1, x2);
+        int right = Math.min(x1 + mask1.width, x2 + mask2.width);
+        int top = Math.max(y1, y2);
+        int bottom = Math.min(y1 + mask1.height, y2 + mask2.height);
+        if (left >= right || top >= bottom)
+        {
+            return false;
+        }
+
+        //Two solid masks overlap wherever their rectangles do
+        if (mask1.isSolid && mask2.isSolid)
+        {
+            return true;
+        }
+
+        //The words of the first mask covering the overlapping area, and where the second mask starts within it
+        int firstWord = (left - x1) >>> 6;
+        int lastWord = (right - 1 - x1) >>> 6;
+        int offset = x2 - x1;
+
+        //AND the rows of the overlapping area, the bits of the second mask are shifted into line with the first
+        for (int y = top; y < bottom; y++)
+        {
+            int row1 = (y - y1) * mask1.wordsPerRow;
+            int row2 = (y - y2) * mask2.wordsPerRow;
+            for (int word = firstWord; word <= lastWord; word++)
+            {
+                if ((mask1.bits[row1 + word] & mask2.getBits(row2, (word << 6) - offset)) != 0L)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determine whether two masks moving in straight lines touch at any point during their movement, not just
+     * where they end up, so that fast masks cannot pass through each other between two checks. If the masks
+     * do not overlap where they end, the time of impact of their rectangles is found from their movement
+     * relative to each other, and the masks are compared at points along the stretch where their rectangles
+     * overlap. Rectangles may already overlap at the start without any pixels touching, since most sprites have
+     * transparent corners, so such a pair is still compared from the start of the movement. Only masks whose
+     * pixels already overlapped at the start and are apart at the end are skipped, so a pair that was touching
+     * and is moving apart is not found again.
+     * @param mask1 The first mask.
+     * @param startX1 The x-coordinate of the first mask at the start of the movement.
+     * @param startY1 The y-coordinate of the first mask at the start of the movement.
+     * @param endX1 The x-coordinate of the first mask at the end of the movement.
+     * @param endY1 The y-coordinate of the first mask at the end of the movement.
+     * @param mask2 The second mask.
+     * @param startX2 The x-coordinate of the second mask at the start of the movement.
+     * @param startY2 The y-coordinate of the second mask at the start of the movement.
+     * @param endX2 The x-coordinate of the second mask at the end of the movement.
+     * @param endY2 The y-coordinate of the second mask at the end of the movement.
+     * @return True or false (true if the masks touch during the movement).
+     */
+    public static boolean overlapsMoving(CollisionMask mask1, int startX1, int startY1, int endX1, int endY1,
+                                         CollisionMask mask2, int startX2, int startY2, int endX2, int endY2)
+    {
+        //Check where the masks end up, which is all there is to check if they did not move relative to each other
+        if (overlaps(mask1, endX1, endY1, mask2, endX2, endY2))
+        {
+            return true;
+        }
+        double moveX = (endX2 - startX2) - (endX1 - startX1);
+        double moveY = (endY2 - startY2) - (endY1 - startY1);
+        if (moveX == 0.0 && moveY == 0.0)
+        {
+            return false;
+        }
+
+        //Find when the rectangles overlap on each axis, as a fraction of the movement
+        double offsetX = startX2 - startX1;
+        double offsetY = startY2 - startY1;
+        double enterX = Double.NEGATIVE_INFINITY;
+        double exitX = Double.POSITIVE_INFINITY;
+        if (moveX != 0.0)
+        {
+            double timeA = (-mask2.width - offsetX)/moveX;
+            double timeB = (mask1.width - offsetX)/moveX;
+            enterX = Math.min(timeA, timeB);
+            exitX = Math.max(timeA, timeB);
+        }
+        else if (offsetX <= -mask2.width || offsetX >= mask1.width) //Never overlap on the x-axis
+        {
+            return false;
+        }
+        double enterY = Double.NEGATIVE_INFINITY;
+        double exitY = Double.POSITIVE_INFINITY;
+        if (moveY != 0.0)
+        {
+            double timeA = (-mask2.height - offsetY)/moveY;
+            double timeB = (mask1.height - offsetY)/moveY;
+            enterY = Math.min(timeA, timeB);
+            exitY = Math.max(timeA, timeB);
+        }
+        else if (offsetY <= -mask2.height || offsetY >= mask1.height) //Never overlap on the y-axis
+        {
+            return false;
+        }
+
+        //The rectangles overlap once they overlap on both axes
+        double enter = Math.max(enterX, enterY);
+        double exit = Math.min(1.0, Math.min(exitX, exitY));
+        if (enter >= exit || exit <= 0.0)
+        {
+            return false;
+        }
+
+        //If the rectangles already overlapped at the start, only a meeting of pixels during the movement counts
+        if (enter < 0.0)
+        {
+            if (overlaps(mask1, startX1, startY1, mask2, startX2, startY2))
+            {
+                return false;
+            }
+            enter = 0.0;
+        }
+
+        //Compare the masks at points along the overlap, no more than SWEEP_STEP pixels of movement apart
+        double distance = Math.max(Math.abs(moveX), Math.abs(moveY)) * (exit - enter);
+        int numPoints = Math.max(1, (int) Math.ceil(distance/SWEEP_STEP));
+        for (int point = 0; point < numPoints; point++)
+        {
+            double time = enter + (exit - enter) * (point + 0.5)/numPoints;
+            if (overlaps(mask1, interpolate(startX1, endX1, time), interpolate(startY1, endY1, time),
+                    mask2, interpolate(startX2, endX2, time), interpolate(startY2, endY2, time)))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find a coordinate part way along a movement, rounded to the nearest pixel.
+     * @param start The coordinate at the start of the movement.
+     * @param end The coordinate at the end of the movement.
+     * @param time The fraction of the movement, from 0 to 1.
+     * @return The coordinate.
+     */
+    private static int interpolate(int start, int end, double time)
+    {
+        return (int) Math.round(start + (end - start) * time);
+    }
+
+    /**
+     * Get 64 bits of a row starting at any pixel, pixels outside the mask are empty.
+     * @param rowStart The index of the first long of the row.
+     * @param start The x-coordinate of the first pixel, may be negative or past the end of the row.
+     * @return The bits, with the first pixel in the lowest bit.
+     */
+    private long getBits(int rowStart, int start)
+    {
+        int word = start >> 6; //Rounds down for negative starts
+        int shift = start & 63;
+        long low = getWord(rowStart, word);
+        if (shift == 0)
+        {
+            return low;
+        }
+        return (low >>> shift) | (getWord(rowStart, word + 1) << (64 - shift));
+    }
+
+    /**
+     * Get one of the longs of a row, longs outside the row are empty.
+     * @param rowStart The index of the first long of the row.
+     * @param word The index of the long within the row.
+     * @return The long.
+     */
+    private long getWord(int rowStart, int word)
+    {
+        return word >= 0 && word < wordsPerRow ? bits[rowStart + word] : 0L;
+    }
+
+    /**
+     * Get the width of the mask.
+     * @return The width in pixels.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Get the height of the mask.
+     * @return The height in pixels.
+     */
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Determine whether every pixel in the mask is solid.
+     * @return True or false.
+     */
+    public boolean isSolid()
+    {
+        return isSolid;
+    }
+
+    /**
+     * Determine whether a single pixel of the mask is solid.
+     * @param x The x-coordinate of the pixel within the mask.
+     * @param y The y-coordinate of the pixel within the mask.
+     * @return True or false (false if the pixel is outside the mask).
+     */
+    public boolean isSolid(int x, int y)
+    {
+        if (x < 0 || y < 0 || x >= width || y >= height)
+        {
+            return false;
+        }
+        return (bits[y * wordsPerRow + (x >>> 6)] & (1L << (x & 63))) != 0L;
+    }
+}
@@ -0,0 +1,389 @@
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class FrameMetrics implements FrameMetricsMBean
+{
+    /** The name the metrics are published under in JMX */
+    public static final String OBJECT_NAME = "AsteroidRun:type=FrameMetrics";
+
+    /** The length of the window used to calculate the per second rates (in nanos) */
+    private static final long RATE_WINDOW = 1000000000L;
+
+    /** The durations of gameUpdate() */
+    private TimingHistogram updateHistogram;
+    /** The durations of gameRender() */
+    private TimingHistogram renderHistogram;
+    /** The durations of paintScreen() */
+    private TimingHistogram paintHistogram;
+    /** The amount of time the animator thread overslept */
+    private TimingHistogram overSleepHistogram;
+
+    /** The time the current rate window started (in nanos) */
+    private long windowStartTime;
+    /** The number of frames finished in the current rate window */
+    private int windowFrames;
+    /** The number of updates in the current rate window, updates may run on their own thread */
+    private AtomicInteger windowUpdates;
+    /** The number of skipped frames in the current rate window */
+    private int windowSkips;
+    /** The total number of frames finished */
+    private volatile long frameCount;
+
+    /** The frames per second measured over the last rate window */
+    private volatile double fps;
+    /** The updates per second measured over the last rate window */
+    private volatile double ups;
+    /** The skipped frames per second measured over the last rate window */
+    private volatile double skipsPerSecond;
+    /** The FPS the game loop is currently aiming for */
+    private volatile int targetFps;
+
+    /** Determines whether the histograms should be cleared before the next frame is recorded */
+    private volatile boolean resetRequested;
+    /** Determines whether the update histogram should be cleared before the next update is recorded */
+    private volatile boolean updateResetRequested;
+
+    /** The number of surfaces held in video memory that are accelerated */
+    private volatile int acceleratedSurfaces;
+    /** The number of surfaces held in video memory, accelerated or not */
+    private volatile int volatileSurfaces;
+
+    /**
+     * Create a FrameMetrics object that records how long each phase of the game loop takes, along with
+     * the actual FPS, UPS, and skipped frames. All of the record methods are called by the animator thread,
+     * except recordUpdate() which is called by the simulation thread when updating and rendering are
+     * pipelined. The results can be read from any thread, such as a JMX client like JConsole or VisualVM.
+     */
+    public FrameMetrics()
+    {
+        updateHistogram = new TimingHistogram();
+        renderHistogram = new TimingHistogram();
+        paintHistogram = new TimingHistogram();
+        overSleepHistogram = new TimingHistogram();
+        windowStartTime = System.nanoTime();
+        windowUpdates = new AtomicInteger();
+    }
+
+    /**
+     * Publish these metrics to the platform MBean server under OBJECT_NAME.
+     * @return True or false (success or fail).
+     */
+    public boolean register()
+    {
+        try
+        {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName))
+            {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(this, objectName);
+            return true;
+        }
+        catch (JMException e)
+        {
+            System.out.println("Unable to register frame metrics: " + e);
+        }
+        return false;
+    }
+
+    /**
+     * Record the time taken by a single gameUpdate().
+     * @param nanos The time taken (in nanos).
+     */
+    public void recordUpdate(long nanos)
+    {
+        //Clear the update histogram here rather than in frameFinished(), only the thread recording it may touch it
+        if (updateResetRequested)
+        {
+            updateResetRequested = false;
+            updateHistogram.reset();
+        }
+        updateHistogram.record(nanos);
+        windowUpdates.incrementAndGet();
+    }
+
+    /**
+     * Record the time taken by a single gameRender().
+     * @param nanos The time taken (in nanos).
+     */
+    public void recordRender(long nanos)
+    {
+        renderHistogram.record(nanos);
+    }
+
+    /**
+     * Record the time taken by a single paintScreen().
+     * @param nanos The time taken (in nanos).
+     */
+    public void recordPaint(long nanos)
+    {
+        paintHistogram.record(nanos);
+    }
+
+    /**
+     * Record how long the animator thread overslept after a single sleep.
+     * @param nanos The amount of time slept past the requested time (in nanos).
+     */
+    public void recordOverSleep(long nanos)
+    {
+        overSleepHistogram.record(nanos);
+    }
+
+    /**
+     * Record a frame that was skipped, meaning the game was updated without being rendered.
+     */
+    public void recordSkippedFrame()
+    {
+        windowSkips++;
+    }
+
+    /**
+     * Record the FPS the game loop is aiming for, which changes when the frame rate is adaptive.
+     * @param targetFps The target FPS.
+     */
+    public void recordTargetFps(int targetFps)
+    {
+        this.targetFps = targetFps;
+    }
+
+    /**
+     * Record how many of the surfaces held in video memory are accelerated.
+     * @param acceleratedSurfaces The number of accelerated surfaces.
+     * @param volatileSurfaces The number of surfaces held in video memory, accelerated or not.
+     */
+    public void recordSurfaces(int acceleratedSurfaces, int volatileSurfaces)
+    {
+        this.acceleratedSurfaces = acceleratedSurfaces;
+        this.volatileSurfaces = volatileSurfaces;
+    }
+
+    /**
+     * Record the end of a frame. Once a full rate window has passed the FPS, UPS, and skipped frames
+     * per second are calculated for that window and a new window is started.
+     * @param currentTime The current time (in nanos).
+     */
+    public void frameFinished(long currentTime)
+    {
+        //Clear the histograms if a reset was requested
+        if (resetRequested)
+        {
+            resetRequested = false;
+            renderHistogram.reset();
+            paintHistogram.reset();
+            overSleepHistogram.reset();
+        }
+
+        //Count the frame
+        windowFrames++;
+        frameCount++;
+
+        //Calculate the rates once the window is over
+        long windowTime = currentTime - windowStartTime;
+        if (windowTime >= RATE_WINDOW)
+        {
+            double secs = windowTime/1000000000.0; //nanos -> secs
+            fps = windowFrames/secs;
+            ups = windowUpdates.getAndSet(0)/secs;
+            skipsPerSecond = windowSkips/secs;
+
+            //Start the next window
+            windowStartTime = currentTime;
+            windowFrames = 0;
+            windowSkips = 0;
+        }
+    }
+
+    /**
+     * @return The number of frames rendered and painted in the last second
+     */
+    public double getFps()
+    {
+        return fps;
+    }
+
+    /**
+     * @return The number of game updates in the last second
+     */
+    public double getUps()
+    {
+        return ups;
+    }
+
+    /**
+     * @return The number of frames skipped (updates without a render) in the last second
+     */
+    public double getSkippedFramesPerSecond()
+    {
+        return skipsPerSecond;
+    }
+
+    /**
+     * @return The total number of frames rendered and painted
+     */
+    public long getFrameCount()
+    {
+        return frameCount;
+    }
+
+    /**
+     * @return The FPS the game loop is currently aiming for
+     */
+    public int getTargetFps()
+    {
+        return targetFps;
+    }
+
+    /**
+     * @return The mean time taken by gameUpdate() (in micros)
+     */
+    public double getUpdateMeanMicros()
+    {
+        return updateHistogram.getMean()/1000.0;
+    }
+
+    /**
+     * @return The median time taken by gameUpdate() (in micros)
+     */
+    public double getUpdateP50Micros()
+    {
+        return updateHistogram.getValueAtPercentile(50.0)/1000.0;
+    }
+
+    /**
+     * @return The 99th percentile time taken by gameUpdate() (in micros)
+     */
+    public double getUpdateP99Micros()
+    {
+        return updateHistogram.getValueAtPercentile(99.0)/1000.0;
+    }
+
+    /**
+     * @return The longest time taken by gameUpdate() (in micros)
+     */
+    public double getUpdateMaxMicros()
+    {
+        return updateHistogram.getMax()/1000.0;
+    }
+
+    /**
+     * @return The mean time taken by gameRender() (in micros)
+     */
+    public double getRenderMeanMicros()
+    {
+        return renderHistogram.getMean()/1000.0;
+    }
+
+    /**
+     * @return The median time taken by gameRender() (in micros)
+     */
+    public double getRenderP50Micros()
+    {
+        return renderHistogram.getValueAtPercentile(50.0)/1000.0;
+    }
+
+    /**
+     * @return The 99th percentile time taken by gameRender() (in micros)
+     */
+    public double getRenderP99Micros()
+    {
+        return renderHistogram.getValueAtPercentile(99.0)/1000.0;
+    }
+
+    /**
+     * @return The longest time taken by gameRender() (in micros)
+     */
+    public double getRenderMaxMicros()
+    {
+        return renderHistogram.getMax()/1000.0;
+    }
+
+    /**
+     * @return The mean time taken by paintScreen() (in micros)
+     */
+    public double getPaintMeanMicros()
+    {
+        return paintHistogram.getMean()/1000.0;
+    }
+
+    /**
+     * @return The median time taken by paintScreen() (in micros)
+     */
+    public double getPaintP50Micros()
+    {
+        return paintHistogram.getValueAtPercentile(50.0)/1000.0;
+    }
+
+    /**
+     * @return The 99th percentile time taken by paintScreen() (in micros)
+     */
+    public double getPaintP99Micros()
+    {
+        return paintHistogram.getValueAtPercentile(99.0)/1000.0;
+    }
+
+    /**
+     * @return The longest time taken by paintScreen() (in micros)
+     */
+    public double getPaintMaxMicros()
+    {
+        return paintHistogram.getMax()/1000.0;
+    }
+
+    /**
+     * @return The mean amount of time the animator overslept (in micros)
+     */
+    public double getOverSleepMeanMicros()
+    {
+        return overSleepHistogram.getMean()/1000.0;
+    }
+
+    /**
+     * @return The 99th percentile amount of time the animator overslept (in micros)
+     */
+    public double getOverSleepP99Micros()
+    {
+        return overSleepHistogram.getValueAtPercentile(99.0)/1000.0;
+    }
+
+    /**
+     * @return The longest amount of time the animator overslept (in micros)
+     */
+    public double getOverSleepMaxMicros()
+    {
+        return overSleepHistogram.getMax()/1000.0;
+    }
+
+    /**
+     * @return The number of surfaces (back buffer and sprites) held in video memory that are accelerated
+     */
+    public int getAcceleratedSurfaces()
+    {
+        return acceleratedSurfaces;
+    }
+
+    /**
+     * @return The number of surfaces held in video memory, accelerated or not
+     */
+    public int getVolatileSurfaces()
+    {
+        return volatileSurfaces;
+    }
+
+    /**
+     * Remove all of the recorded timings, they are cleared before the next frame is recorded.
+     */
+    public void reset()
+    {
+        resetRequested = true;
+        updateResetRequested = true;
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public interface FrameMetricsMBean
+{
+    /** @return The number of frames rendered and painted in the last second */
+    double getFps();
+    /** @return The number of game updates in the last second */
+    double getUps();
+    /** @return The number of frames skipped (updates without a render) in the last second */
+    double getSkippedFramesPerSecond();
+    /** @return The total number of frames rendered and painted */
+    long getFrameCount();
+    /** @return The FPS the game loop is currently aiming for */
+    int getTargetFps();
+
+    /** @return The mean time taken by gameUpdate() (in micros) */
+    double getUpdateMeanMicros();
+    /** @return The median time taken by gameUpdate() (in micros) */
+    double getUpdateP50Micros();
+    /** @return The 99th percentile time taken by gameUpdate() (in micros) */
+    double getUpdateP99Micros();
+    /** @return The longest time taken by gameUpdate() (in micros) */
+    double getUpdateMaxMicros();
+
+    /** @return The mean time taken by gameRender() (in micros) */
+    double getRenderMeanMicros();
+    /** @return The median time taken by gameRender() (in micros) */
+    double getRenderP50Micros();
+    /** @return The 99th percentile time taken by gameRender() (in micros) */
+    double getRenderP99Micros();
+    /** @return The longest time taken by gameRender() (in micros) */
+    double getRenderMaxMicros();
+
+    /** @return The mean time taken by paintScreen() (in micros) */
+    double getPaintMeanMicros();
+    /** @return The median time taken by paintScreen() (in micros) */
+    double getPaintP50Micros();
+    /** @return The 99th percentile time taken by paintScreen() (in micros) */
+    double getPaintP99Micros();
+    /** @return The longest time taken by paintScreen() (in micros) */
+    double getPaintMaxMicros();
+
+    /** @return The mean amount of time the animator overslept (in micros) */
+    double getOverSleepMeanMicros();
+    /** @return The 99th percentile amount of time the animator overslept (in micros) */
+    double getOverSleepP99Micros();
+    /** @return The longest amount of time the animator overslept (in micros) */
+    double getOverSleepMaxMicros();
+
+    /** @return The number of surfaces (back buffer and sprites) held in video memory that are accelerated */
+    int getAcceleratedSurfaces();
+    /** @return The number of surfaces held in video memory, accelerated or not */
+    int getVolatileSurfaces();
+
+    /** Remove all of the recorded timings, they are cleared before the next frame is recorded */
+    void reset();
+}
@@ -0,0 +1,149 @@
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class FrameRateGovernor
+{
+    /** The weight given to each new frame in the average work time */
+    private static final double SMOOTHING = 0.1;
+    /** The fraction of the loop period the average work time must exceed for frames to count as overrunning */
+    private static final double OVERRUN_THRESHOLD = 0.9;
+    /** The fraction of the next higher loop period the average work time must stay under to raise the FPS */
+    private static final double HEADROOM_THRESHOLD = 0.6;
+    /** The fraction of the loop period the work should take after the FPS is lowered */
+    private static final double TARGET_LOAD = 0.75;
+    /** The factor the FPS is raised by when there is headroom */
+    private static final double RAISE_FACTOR = 1.1;
+    /** How long frames must keep overrunning before the FPS is lowered (in nanos) */
+    private static final long LOWER_DELAY = 500000000L;
+    /** How long there must be headroom before the FPS is raised (in nanos) */
+    private static final long RAISE_DELAY = 3000000000L;
+
+    /** The lowest FPS the governor will lower the frame rate to */
+    private int minFps;
+    /** The highest FPS the governor will raise the frame rate to */
+    private int maxFps;
+    /** The current target FPS */
+    private int fps;
+
+    /** The average time taken to update, render, and paint a frame (in nanos) */
+    private double averageWorkTime;
+    /** The amount of time frames have been overrunning (in nanos) */
+    private long overrunTime;
+    /** The amount of time there has been headroom (in nanos) */
+    private long headroomTime;
+
+    /**
+     * Create a FrameRateGovernor that adjusts the target FPS to what the machine can keep up with. It watches
+     * how long each frame takes to update, render, and paint: if the average keeps overrunning the loop period
+     * the FPS is lowered so the work fits again, and if there is plenty of headroom for a long while the FPS
+     * is raised a step at a time. Lowering reacts quickly and raising slowly, and the thresholds for each are
+     * far apart, so the frame rate does not flip back and forth.
+     * @param initialFps The FPS to start at.
+     * @param minFps The lowest FPS the frame rate is lowered to (the floor).
+     * @param maxFps The highest FPS the frame rate is raised to (the ceiling).
+     */
+    public FrameRateGovernor(int initialFps, int minFps, int maxFps)
+    {
+        //Store the floor and ceiling, then clamp the initial FPS between them
+        this.maxFps = Math.max(1, maxFps);
+        this.minFps = Math.max(1, Math.min(minFps, this.maxFps));
+        fps = Math.max(this.minFps, Math.min(this.maxFps, initialFps));
+    }
+
+    /**
+     * Record the time taken by a single frame and adjust the target FPS if needed.
+     * @param workTime The time taken to update, render, and paint the frame, not including any sleep (in nanos).
+     * @return True or false (true if the target FPS changed).
+     */
+    public boolean frameFinished(long workTime)
+    {
+        //Update the average work time, the first frame sets it directly
+        averageWorkTime = averageWorkTime == 0.0 ? workTime : averageWorkTime + (workTime - averageWorkTime) * SMOOTHING;
+        long loopPeriod = getLoopPeriod();
+
+        //Count how long the frames have been overrunning, or have had headroom at the next higher FPS
+        if (averageWorkTime > loopPeriod * OVERRUN_THRESHOLD)
+        {
+            overrunTime = overrunTime + loopPeriod;
+            headroomTime = 0L;
+        }
+        else if (fps < maxFps && averageWorkTime < (1000000000.0/raisedFps()) * HEADROOM_THRESHOLD)
+        {
+            headroomTime = headroomTime + loopPeriod;
+            overrunTime = 0L;
+        }
+        else //Somewhere in between, so leave the FPS alone
+        {
+            overrunTime = 0L;
+            headroomTime = 0L;
+        }
+
+        //Lower the FPS so that the work fits in the loop period again
+        if (overrunTime >= LOWER_DELAY && fps > minFps)
+        {
+            int loweredFps = (int) (1000000000.0 * TARGET_LOAD/averageWorkTime);
+            return setFps(Math.max(minFps, Math.min(fps - 1, loweredFps)));
+        }
+
+        //Raise the FPS a step
+        if (headroomTime >= RAISE_DELAY)
+        {
+            return setFps(raisedFps());
+        }
+        return false;
+    }
+
+    /**
+     * Get the FPS one step above the current FPS.
+     * @return The raised FPS, no higher than the ceiling.
+     */
+    private int raisedFps()
+    {
+        return Math.min(maxFps, Math.max(fps + 1, (int) (fps * RAISE_FACTOR)));
+    }
+
+    /**
+     * Change the target FPS and start watching the frames again.
+     * @param newFps The new target FPS.
+     * @return True or false (true if the target FPS changed).
+     */
+    private boolean setFps(int newFps)
+    {
+        overrunTime = 0L;
+        headroomTime = 0L;
+        if (newFps == fps)
+        {
+            return false;
+        }
+        fps = newFps;
+        return true;
+    }
+
+    /**
+     * Get the current target FPS.
+     * @return The target FPS.
+     */
+    public int getFps()
+    {
+        return fps;
+    }
+
+    /**
+     * Get the amount of time allocated for each frame at the current target FPS.
+     * @return The loop period (in nanos).
+     */
+    public long getLoopPeriod()
+    {
+        return 1000000000L/fps;
+    }
+
+    /**
+     * Get the average time taken to update, render, and paint a frame.
+     * @return The average work time (in nanos).
+     */
+    public double getAverageWorkTime()
+    {
+        return averageWorkTime;
+    }
+}
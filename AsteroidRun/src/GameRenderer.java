@@ -0,0 +1,517 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class GameRenderer
+{
+    /** The background layers drawn when none are given, a starfield scrolling ten pixels per second */
+    public static final String DEFAULT_BACKGROUND_LAYERS = Starfield.LAYER_NAME + ":10";
+
+    /** The GameSimulation that holds the state of the game being drawn */
+    private GameSimulation gameSimulation;
+
+    /** The ImageLoader holding the sprites */
+    private ImageLoader imageLoader;
+    /** The atlas the sprites are drawn from, replaced when the ImageLoader reloads its images */
+    private TextureAtlas atlas;
+    /** The pages of the atlas the sprites are drawn from */
+    private AcceleratedImage[] atlasPages;
+    /** The handles of the images used to display each type of asteroid */
+    private int[] asteroidHandles;
+    /** The handle of the image used to display an exploding asteroid */
+    private int explosionHandle;
+    /** The SequencePlayer used to display the animations for the spaceship */
+    private SequencePlayer spaceshipPlayer;
+    /** The handle of the spaceship's animation sequence */
+    private int spaceshipHandle;
+    /** The layers of the moving background */
+    private ParallaxBackground background;
+    /** The names of the images of each background layer */
+    private String[] layerNames;
+    /** The handles of the images of each background layer, -1 for a layer generating its own pixels */
+    private int[] layerHandles;
+    /** The images displayed by each background layer, before they are pre-scaled */
+    private BufferedImage[] layerImages;
+    /** Determines whether the back buffer still holds the last frame, so the background can be scrolled in place */
+    private boolean isBackBufferRetained;
+    /** The overlay displaying the panel, the game timer, and the lives remaining counter */
+    private HudOverlay hudOverlay;
+    /** The handle of the panel image */
+    private int panelHandle;
+    /** The panel image displayed by the hudOverlay */
+    private BufferedImage panelImage;
+    /** The font metrics of the asteroidFont, used to build the hudOverlay */
+    private FontMetrics fontMetrics;
+
+    /** The scale the game is drawn at, the size of the screen over the size of the game */
+    private double scale;
+    /** The scale the images were last pre-scaled for */
+    private double imageScale;
+
+    /** The graphics configuration the images are held in video memory for, null if they are not */
+    private GraphicsConfiguration graphicsConfiguration;
+    /** All of the images used by this renderer, used to report which ones are accelerated */
+    private ArrayList<AcceleratedImage> surfaces;
+
+    /** The snapshot the game is copied into when it is rendered directly from the gameSimulation */
+    private GameSnapshot snapshot;
+
+    /** The font used to display messages to the user */
+    private Font asteroidFont;
+
+    /**
+     * Create a GameRenderer that draws the state of a GameSimulation. The renderer owns everything that
+     * is only needed to display the game, such as the images, the background layers, and the animations.
+     * The asteroids, explosions, and spaceship are drawn as sprites from the ImageLoader's atlas, so the
+     * whole field is drawn from one or a few page images.
+     * @param gameSimulation The GameSimulation to be drawn.
+     * @param imageLoader The ImageLoader used to load images for this game.
+     * @param asteroidFont The font used to display messages to the user.
+     * @param fontMetrics The font metrics of the asteroidFont.
+     */
+    public GameRenderer(GameSimulation gameSimulation, ImageLoader imageLoader, Font asteroidFont, FontMetrics fontMetrics)
+    {
+        this(gameSimulation, imageLoader, asteroidFont, fontMetrics, null);
+    }
+
+    /**
+     * Create a GameRenderer that draws the state of a GameSimulation. If a graphics configuration is given,
+     * every image is copied into a VolatileImage so that it is drawn by the graphics hardware, and copied
+     * again whenever its contents are lost.
+     * @param gameSimulation The GameSimulation to be drawn.
+     * @param imageLoader The ImageLoader used to load images for this game.
+     * @param asteroidFont The font used to display messages to the user.
+     * @param fontMetrics The font metrics of the asteroidFont.
+     * @param graphicsConfiguration The graphics configuration of the screen to accelerate the images for, or null.
+     */
+    public GameRenderer(GameSimulation gameSimulation, ImageLoader imageLoader, Font asteroidFont, FontMetrics fontMetrics,
+                        GraphicsConfiguration graphicsConfiguration)
+    {
+        this(gameSimulation, imageLoader, asteroidFont, fontMetrics, graphicsConfiguration, DEFAULT_BACKGROUND_LAYERS);
+    }
+
+    /**
+     * Create a GameRenderer that draws the state of a GameSimulation over a background of several layers.
+     * The layers are given from the back to the front as a comma separated list of <image name>:<speed>
+     * or <image name>:<speed>:<opacity>, where the speed is the number of pixels the layer moves each second.
+     * The name Starfield draws a starfield generated from the game's seed instead of an image.
+     * @param gameSimulation The GameSimulation to be drawn.
+     * @param imageLoader The ImageLoader used to load images for this game.
+     * @param asteroidFont The font used to display messages to the user.
+     * @param fontMetrics The font metrics of the asteroidFont.
+     * @param graphicsConfiguration The graphics configuration of the screen to accelerate the images for, or null.
+     * @param backgroundLayers The layers of the background (e.g. Starfield:10).
+     */
+    public GameRenderer(GameSimulation gameSimulation, ImageLoader imageLoader, Font asteroidFont, FontMetrics fontMetrics,
+                        GraphicsConfiguration graphicsConfiguration, String backgroundLayers)
+    {
+        //Store the gameSimulation, imageLoader, font, and graphicsConfiguration
+        this.gameSimulation = gameSimulation;
+        this.imageLoader = imageLoader;
+        this.asteroidFont = asteroidFont;
+        this.fontMetrics = fontMetrics;
+        this.graphicsConfiguration = graphicsConfiguration;
+        surfaces = new ArrayList<>();
+        snapshot = new GameSnapshot();
+        scale = 1.0;
+        imageScale = 1.0;
+
+        //Wrap each page of the atlas, the sprites are drawn out of these
+        setAtlas(imageLoader.getAtlas());
+
+        //Resolve the handles of the asteroid images and the explosion image
+        asteroidHandles = new int[AsteroidManager.ASTEROID_IMAGE_NAMES.length];
+        for (int i = 0; i < asteroidHandles.length; i++)
+        {
+            asteroidHandles[i] = imageLoader.getHandle(AsteroidManager.ASTEROID_IMAGE_NAMES[i]);
+        }
+        explosionHandle = imageLoader.getHandle("Explosion");
+
+        //Create the SequencePlayer for the spaceship, it advances once per simulation tick
+        spaceshipPlayer = new SequencePlayer(Spaceship.IMAGE_NAME, 1, gameSimulation.getTickPeriod(), imageLoader);
+        spaceshipHandle = imageLoader.getHandle(Spaceship.IMAGE_NAME);
+
+        //Create the background
+        background = createBackground(backgroundLayers);
+
+        //Create the hudOverlay on top of the panel image
+        panelHandle = imageLoader.getHandle("AsteroidRun Panel");
+        panelImage = imageLoader.getImage(panelHandle, 0);
+        hudOverlay = new HudOverlay(panelImage, asteroidFont, fontMetrics, graphicsConfiguration);
+        surfaces.add(hudOverlay.getSurface());
+    }
+
+    /**
+     * Create the background from its list of layers, leaving out any layer that is invalid or has no image.
+     * @param backgroundLayers The layers as a comma separated list of <image name>:<speed>[:<opacity>].
+     * @return The ParallaxBackground.
+     */
+    private ParallaxBackground createBackground(String backgroundLayers)
+    {
+        ArrayList<String> names = new ArrayList<>();
+        ArrayList<Ribbon> layers = new ArrayList<>();
+        for (String layer : backgroundLayers.split(","))
+        {
+            //Read the image name, speed, and opacity
+            String[] parts = layer.split(":");
+            String name = parts[0].trim();
+            int speed;
+            float opacity;
+            try
+            {
+                speed = (parts.length > 1) ? Integer.parseInt(parts[1].trim()) : 10;
+                opacity = (parts.length > 2) ? Float.parseFloat(parts[2].trim()) : 1.0f;
+            }
+            catch (NumberFormatException e)
+            {
+                System.out.println("Invalid background layer: " + layer.trim());
+                continue;
+            }
+
+            //Create the layer if it is a starfield or its image was loaded
+            if (name.equals(Starfield.LAYER_NAME))
+            {
+                names.add(name);
+                layers.add(new Starfield(gameSimulation.getSeed(), speed));
+                continue;
+            }
+            BufferedImage image = imageLoader.getImage(imageLoader.getHandle(name), 0);
+            if (image != null)
+            {
+                names.add(name);
+                layers.add(new Ribbon(createSurface(name, image), speed, opacity));
+            }
+        }
+
+        //Remember each layer's image, so the layers can be replaced when their images are reloaded
+        layerNames = names.toArray(new String[0]);
+        layerHandles = new int[layerNames.length];
+        layerImages = new BufferedImage[layerNames.length];
+        for (int i = 0; i < layerNames.length; i++)
+        {
+            layerHandles[i] = layers.get(i).getImage() == null ? -1 : imageLoader.getHandle(layerNames[i]);
+            layerImages[i] = imageLoader.getImage(layerHandles[i], 0);
+        }
+        return new ParallaxBackground(layers.toArray(new Ribbon[0]), gameSimulation.getTickRate());
+    }
+
+    /**
+     * Wrap each page of an atlas so the sprites can be drawn out of them, replacing the pages of the last atlas.
+     * @param atlas The TextureAtlas.
+     */
+    private void setAtlas(TextureAtlas atlas)
+    {
+        AcceleratedImage[] newAtlasPages = new AcceleratedImage[atlas.getNumPages()];
+        for (int i = 0; i < newAtlasPages.length; i++)
+        {
+            newAtlasPages[i] = createSurface("Atlas page " + (i + 1), atlas.getPage(i));
+        }
+        if (atlasPages != null)
+        {
+            removeSurfaces(atlasPages);
+        }
+        this.atlas = atlas;
+        atlasPages = newAtlasPages;
+    }
+
+    /**
+     * Set the scale the game is drawn at, for a screen larger or smaller than the game. The sprites, background,
+     * and overlay are pre-scaled for the new scale before the next frame, so every frame is still drawn with
+     * 1:1 copies. Interpolated positions are scaled before rounding, so movement stays smooth at large scales.
+     * @param scale The scale, 1.0 to draw the game at its own size.
+     */
+    public void setScale(double scale)
+    {
+        this.scale = scale;
+    }
+
+    /**
+     * Set whether the back buffer drawn on still holds the last frame drawn by this renderer. If it does, the
+     * background is scrolled in place rather than drawn in full. This must be false whenever the back buffer
+     * is new, was restored, or is one of several buffers being flipped.
+     * @param isBackBufferRetained True or false (true if the back buffer holds the last frame).
+     */
+    public void setBackBufferRetained(boolean isBackBufferRetained)
+    {
+        this.isBackBufferRetained = isBackBufferRetained;
+    }
+
+    /**
+     * Pick up any images the ImageLoader replaced by reloading them, and pre-scale the images again if the
+     * scale changed. Checking costs a few field reads, and the images are only wrapped again when they were
+     * actually replaced.
+     */
+    private void refreshImages()
+    {
+        //Replace the atlas pages, every sprite drawn this frame comes from the same atlas
+        TextureAtlas currentAtlas = imageLoader.getAtlas(scale);
+        if (currentAtlas != atlas)
+        {
+            setAtlas(currentAtlas);
+        }
+
+        //Replace the images of the background layers, each layer keeps its position
+        boolean scaleChanged = (scale != imageScale);
+        for (int i = 0; i < layerHandles.length; i++)
+        {
+            //A layer generating its own pixels generates them again at the new scale
+            if (layerHandles[i] < 0)
+            {
+                if (scaleChanged)
+                {
+                    background.getLayer(i).setScale(scale);
+                }
+                continue;
+            }
+
+            BufferedImage currentLayerImage = imageLoader.getImage(layerHandles[i], 0);
+            if ((currentLayerImage != layerImages[i] || scaleChanged) && currentLayerImage != null)
+            {
+                AcceleratedImage layerSurface = createSurface(layerNames[i], imageLoader.getImage(layerHandles[i], 0, scale));
+                Ribbon layer = background.getLayer(i);
+                removeSurfaces(layer.getImage());
+                layer.setImage(layerSurface, scale);
+                layerImages[i] = currentLayerImage;
+            }
+        }
+        if (scaleChanged)
+        {
+            background.setScale(scale);
+        }
+
+        //Rebuild the hudOverlay on top of the new panel image
+        BufferedImage currentPanelImage = imageLoader.getImage(panelHandle, 0);
+        if (currentPanelImage != panelImage || scaleChanged)
+        {
+            removeSurfaces(hudOverlay.getSurface());
+            hudOverlay = new HudOverlay(currentPanelImage, asteroidFont, fontMetrics, graphicsConfiguration, scale);
+            surfaces.add(hudOverlay.getSurface());
+            panelImage = currentPanelImage;
+        }
+        imageScale = scale;
+    }
+
+    /**
+     * Stop reporting images that are no longer drawn. The list is replaced rather than changed, since it may
+     * be read on another thread.
+     * @param oldSurfaces The images to stop reporting.
+     */
+    private void removeSurfaces(AcceleratedImage... oldSurfaces)
+    {
+        ArrayList<AcceleratedImage> newSurfaces = new ArrayList<>(surfaces);
+        for (AcceleratedImage surface : oldSurfaces)
+        {
+            newSurfaces.remove(surface);
+            if (surface != null && surface.isVolatile())
+            {
+                surface.flush();
+            }
+        }
+        surfaces = newSurfaces;
+    }
+
+    /**
+     * Wrap an image so that it is held in video memory if this renderer accelerates its images.
+     * @param name The name of the image.
+     * @param image The image, may be null if it could not be loaded.
+     * @return The wrapped image, or null if the image was null.
+     */
+    private AcceleratedImage createSurface(String name, BufferedImage image)
+    {
+        //Missing images are drawn as placeholders
+        if (image == null)
+        {
+            return null;
+        }
+
+        //Wrap the image and remember it for reporting
+        AcceleratedImage surface = new AcceleratedImage(name, image, graphicsConfiguration);
+        surfaces.add(surface);
+        return surface;
+    }
+
+    /**
+     * Get the number of images held in video memory that are accelerated.
+     * @return The number of accelerated images.
+     */
+    public int getNumAcceleratedSurfaces()
+    {
+        int numAccelerated = 0;
+        for (int i = 0; i < surfaces.size(); i++)
+        {
+            if (surfaces.get(i).isAccelerated())
+            {
+                numAccelerated++;
+            }
+        }
+        return numAccelerated;
+    }
+
+    /**
+     * Get the number of images held in video memory, accelerated or not.
+     * @return The number of volatile images, zero if this renderer does not accelerate its images.
+     */
+    public int getNumSurfaces()
+    {
+        return graphicsConfiguration == null ? 0 : surfaces.size();
+    }
+
+    /**
+     * Advance the background and animations by one simulation tick.
+     */
+    public void update()
+    {
+        background.update();
+        spaceshipPlayer.update();
+    }
+
+    /**
+     * Copy everything needed to draw the current state of the game into a snapshot. This must be called
+     * on the thread that updates the game, after update().
+     * @param snapshot The GameSnapshot to copy the game into.
+     */
+    public void captureSnapshot(GameSnapshot snapshot)
+    {
+        snapshot.capture(gameSimulation, background.getPrevYPos(), spaceshipPlayer.getSequenceIndex());
+    }
+
+    /**
+     * Draw the background, the game elements, and the game stats from the current state of the game.
+     * This must be called on the thread that updates the game.
+     * @param dbGraphics The Graphics object used to draw the game.
+     * @param alpha How far the game is between the previous and current update (0.0 - 1.0), used to
+     *              interpolate the positions of the game elements.
+     */
+    public void render(Graphics dbGraphics, double alpha)
+    {
+        captureSnapshot(snapshot);
+        render(dbGraphics, snapshot, alpha);
+    }
+
+    /**
+     * Draw the background, the game elements, and the game stats from a snapshot of the game. This only
+     * reads the snapshot, so it can be called on a different thread than the one updating the game.
+     * @param dbGraphics The Graphics object used to draw the game.
+     * @param snapshot The GameSnapshot to draw.
+     * @param alpha How far the game is between the previous and current update (0.0 - 1.0), used to
+     *              interpolate the positions of the game elements.
+     */
+    public void render(Graphics dbGraphics, GameSnapshot snapshot, double alpha)
+    {
+        //Set the font, the graphics context may be new, and pick up any reloaded images
+        dbGraphics.setFont(asteroidFont);
+        refreshImages();
+
+        //Draw the background layers
+        background.draw(dbGraphics, snapshot, alpha, isBackBufferRetained);
+
+        //Render the game elements
+        drawSpaceship(dbGraphics, snapshot, alpha);
+        drawAsteroids(dbGraphics, snapshot, alpha);
+
+        //Draw the game stats, the game over message covers most of the frame so it is simpler to redraw it all
+        hudOverlay.draw(dbGraphics, snapshot);
+        background.markDirty(0, 0, hudOverlay.getSurface().getWidth(), hudOverlay.getSurface().getHeight());
+        if (snapshot.isGameOver())
+        {
+            background.invalidate();
+        }
+    }
+
+    /**
+     * Draw the spaceship using its current image of animation. If the current image cannot be
+     * found then a placeholder red square is draw instead. The spaceship is drawn between its previous
+     * and current position.
+     * @param dbGraphics The Graphics object used to draw the spaceship.
+     * @param snapshot The GameSnapshot holding the spaceship's position.
+     * @param alpha How far the spaceship is between its previous and current position (0.0 - 1.0).
+     */
+    private void drawSpaceship(Graphics dbGraphics, GameSnapshot snapshot, double alpha)
+    {
+        //Interpolate the position of the spaceship, it only moves horizontally
+        int drawX = toScreen(snapshot.getShipPrevXPos(), snapshot.getShipXPos(), alpha);
+        int drawY = (int) Math.round(snapshot.getShipYPos() * scale);
+
+        //Get the image from the sequence index captured with the snapshot
+        int index = snapshot.getSpaceshipSequenceIndex();
+        Sprite sprite = atlas.getSprite(spaceshipHandle, index);
+        if (sprite != null)
+        {
+            drawSprite(dbGraphics, sprite, drawX, drawY);
+        }
+        else //Draw the spaceship as a red square
+        {
+            int width = (int) Math.round(snapshot.getShipWidth() * scale);
+            int height = (int) Math.round(snapshot.getShipHeight() * scale);
+            dbGraphics.setColor(Color.RED);
+            dbGraphics.fillRect(drawX, drawY, width, height);
+            background.markDirty(drawX, drawY, width, height);
+        }
+    }
+
+    /**
+     * Draw all of the asteroids using their images. If an image is null, then a placeholder
+     * green circle is drawn in its place. The asteroids are drawn between their previous and current positions.
+     * @param dbGraphics The Graphics object used to draw the asteroids.
+     * @param snapshot The GameSnapshot holding the asteroids' positions.
+     * @param alpha How far the asteroids are between their previous and current positions (0.0 - 1.0).
+     */
+    private void drawAsteroids(Graphics dbGraphics, GameSnapshot snapshot, double alpha)
+    {
+        //Draw the asteroids
+        for (int i = 0; i < snapshot.getNumAsteroids(); i++)
+        {
+            //Interpolate the position of the asteroid
+            int drawX = toScreen(snapshot.getAsteroidPrevXPos(i), snapshot.getAsteroidXPos(i), alpha);
+            int drawY = toScreen(snapshot.getAsteroidPrevYPos(i), snapshot.getAsteroidYPos(i), alpha);
+
+            //Draw the asteroid if it is active, otherwise draw the explosion sprite
+            int handle = snapshot.isAsteroidActive(i) ? asteroidHandles[snapshot.getAsteroidType(i)] : explosionHandle;
+            Sprite sprite = atlas.getSprite(handle, 0);
+            if (sprite != null)
+            {
+                drawSprite(dbGraphics, sprite, drawX, drawY);
+            }
+            else //Draw a GREEN circle
+            {
+                int width = (int) Math.round(snapshot.getAsteroidWidth(i) * scale);
+                int height = (int) Math.round(snapshot.getAsteroidHeight(i) * scale);
+                dbGraphics.setColor(Color.GREEN);
+                dbGraphics.fillOval(drawX, drawY, width, height);
+                background.markDirty(drawX, drawY, width, height);
+            }
+        }
+    }
+
+    /**
+     * Interpolate a position between its previous and current value and convert it to screen pixels.
+     * @param prevPos The previous position in game pixels.
+     * @param pos The current position in game pixels.
+     * @param alpha How far the position is between its previous and current value (0.0 - 1.0).
+     * @return The position in screen pixels.
+     */
+    private int toScreen(int prevPos, int pos, double alpha)
+    {
+        return (int) Math.round((prevPos + (pos - prevPos) * alpha) * scale);
+    }
+
+    /**
+     * Draw a sprite by copying its rectangle out of its atlas page, unscaled, and mark it dirty in the background.
+     * @param dbGraphics The Graphics object used to draw the sprite.
+     * @param sprite The Sprite to draw.
+     * @param x The x-coordinate position to draw the sprite at.
+     * @param y The y-coordinate position to draw the sprite at.
+     */
+    private void drawSprite(Graphics dbGraphics, Sprite sprite, int x, int y)
+    {
+        int sourceX = sprite.getX();
+        int sourceY = sprite.getY();
+        dbGraphics.drawImage(atlasPages[sprite.getPage()].validate(), x, y, x + sprite.getWidth(), y + sprite.getHeight(),
+                sourceX, sourceY, sourceX + sprite.getWidth(), sourceY + sprite.getHeight(), null);
+        background.markDirty(x, y, sprite.getWidth(), sprite.getHeight());
+    }
+}
@@ -0,0 +1,465 @@
+import java.io.File;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class GameSettings
+{
+    /** The ways the rendered frames can be presented on screen */
+    public enum RenderMode
+    {
+        /** Draw into an offscreen image and copy it onto the panel each frame */
+        IMAGE,
+        /** Draw into the back buffer of a Canvas BufferStrategy and flip/blit it onto the screen */
+        BUFFER_STRATEGY
+    }
+
+    /** The prefix used by all AsteroidRun system properties */
+    private static final String PROPERTY_PREFIX = "asteroidrun.";
+
+    /** The number of simulation ticks per second, zero ties the tick rate to the FPS */
+    private int tickRate;
+    /** Determines whether the frame timing metrics are published over JMX */
+    private boolean metricsEnabled;
+    /** The way the rendered frames are presented on screen */
+    private RenderMode renderMode;
+    /** The number of buffers used by the BUFFER_STRATEGY render mode */
+    private int numBuffers;
+    /** Determines whether the back buffer and sprites are kept in VolatileImages in video memory */
+    private boolean acceleratedSurfaces;
+    /** Determines whether the game is updated and rendered on separate threads */
+    private boolean pipelined;
+    /** Determines whether the FPS is lowered and raised to match what the machine can keep up with */
+    private boolean adaptiveFps;
+    /** The lowest FPS the adaptive frame rate is lowered to */
+    private int minFps;
+    /** The highest FPS the adaptive frame rate is raised to, zero uses the desired FPS */
+    private int maxFps;
+    /** Determines whether the asteroids are updated in parallel across the cores */
+    private boolean parallelUpdate;
+    /** The seed every random choice in the game is drawn from, only used if seeded is true */
+    private long seed;
+    /** Determines whether the game uses the seed rather than a new random seed */
+    private boolean seeded;
+    /** The file the game is recorded to, null if the game is not recorded */
+    private String replayFile;
+    /** The directory the decoded images are cached in, null if they are decoded on every launch */
+    private String spriteCacheDirectory;
+    /** Determines whether changed images are reloaded while the game is running */
+    private boolean hotReload;
+    /** Determines whether the window can be resized, with the game scaled to fit it */
+    private boolean scaled;
+    /** The layers of the background, from the back to the front */
+    private String backgroundLayers;
+
+    /**
+     * Create a GameSettings object holding the default settings. By default the game runs
+     * one simulation tick per rendered frame, exactly like the original game loop.
+     */
+    public GameSettings()
+    {
+        tickRate = 0;
+        metricsEnabled = false;
+        renderMode = RenderMode.IMAGE;
+        numBuffers = 2;
+        acceleratedSurfaces = false;
+        pipelined = false;
+        adaptiveFps = false;
+        minFps = 30;
+        maxFps = 0;
+        parallelUpdate = false;
+        seed = 0L;
+        seeded = false;
+        replayFile = null;
+        spriteCacheDirectory = System.getProperty("java.io.tmpdir") + File.separator + "AsteroidRun";
+        hotReload = false;
+        scaled = false;
+        backgroundLayers = GameRenderer.DEFAULT_BACKGROUND_LAYERS;
+    }
+
+    /**
+     * Create a GameSettings object from the asteroidrun.* system properties. Any property that
+     * is not set keeps its default value. For example -Dasteroidrun.tickRate=30 runs the
+     * simulation at 30 ticks per second regardless of the FPS.
+     * @return The GameSettings described by the system properties.
+     */
+    public static GameSettings fromSystemProperties()
+    {
+        GameSettings settings = new GameSettings();
+        settings.tickRate = Integer.getInteger(PROPERTY_PREFIX + "tickRate", settings.tickRate);
+        settings.metricsEnabled = getBooleanProperty("metrics", settings.metricsEnabled);
+        settings.setNumBuffers(Integer.getInteger(PROPERTY_PREFIX + "numBuffers", settings.numBuffers));
+        settings.acceleratedSurfaces = getBooleanProperty("acceleratedSurfaces", settings.acceleratedSurfaces);
+        settings.pipelined = getBooleanProperty("pipelined", settings.pipelined);
+        settings.adaptiveFps = getBooleanProperty("adaptiveFps", settings.adaptiveFps);
+        settings.minFps = Integer.getInteger(PROPERTY_PREFIX + "minFps", settings.minFps);
+        settings.maxFps = Integer.getInteger(PROPERTY_PREFIX + "maxFps", settings.maxFps);
+        settings.parallelUpdate = getBooleanProperty("parallelUpdate", settings.parallelUpdate);
+        settings.replayFile = System.getProperty(PROPERTY_PREFIX + "replayFile", settings.replayFile);
+        settings.hotReload = getBooleanProperty("hotReload", settings.hotReload);
+        settings.scaled = getBooleanProperty("scaled", settings.scaled);
+        settings.backgroundLayers = System.getProperty(PROPERTY_PREFIX + "backgroundLayers", settings.backgroundLayers);
+        settings.setSpriteCacheDirectory(System.getProperty(PROPERTY_PREFIX + "spriteCache", settings.spriteCacheDirectory));
+
+        //The seed is only used if one is given
+        Long seed = Long.getLong(PROPERTY_PREFIX + "seed");
+        if (seed != null)
+        {
+            settings.setSeed(seed);
+        }
+
+        //Match the render mode ignoring case and underscores, so bufferStrategy and BUFFER_STRATEGY both work
+        String renderMode = System.getProperty(PROPERTY_PREFIX + "renderMode");
+        if (renderMode != null)
+        {
+            for (RenderMode mode : RenderMode.values())
+            {
+                if (mode.name().replace("_", "").equalsIgnoreCase(renderMode.replace("_", "")))
+                {
+                    settings.renderMode = mode;
+                }
+            }
+        }
+        return settings;
+    }
+
+    /**
+     * Get the value of a boolean asteroidrun.* system property.
+     * @param name The name of the property without the asteroidrun. prefix.
+     * @param defaultValue The value used if the property is not set.
+     * @return The value of the property.
+     */
+    private static boolean getBooleanProperty(String name, boolean defaultValue)
+    {
+        String value = System.getProperty(PROPERTY_PREFIX + name);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Get the number of simulation ticks per second.
+     * @return The tick rate, or zero if the tick rate is tied to the FPS.
+     */
+    public int getTickRate()
+    {
+        return tickRate;
+    }
+
+    /**
+     * Set the number of simulation ticks per second. A positive value enables the fixed timestep
+     * game loop, which simulates at this rate and renders interpolated frames at the FPS.
+     * @param tickRate The tick rate, or zero to tie the tick rate to the FPS.
+     */
+    public void setTickRate(int tickRate)
+    {
+        this.tickRate = tickRate;
+    }
+
+    /**
+     * Determine whether the fixed timestep game loop should be used.
+     * @return True or false (true if the simulation runs at its own tick rate).
+     */
+    public boolean isFixedTimestep()
+    {
+        return tickRate > 0;
+    }
+
+    /**
+     * Determine whether the frame timing metrics are published over JMX.
+     * @return True or false.
+     */
+    public boolean isMetricsEnabled()
+    {
+        return metricsEnabled;
+    }
+
+    /**
+     * Set whether the frame timing metrics are published over JMX, where they can be watched live
+     * in JConsole or VisualVM under FrameMetrics.OBJECT_NAME.
+     * @param metricsEnabled True to publish the metrics.
+     */
+    public void setMetricsEnabled(boolean metricsEnabled)
+    {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    /**
+     * Get the way the rendered frames are presented on screen.
+     * @return The RenderMode.
+     */
+    public RenderMode getRenderMode()
+    {
+        return renderMode;
+    }
+
+    /**
+     * Set the way the rendered frames are presented on screen.
+     * @param renderMode The RenderMode.
+     */
+    public void setRenderMode(RenderMode renderMode)
+    {
+        this.renderMode = renderMode;
+    }
+
+    /**
+     * Get the number of buffers used by the BUFFER_STRATEGY render mode.
+     * @return The number of buffers (2 or 3).
+     */
+    public int getNumBuffers()
+    {
+        return numBuffers;
+    }
+
+    /**
+     * Set the number of buffers used by the BUFFER_STRATEGY render mode. Two buffers is double buffering,
+     * three lets the next frame be drawn while the previous flip is still waiting for the display.
+     * @param numBuffers The number of buffers, clamped between 2 and 3.
+     */
+    public void setNumBuffers(int numBuffers)
+    {
+        this.numBuffers = Math.max(2, Math.min(3, numBuffers));
+    }
+
+    /**
+     * Determine whether the back buffer and sprites are kept in VolatileImages in video memory.
+     * @return True or false.
+     */
+    public boolean isAcceleratedSurfaces()
+    {
+        return acceleratedSurfaces;
+    }
+
+    /**
+     * Set whether the back buffer and sprites are kept in VolatileImages in video memory, rather than
+     * leaving it to Java2D to decide whether to cache them there. The surfaces are restored automatically
+     * if their contents are lost, and each one reports whether it actually ended up accelerated.
+     * @param acceleratedSurfaces True to use VolatileImages.
+     */
+    public void setAcceleratedSurfaces(boolean acceleratedSurfaces)
+    {
+        this.acceleratedSurfaces = acceleratedSurfaces;
+    }
+
+    /**
+     * Determine whether the game is updated and rendered on separate threads.
+     * @return True or false.
+     */
+    public boolean isPipelined()
+    {
+        return pipelined;
+    }
+
+    /**
+     * Set whether the game is updated and rendered on separate threads. The simulation thread updates the
+     * game at the tick rate (or the FPS if no tick rate is set) and publishes a snapshot after every tick,
+     * while the render thread draws the latest snapshot at the FPS, so a slow frame never delays an update.
+     * @param pipelined True to update and render on separate threads.
+     */
+    public void setPipelined(boolean pipelined)
+    {
+        this.pipelined = pipelined;
+    }
+
+    /**
+     * Determine whether the FPS is lowered and raised to match what the machine can keep up with.
+     * @return True or false.
+     */
+    public boolean isAdaptiveFps()
+    {
+        return adaptiveFps;
+    }
+
+    /**
+     * Set whether the FPS is lowered when frames take longer than the loop period and raised again when
+     * there is headroom, between minFps and maxFps. The game speed does not change with the FPS, the
+     * simulation keeps running at the tick rate (or the desired FPS if no tick rate is set).
+     * @param adaptiveFps True to adapt the FPS.
+     */
+    public void setAdaptiveFps(boolean adaptiveFps)
+    {
+        this.adaptiveFps = adaptiveFps;
+    }
+
+    /**
+     * Get the lowest FPS the adaptive frame rate is lowered to.
+     * @return The FPS floor.
+     */
+    public int getMinFps()
+    {
+        return minFps;
+    }
+
+    /**
+     * Set the lowest FPS the adaptive frame rate is lowered to.
+     * @param minFps The FPS floor.
+     */
+    public void setMinFps(int minFps)
+    {
+        this.minFps = minFps;
+    }
+
+    /**
+     * Get the highest FPS the adaptive frame rate is raised to.
+     * @return The FPS ceiling, or zero if the desired FPS is the ceiling.
+     */
+    public int getMaxFps()
+    {
+        return maxFps;
+    }
+
+    /**
+     * Set the highest FPS the adaptive frame rate is raised to.
+     * @param maxFps The FPS ceiling, or zero to use the desired FPS as the ceiling.
+     */
+    public void setMaxFps(int maxFps)
+    {
+        this.maxFps = maxFps;
+    }
+
+    /**
+     * Determine whether the asteroids are updated in parallel across the cores.
+     * @return True or false.
+     */
+    public boolean isParallelUpdate()
+    {
+        return parallelUpdate;
+    }
+
+    /**
+     * Set whether the asteroids are updated in parallel across the cores. Each tick is split into chunks of
+     * asteroids run on the common ForkJoinPool, which only pays off for fields of thousands of asteroids.
+     * The game plays out exactly the same as when the asteroids are updated on a single thread.
+     * @param parallelUpdate True to update the asteroids in parallel.
+     */
+    public void setParallelUpdate(boolean parallelUpdate)
+    {
+        this.parallelUpdate = parallelUpdate;
+    }
+
+    /**
+     * Get the seed every random choice in the game is drawn from.
+     * @return The seed, only used if isSeeded() is true.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Set the seed every random choice in the game is drawn from. Games with the same seed play out exactly
+     * the same when given the same input, so a seeded run can be repeated to compare its performance.
+     * @param seed The seed.
+     */
+    public void setSeed(long seed)
+    {
+        this.seed = seed;
+        seeded = true;
+    }
+
+    /**
+     * Determine whether the game uses the seed from the settings rather than a new random seed.
+     * @return True or false.
+     */
+    public boolean isSeeded()
+    {
+        return seeded;
+    }
+
+    /**
+     * Get the file the game is recorded to.
+     * @return The name of the file, or null if the game is not recorded.
+     */
+    public String getReplayFile()
+    {
+        return replayFile;
+    }
+
+    /**
+     * Set the file the game is recorded to. The recording holds the seed and the keys held on every tick,
+     * and can be played back headless by ReplayPlayer to reproduce the game exactly.
+     * @param replayFile The name of the file, or null to not record the game.
+     */
+    public void setReplayFile(String replayFile)
+    {
+        this.replayFile = replayFile;
+    }
+
+    /**
+     * Get the directory the decoded images are cached in.
+     * @return The directory, or null if the images are decoded on every launch.
+     */
+    public File getSpriteCacheDirectory()
+    {
+        return (spriteCacheDirectory == null) ? null : new File(spriteCacheDirectory);
+    }
+
+    /**
+     * Set the directory the decoded images are cached in. The first launch decodes the images and writes them
+     * to a SpriteCache there, and later launches read them back without decoding them until the images change.
+     * @param spriteCacheDirectory The name of the directory, or null or empty to decode the images on every launch.
+     */
+    public void setSpriteCacheDirectory(String spriteCacheDirectory)
+    {
+        this.spriteCacheDirectory = (spriteCacheDirectory == null || spriteCacheDirectory.isEmpty()) ? null : spriteCacheDirectory;
+    }
+
+    /**
+     * Determine whether changed images are reloaded while the game is running.
+     * @return True or false.
+     */
+    public boolean isHotReload()
+    {
+        return hotReload;
+    }
+
+    /**
+     * Set whether changed images are reloaded while the game is running. The directory the images are loaded
+     * from is watched, and any image that changes is decoded again in the background and swapped in, so
+     * artwork can be tried out without restarting the game. Meant for development.
+     * @param hotReload True or false.
+     */
+    public void setHotReload(boolean hotReload)
+    {
+        this.hotReload = hotReload;
+    }
+
+    /**
+     * Determine whether the window can be resized, with the game scaled to fit it.
+     * @return True or false.
+     */
+    public boolean isScaled()
+    {
+        return scaled;
+    }
+
+    /**
+     * Set whether the window can be resized, with the game scaled to fit it. The game keeps its shape and is
+     * centered in the window, and its images are pre-scaled each time the size changes so every frame is
+     * still drawn without scaling.
+     * @param scaled True or false.
+     */
+    public void setScaled(boolean scaled)
+    {
+        this.scaled = scaled;
+    }
+
+    /**
+     * Get the layers of the background.
+     * @return The layers as a comma separated list of <image name>:<speed>[:<opacity>].
+     */
+    public String getBackgroundLayers()
+    {
+        return backgroundLayers;
+    }
+
+    /**
+     * Set the layers of the background, from the back to the front. Each layer is an image from the
+     * ImagesConfig.txt file, the number of pixels it moves each second, and optionally the opacity it is drawn
+     * with (e.g. Space Background:10, Debris:30:0.6).
+     * @param backgroundLayers The layers as a comma separated list of <image name>:<speed>[:<opacity>].
+     */
+    public void setBackgroundLayers(String backgroundLayers)
+    {
+        this.backgroundLayers = backgroundLayers;
+    }
+}
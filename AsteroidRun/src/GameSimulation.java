@@ -0,0 +1,366 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongToIntFunction;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class GameSimulation
+{
+    /** The width of the playing field in pixels */
+    public static final int WIDTH = 700;
+    /** The height of the playing field in pixels */
+    public static final int HEIGHT = 800;
+
+    /** The input bit set while the left key is held */
+    public static final int INPUT_LEFT = 1;
+    /** The input bit set while the right key is held */
+    public static final int INPUT_RIGHT = 1 << 1;
+    /** The input bit set while the escape key is held */
+    public static final int INPUT_ESCAPE = 1 << 2;
+
+    /** The number of asteroids present when a normal game starts */
+    public static final int NUM_INITIAL_ASTEROIDS = 7;
+    /** The number of lives the player starts with */
+    private static final int NUM_INITIAL_LIVES = 3;
+    /** The prime each value is multiplied in with when hashing the state of the game, as in 64-bit FNV-1a */
+    private static final long HASH_PRIME = 0x100000001B3L;
+    /** The starting value of the hash of the state of the game, as in 64-bit FNV-1a */
+    private static final long HASH_OFFSET = 0xCBF29CE484222325L;
+
+    /** The AsteroidManager that manages the game's asteroids */
+    private AsteroidManager asteroidManager;
+    /** The Spaceship controlled by the player in this game */
+    private Spaceship spaceship;
+    /** The seed every random choice in this game is drawn from */
+    private long seed;
+    /** The number of asteroids present when the game started */
+    private int numInitialAsteroids;
+
+    /** The number of lives the player starts with */
+    private int initialNumberOfLives;
+    /** The number of lives the player has remaining before the game is over */
+    private int livesRemaining;
+    /** Determines whether the game is over */
+    private volatile boolean gameOver;
+    /** Determines whether the player asked to quit the game */
+    private volatile boolean quitRequested;
+    /** Determines whether the player keeps their lives when hit, used for soak tests and benchmarks */
+    private boolean invulnerable;
+
+    /** The amount of simulated time that passes with each step (in nanos) */
+    private long tickPeriod;
+    /** The number of steps simulated each second, rounded from the tick period */
+    private int tickRate;
+    /** The number of steps simulated so far */
+    private long tickCount;
+
+    /**
+     * Create a GameSimulation that holds and updates the state of a game of AsteroidRun. The simulation
+     * does not load images or draw anything, so it can be stepped without a display. The collision masks of
+     * the asteroid types and the spaceship are passed in, usually built from the images used to draw them.
+     * @param asteroidMasks The collision mask of each type of asteroid.
+     * @param shipMask The collision mask of the spaceship.
+     * @param tickPeriod The amount of simulated time that passes with each step (in nanos).
+     */
+    public GameSimulation(CollisionMask[] asteroidMasks, CollisionMask shipMask, long tickPeriod)
+    {
+        this(NUM_INITIAL_ASTEROIDS, asteroidMasks, shipMask, tickPeriod);
+    }
+
+    /**
+     * Create a GameSimulation that starts with the given number of asteroids, for example to stress the
+     * simulation with far more asteroids than a normal game.
+     * @param numInitialAsteroids The number of asteroids present when the game starts.
+     * @param asteroidMasks The collision mask of each type of asteroid.
+     * @param shipMask The collision mask of the spaceship.
+     * @param tickPeriod The amount of simulated time that passes with each step (in nanos).
+     */
+    public GameSimulation(int numInitialAsteroids, CollisionMask[] asteroidMasks, CollisionMask shipMask, long tickPeriod)
+    {
+        this(numInitialAsteroids, new Random().nextLong(), asteroidMasks, shipMask, tickPeriod);
+    }
+
+    /**
+     * Create a GameSimulation whose random choices are all drawn from the given seed. Two games created with
+     * the same seed, number of asteroids, and collision masks play out exactly the same when stepped with the
+     * same input, which lets a game be recorded as just its seed and input (see ReplayRecorder).
+     * @param numInitialAsteroids The number of asteroids present when the game starts.
+     * @param seed The seed every random choice in the game is drawn from.
+     * @param asteroidMasks The collision mask of each type of asteroid.
+     * @param shipMask The collision mask of the spaceship.
+     * @param tickPeriod The amount of simulated time that passes with each step (in nanos).
+     */
+    public GameSimulation(int numInitialAsteroids, long seed, CollisionMask[] asteroidMasks, CollisionMask shipMask,
+                          long tickPeriod)
+    {
+        //Store the seed, numInitialAsteroids, and tickPeriod
+        this.seed = seed;
+        this.numInitialAsteroids = numInitialAsteroids;
+        this.tickPeriod = tickPeriod;
+        tickRate = (int) Math.max(1L, Math.round(1000000000.0/tickPeriod)); //nanos -> ticks per sec
+
+        //Create the asteroidManager and spaceship
+        asteroidManager = new AsteroidManager(numInitialAsteroids, seed, asteroidMasks, this);
+        spaceship = new Spaceship(shipMask, this);
+
+        //Set the number of lives, the initial number of lives variable is only used for printing
+        initialNumberOfLives = NUM_INITIAL_LIVES;
+        livesRemaining = initialNumberOfLives;
+    }
+
+    /**
+     * Advance the game by a single tick using the given input. Nothing happens once the game is over.
+     * @param input The keys held during this tick, a combination of the INPUT_* bits.
+     */
+    public void step(int input)
+    {
+        //Check if escape is held, the caller decides how to quit
+        if ((input & INPUT_ESCAPE) != 0)
+        {
+            quitRequested = true;
+        }
+
+        //If the game is not over, update
+        if (!gameOver)
+        {
+            //Update the game elements, the asteroidManager also finds the asteroids that hit the spaceship
+            asteroidManager.update(spaceship.getPrevXPos(), spaceship.getXPos(), spaceship.getYPos(), spaceship.getMask());
+            spaceship.update(input);
+            tickCount++;
+        }
+    }
+
+    /**
+     * Step the game back-to-back without any delay until the requested number of ticks has run, the game
+     * is over, or the player asks to quit. This is used to run the game as fast as possible without a display.
+     * @param numTicks The maximum number of ticks to run.
+     * @param inputSource Supplies the input for each tick, given the tick count before the step.
+     * @return The number of ticks that were run.
+     */
+    public long runUncapped(long numTicks, LongToIntFunction inputSource)
+    {
+        //Step until the ticks run out or the game ends
+        long ticksRun = 0L;
+        while (ticksRun < numTicks && !gameOver && !quitRequested)
+        {
+            step(inputSource.applyAsInt(tickCount));
+            ticksRun++;
+        }
+        return ticksRun;
+    }
+
+    /**
+     * Remove one of the player's remaining lives. If the number of remaining lives is less than
+     * zero, then the game is over.
+     */
+    public void lifeLost()
+    {
+        //An invulnerable player never loses lives
+        if (invulnerable)
+        {
+            return;
+        }
+
+        //Decrement the lives remaining
+        livesRemaining--;
+        if (livesRemaining < 0)
+        {
+            gameOver = true;
+        }
+    }
+
+    /**
+     * Set whether the asteroids are updated in parallel on the common ForkJoinPool. This only pays off for
+     * fields of thousands of asteroids, and the game plays out exactly the same either way.
+     * @param parallelUpdate True to update the asteroids in parallel.
+     */
+    public void setParallelUpdate(boolean parallelUpdate)
+    {
+        asteroidManager.setForkJoinPool(parallelUpdate ? ForkJoinPool.commonPool() : null);
+    }
+
+    /**
+     * Set whether the player keeps their lives when hit. Asteroids still explode when they hit the
+     * spaceship, but the game never ends, which lets soak tests and benchmarks run indefinitely.
+     * @param invulnerable True to stop the player losing lives.
+     */
+    public void setInvulnerable(boolean invulnerable)
+    {
+        this.invulnerable = invulnerable;
+    }
+
+    /**
+     * Determine whether the player keeps their lives when hit.
+     * @return True or false.
+     */
+    public boolean isInvulnerable()
+    {
+        return invulnerable;
+    }
+
+    /**
+     * Hash the state of the game, everything that decides how the game plays out from here. Replaying the
+     * seed and input of a game must give the same hash after every tick, or the replay has diverged.
+     * @return The hash of the state of the game.
+     */
+    public long getStateHash()
+    {
+        //Hash the game and the spaceship, then the asteroids
+        long hash = hashState(HASH_OFFSET, tickCount);
+        hash = hashState(hash, livesRemaining);
+        hash = hashState(hash, gameOver ? 1 : 0);
+        hash = hashState(hash, spaceship.getXPos());
+        hash = hashState(hash, spaceship.getPrevXPos());
+        hash = hashState(hash, spaceship.getYPos());
+        return asteroidManager.hashState(hash);
+    }
+
+    /**
+     * Add a value to a hash of the state of the game.
+     * @param hash The hash so far.
+     * @param value The value to add.
+     * @return The hash including the value.
+     */
+    public static long hashState(long hash, long value)
+    {
+        return (hash ^ value) * HASH_PRIME;
+    }
+
+    /**
+     * Determine whether the game is over.
+     * @return True or false (true if the player has run out of lives).
+     */
+    public boolean isGameOver()
+    {
+        return gameOver;
+    }
+
+    /**
+     * Determine whether the player asked to quit the game.
+     * @return True or false (true if escape was held during a step).
+     */
+    public boolean isQuitRequested()
+    {
+        return quitRequested;
+    }
+
+    /**
+     * Get the seed every random choice in this game is drawn from.
+     * @return The seed.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Get the number of asteroids present when the game started.
+     * @return The initial number of asteroids.
+     */
+    public int getNumInitialAsteroids()
+    {
+        return numInitialAsteroids;
+    }
+
+    /**
+     * Get the number of lives the player started with.
+     * @return The initial number of lives.
+     */
+    public int getInitialNumberOfLives()
+    {
+        return initialNumberOfLives;
+    }
+
+    /**
+     * Get the number of lives the player has remaining.
+     * @return The lives remaining, less than zero once the game is over.
+     */
+    public int getLivesRemaining()
+    {
+        return livesRemaining;
+    }
+
+    /**
+     * Get the number of ticks simulated so far.
+     * @return The tick count.
+     */
+    public long getTickCount()
+    {
+        return tickCount;
+    }
+
+    /**
+     * Get the amount of simulated time that passes with each step.
+     * @return The tick period (in nanos).
+     */
+    public long getTickPeriod()
+    {
+        return tickPeriod;
+    }
+
+    /**
+     * Get the number of steps simulated each second.
+     * @return The tick rate, rounded from the tick period.
+     */
+    public int getTickRate()
+    {
+        return tickRate;
+    }
+
+    /**
+     * Get the number of whole pixels something moving at the given velocity covers during the current tick.
+     * Everything in the game moves at a speed given per second, so the game plays at the same speed whatever
+     * the tick rate and only the cost of simulating it changes. Positions stay whole pixels: the distance is
+     * the whole pixels covered by the end of this tick less those covered by its start, so the fractions
+     * carry over from tick to tick and the distances add up to exactly the velocity every second. The distance
+     * only depends on the tick count and tick rate, so replays play out the same.
+     * @param velocity The velocity (in pixels per sec), may be negative.
+     * @return The distance moved this tick (in pixels).
+     */
+    public int getTickDistance(int velocity)
+    {
+        return getTickDistance(velocity, tickCount, tickRate);
+    }
+
+    /**
+     * Get the number of whole pixels something moving at the given velocity covers during a tick.
+     * @param velocity The velocity (in pixels per sec), may be negative.
+     * @param tick The number of ticks before the tick.
+     * @param tickRate The number of ticks each second.
+     * @return The distance moved during the tick (in pixels).
+     */
+    public static int getTickDistance(int velocity, long tick, int tickRate)
+    {
+        return (int) (Math.floorDiv(velocity * (tick + 1), (long) tickRate) - Math.floorDiv(velocity * tick, (long) tickRate));
+    }
+
+    /**
+     * Get the amount of simulated time spent playing the game. The clock only advances when the game
+     * is stepped, so it stops while the game is paused or over.
+     * @return The time spent in game (in secs).
+     */
+    public int getTimeSpentInGame()
+    {
+        return (int) ((tickCount * tickPeriod)/1000000000L); // ns --> secs
+    }
+
+    /**
+     * Get the AsteroidManager that manages the game's asteroids.
+     * @return The AsteroidManager.
+     */
+    public AsteroidManager getAsteroidManager()
+    {
+        return asteroidManager;
+    }
+
+    /**
+     * Get the Spaceship controlled by the player.
+     * @return The Spaceship.
+     */
+    public Spaceship getSpaceship()
+    {
+        return spaceship;
+    }
+}
@@ -0,0 +1,346 @@
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class GameSnapshot
+{
+    /** The number of ticks the simulation had run when this snapshot was captured */
+    private long tickCount;
+    /** The time this snapshot was published to the render thread (in nanos) */
+    private long publishTime;
+
+    /** The number of asteroids in this snapshot */
+    private int numAsteroids;
+    /** The x-coordinate positions of the asteroids before their last update */
+    private int[] asteroidPrevXPos;
+    /** The y-coordinate positions of the asteroids before their last update */
+    private int[] asteroidPrevYPos;
+    /** The x-coordinate positions of the asteroids */
+    private int[] asteroidXPos;
+    /** The y-coordinate positions of the asteroids */
+    private int[] asteroidYPos;
+    /** The widths of the asteroids */
+    private int[] asteroidWidth;
+    /** The heights of the asteroids */
+    private int[] asteroidHeight;
+    /** The types of the asteroids, used to choose their images */
+    private int[] asteroidType;
+    /** Determines whether each asteroid is active, inactive asteroids are exploding */
+    private boolean[] asteroidActive;
+
+    /** The x-coordinate position of the spaceship before its last update */
+    private int shipPrevXPos;
+    /** The x-coordinate position of the spaceship */
+    private int shipXPos;
+    /** The y-coordinate position of the spaceship */
+    private int shipYPos;
+    /** The width of the spaceship */
+    private int shipWidth;
+    /** The height of the spaceship */
+    private int shipHeight;
+
+    /** The y-coordinate position of each background layer before its last update */
+    private int[] layerPrevYPos = new int[0];
+    /** The index of the spaceship's current image of animation */
+    private int spaceshipSequenceIndex;
+
+    /** The amount of simulated time spent playing the game (in secs) */
+    private int timeSpentInGame;
+    /** The number of lives the player has remaining */
+    private int livesRemaining;
+    /** The number of lives the player started with */
+    private int initialNumberOfLives;
+    /** Determines whether the game is over */
+    private boolean gameOver;
+
+    /**
+     * Create an empty GameSnapshot. A snapshot is a copy of everything needed to draw a single frame of
+     * the game, so that the game can be drawn on one thread while it is updated on another. Snapshots are
+     * reused rather than created every tick, the arrays only grow if the number of asteroids does.
+     */
+    public GameSnapshot()
+    {
+        ensureCapacity(0);
+    }
+
+    /**
+     * Copy the state of the game into this snapshot.
+     * @param gameSimulation The GameSimulation holding the state of the game.
+     * @param layerPrevYPos The y-coordinate position of each background layer before its last update.
+     * @param spaceshipSequenceIndex The index of the spaceship's current image of animation.
+     */
+    public void capture(GameSimulation gameSimulation, int[] layerPrevYPos, int spaceshipSequenceIndex)
+    {
+        //Copy the asteroids
+        AsteroidManager asteroidManager = gameSimulation.getAsteroidManager();
+        numAsteroids = asteroidManager.getNumAsteroids();
+        ensureCapacity(numAsteroids);
+        for (int i = 0; i < numAsteroids; i++)
+        {
+            asteroidPrevXPos[i] = asteroidManager.getPrevXPos(i);
+            asteroidPrevYPos[i] = asteroidManager.getPrevYPos(i);
+            asteroidXPos[i] = asteroidManager.getXPos(i);
+            asteroidYPos[i] = asteroidManager.getYPos(i);
+            asteroidWidth[i] = asteroidManager.getWidth(i);
+            asteroidHeight[i] = asteroidManager.getHeight(i);
+            asteroidType[i] = asteroidManager.getType(i);
+            asteroidActive[i] = asteroidManager.isActive(i);
+        }
+
+        //Copy the spaceship
+        Spaceship spaceship = gameSimulation.getSpaceship();
+        shipPrevXPos = spaceship.getPrevXPos();
+        shipXPos = spaceship.getXPos();
+        shipYPos = spaceship.getYPos();
+        shipWidth = spaceship.getWidth();
+        shipHeight = spaceship.getHeight();
+
+        //Copy the background, animation, and stats
+        if (this.layerPrevYPos.length != layerPrevYPos.length)
+        {
+            this.layerPrevYPos = new int[layerPrevYPos.length];
+        }
+        System.arraycopy(layerPrevYPos, 0, this.layerPrevYPos, 0, layerPrevYPos.length);
+        this.spaceshipSequenceIndex = spaceshipSequenceIndex;
+        tickCount = gameSimulation.getTickCount();
+        timeSpentInGame = gameSimulation.getTimeSpentInGame();
+        livesRemaining = gameSimulation.getLivesRemaining();
+        initialNumberOfLives = gameSimulation.getInitialNumberOfLives();
+        gameOver = gameSimulation.isGameOver();
+    }
+
+    /**
+     * Grow the asteroid arrays if they cannot hold the given number of asteroids.
+     * @param capacity The number of asteroids the arrays must hold.
+     */
+    private void ensureCapacity(int capacity)
+    {
+        if (asteroidXPos == null || asteroidXPos.length < capacity)
+        {
+            asteroidPrevXPos = new int[capacity];
+            asteroidPrevYPos = new int[capacity];
+            asteroidXPos = new int[capacity];
+            asteroidYPos = new int[capacity];
+            asteroidWidth = new int[capacity];
+            asteroidHeight = new int[capacity];
+            asteroidType = new int[capacity];
+            asteroidActive = new boolean[capacity];
+        }
+    }
+
+    /**
+     * Get the number of ticks the simulation had run when this snapshot was captured.
+     * @return The tick count.
+     */
+    public long getTickCount()
+    {
+        return tickCount;
+    }
+
+    /**
+     * Get the time this snapshot was published to the render thread.
+     * @return The publish time (in nanos).
+     */
+    public long getPublishTime()
+    {
+        return publishTime;
+    }
+
+    /**
+     * Set the time this snapshot was published to the render thread.
+     * @param publishTime The publish time (in nanos).
+     */
+    public void setPublishTime(long publishTime)
+    {
+        this.publishTime = publishTime;
+    }
+
+    /**
+     * Get the number of asteroids in this snapshot.
+     * @return The number of asteroids.
+     */
+    public int getNumAsteroids()
+    {
+        return numAsteroids;
+    }
+
+    /**
+     * Get the x-coordinate position of an asteroid before its last update.
+     * @param index The index of the asteroid.
+     * @return The previous x-coordinate position.
+     */
+    public int getAsteroidPrevXPos(int index)
+    {
+        return asteroidPrevXPos[index];
+    }
+
+    /**
+     * Get the y-coordinate position of an asteroid before its last update.
+     * @param index The index of the asteroid.
+     * @return The previous y-coordinate position.
+     */
+    public int getAsteroidPrevYPos(int index)
+    {
+        return asteroidPrevYPos[index];
+    }
+
+    /**
+     * Get the x-coordinate position of an asteroid.
+     * @param index The index of the asteroid.
+     * @return The x-coordinate position.
+     */
+    public int getAsteroidXPos(int index)
+    {
+        return asteroidXPos[index];
+    }
+
+    /**
+     * Get the y-coordinate position of an asteroid.
+     * @param index The index of the asteroid.
+     * @return The y-coordinate position.
+     */
+    public int getAsteroidYPos(int index)
+    {
+        return asteroidYPos[index];
+    }
+
+    /**
+     * Get the width of an asteroid.
+     * @param index The index of the asteroid.
+     * @return The width in pixels.
+     */
+    public int getAsteroidWidth(int index)
+    {
+        return asteroidWidth[index];
+    }
+
+    /**
+     * Get the height of an asteroid.
+     * @param index The index of the asteroid.
+     * @return The height in pixels.
+     */
+    public int getAsteroidHeight(int index)
+    {
+        return asteroidHeight[index];
+    }
+
+    /**
+     * Get the type of an asteroid.
+     * @param index The index of the asteroid.
+     * @return The type, an index into AsteroidManager.ASTEROID_IMAGE_NAMES.
+     */
+    public int getAsteroidType(int index)
+    {
+        return asteroidType[index];
+    }
+
+    /**
+     * Determine whether an asteroid is active.
+     * @param index The index of the asteroid.
+     * @return True or false (false if the asteroid is exploding).
+     */
+    public boolean isAsteroidActive(int index)
+    {
+        return asteroidActive[index];
+    }
+
+    /**
+     * Get the x-coordinate position of the spaceship before its last update.
+     * @return The previous x-coordinate position.
+     */
+    public int getShipPrevXPos()
+    {
+        return shipPrevXPos;
+    }
+
+    /**
+     * Get the x-coordinate position of the spaceship.
+     * @return The x-coordinate position.
+     */
+    public int getShipXPos()
+    {
+        return shipXPos;
+    }
+
+    /**
+     * Get the y-coordinate position of the spaceship.
+     * @return The y-coordinate position.
+     */
+    public int getShipYPos()
+    {
+        return shipYPos;
+    }
+
+    /**
+     * Get the width of the spaceship.
+     * @return The width in pixels.
+     */
+    public int getShipWidth()
+    {
+        return shipWidth;
+    }
+
+    /**
+     * Get the height of the spaceship.
+     * @return The height in pixels.
+     */
+    public int getShipHeight()
+    {
+        return shipHeight;
+    }
+
+    /**
+     * Get the y-coordinate position of a background layer before its last update.
+     * @param layer The index of the layer, zero for the back layer.
+     * @return The previous y-coordinate position.
+     */
+    public int getLayerPrevYPos(int layer)
+    {
+        return layerPrevYPos[layer];
+    }
+
+    /**
+     * Get the index of the spaceship's current image of animation.
+     * @return The sequence index.
+     */
+    public int getSpaceshipSequenceIndex()
+    {
+        return spaceshipSequenceIndex;
+    }
+
+    /**
+     * Get the amount of simulated time spent playing the game.
+     * @return The time spent in game (in secs).
+     */
+    public int getTimeSpentInGame()
+    {
+        return timeSpentInGame;
+    }
+
+    /**
+     * Get the number of lives the player has remaining.
+     * @return The lives remaining.
+     */
+    public int getLivesRemaining()
+    {
+        return livesRemaining;
+    }
+
+    /**
+     * Get the number of lives the player started with.
+     * @return The initial number of lives.
+     */
+    public int getInitialNumberOfLives()
+    {
+        return initialNumberOfLives;
+    }
+
+    /**
+     * Determine whether the game is over.
+     * @return True or false (true if the player has run out of lives).
+     */
+    public boolean isGameOver()
+    {
+        return gameOver;
+    }
+}
@@ -0,0 +1,102 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class GlyphAtlas
+{
+    /** The characters held in the atlas */
+    private String characters;
+    /** The image holding every character side by side */
+    private BufferedImage atlasImage;
+    /** The x-coordinate position of each character in the atlasImage */
+    private int[] glyphX;
+    /** The advance width of each character */
+    private int[] glyphWidth;
+    /** The distance from the top of the atlasImage to the baseline */
+    private int ascent;
+    /** The height of the atlasImage */
+    private int height;
+
+    /** The font used for any character missing from the atlas */
+    private Font font;
+    /** The color used for any character missing from the atlas */
+    private Color color;
+
+    /**
+     * Create a GlyphAtlas by rasterizing each of the given characters once into a single image. Strings made of
+     * these characters can then be drawn by copying rectangles out of the image, without going through font
+     * layout and rasterization each time. The characters are placed using their advance widths, so a string
+     * drawn from the atlas lines up with the same string drawn by drawString().
+     * @param characters The characters to hold in the atlas.
+     * @param font The font to rasterize the characters with.
+     * @param fontMetrics The font metrics of the font.
+     * @param color The color to rasterize the characters in.
+     */
+    public GlyphAtlas(String characters, Font font, FontMetrics fontMetrics, Color color)
+    {
+        //Store the characters, font, and color
+        this.characters = characters;
+        this.font = font;
+        this.color = color;
+
+        //Lay the characters out side by side
+        glyphX = new int[characters.length()];
+        glyphWidth = new int[characters.length()];
+        int totalWidth = 0;
+        for (int i = 0; i < characters.length(); i++)
+        {
+            glyphX[i] = totalWidth;
+            glyphWidth[i] = fontMetrics.charWidth(characters.charAt(i));
+            totalWidth = totalWidth + glyphWidth[i];
+        }
+        ascent = fontMetrics.getAscent();
+        height = fontMetrics.getAscent() + fontMetrics.getDescent();
+
+        //Rasterize each character into the atlasImage
+        atlasImage = new BufferedImage(Math.max(1, totalWidth), Math.max(1, height), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = atlasImage.createGraphics();
+        g2d.setFont(font);
+        g2d.setColor(color);
+        for (int i = 0; i < characters.length(); i++)
+        {
+            g2d.drawString(String.valueOf(characters.charAt(i)), glyphX[i], ascent);
+        }
+        g2d.dispose();
+    }
+
+    /**
+     * Draw a string by copying its characters out of the atlas. Any character missing from the atlas is
+     * drawn with drawString() instead.
+     * @param g The Graphics object used to draw the string.
+     * @param text The string to draw.
+     * @param x The x-coordinate position of the start of the string.
+     * @param y The y-coordinate position of the baseline of the string.
+     * @return The x-coordinate position of the end of the string.
+     */
+    public int drawString(Graphics g, String text, int x, int y)
+    {
+        int top = y - ascent;
+        for (int i = 0; i < text.length(); i++)
+        {
+            //Copy the character out of the atlas
+            int index = characters.indexOf(text.charAt(i));
+            if (index >= 0)
+            {
+                int width = glyphWidth[index];
+                g.drawImage(atlasImage, x, top, x + width, top + height, glyphX[index], 0, glyphX[index] + width, height, null);
+                x = x + width;
+            }
+            else //Draw the missing character with the font
+            {
+                g.setFont(font);
+                g.setColor(color);
+                g.drawString(String.valueOf(text.charAt(i)), x, y);
+                x = x + g.getFontMetrics().charWidth(text.charAt(i));
+            }
+        }
+        return x;
+    }
+}
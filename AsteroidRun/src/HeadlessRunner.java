@@ -0,0 +1,190 @@
+import java.util.Random;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class HeadlessRunner
+{
+    /** The number of ticks run when no value is provided */
+    private static final long DEFAULT_TICKS = 10000000L;
+    /** The simulated tick rate when no value is provided, this only affects the game clock */
+    private static final int DEFAULT_TICK_RATE = 10;
+    /** The number of ticks the autopilot holds the same input for */
+    private static final int TICKS_PER_INPUT = 8;
+
+    /** The collision mask of each type of asteroid */
+    private CollisionMask[] asteroidMasks;
+    /** The collision mask of the spaceship */
+    private CollisionMask shipMask;
+    /** The amount of simulated time that passes with each tick (in nanos) */
+    private long tickPeriod;
+    /** Determines whether the simulations update their asteroids in parallel */
+    private boolean parallelUpdate;
+    /** The seed of the next simulation created, only used if the settings give a seed */
+    private long nextSeed;
+    /** Determines whether the simulations are seeded from nextSeed rather than given new random seeds */
+    private boolean seeded;
+
+    /**
+     * Create a HeadlessRunner that runs games of AsteroidRun back-to-back without a display. The collision
+     * masks of the asteroids and the spaceship are built from the game's images, which are loaded headless.
+     * The asteroids are updated in parallel if the asteroidrun.parallelUpdate system property is set. If the
+     * asteroidrun.seed system property is set, the first simulation created uses that seed and each one after
+     * it the next seed up, so a run can be repeated exactly to compare its performance.
+     * @param tickRate The simulated number of ticks per second.
+     */
+    public HeadlessRunner(int tickRate)
+    {
+        //Store the tickPeriod and settings
+        tickPeriod = 1000000000L/tickRate; //secs -> nanos
+        GameSettings settings = GameSettings.fromSystemProperties();
+        parallelUpdate = settings.isParallelUpdate();
+        seeded = settings.isSeeded();
+        nextSeed = settings.getSeed();
+
+        //Load the images to get the collision masks of the asteroids and the spaceship
+        ImageLoader imageLoader = new ImageLoader();
+        imageLoader.setSpriteCacheDirectory(settings.getSpriteCacheDirectory());
+        imageLoader.loadImagesFromFile("ImagesConfig.txt");
+        asteroidMasks = new CollisionMask[AsteroidManager.ASTEROID_IMAGE_NAMES.length];
+        for (int i = 0; i < asteroidMasks.length; i++)
+        {
+            asteroidMasks[i] = imageLoader.getMask(AsteroidManager.ASTEROID_IMAGE_NAMES[i]);
+        }
+        shipMask = imageLoader.getMask(Spaceship.IMAGE_NAME, 0);
+    }
+
+    /**
+     * Create a new GameSimulation using the collision masks built from the game's images.
+     * @return A new GameSimulation.
+     */
+    public GameSimulation createSimulation()
+    {
+        return createSimulation(GameSimulation.NUM_INITIAL_ASTEROIDS);
+    }
+
+    /**
+     * Create a new GameSimulation with the given number of asteroids using the collision masks built from the game's images.
+     * @param numInitialAsteroids The number of asteroids present when the game starts.
+     * @return A new GameSimulation.
+     */
+    public GameSimulation createSimulation(int numInitialAsteroids)
+    {
+        return createSimulation(numInitialAsteroids, seeded ? nextSeed++ : new Random().nextLong(), tickPeriod);
+    }
+
+    /**
+     * Create a new GameSimulation with the given number of asteroids, seed, and tick period using the collision
+     * masks built from the game's images, for example to play back a recorded game.
+     * @param numInitialAsteroids The number of asteroids present when the game starts.
+     * @param seed The seed every random choice in the game is drawn from.
+     * @param tickPeriod The amount of simulated time that passes with each tick (in nanos).
+     * @return A new GameSimulation.
+     */
+    public GameSimulation createSimulation(int numInitialAsteroids, long seed, long tickPeriod)
+    {
+        GameSimulation gameSimulation = new GameSimulation(numInitialAsteroids, seed, asteroidMasks, shipMask, tickPeriod);
+        gameSimulation.setParallelUpdate(parallelUpdate);
+        return gameSimulation;
+    }
+
+    /**
+     * Run games back-to-back with no delay until the requested number of ticks has run. A new game is
+     * started every time the previous game is over. The spaceship is flown by a simple autopilot that
+     * holds a pseudo-random direction for a few ticks at a time.
+     * @param numTicks The total number of ticks to run.
+     */
+    public void run(long numTicks)
+    {
+        //The number of ticks and games run so far
+        long ticksRun = 0L;
+        int gamesPlayed = 0;
+        //The total simulated time survived in finished games (in secs)
+        long timeSurvived = 0L;
+
+        //Run games until the ticks run out
+        long startTime = System.nanoTime();
+        while (ticksRun < numTicks)
+        {
+            GameSimulation gameSimulation = createSimulation();
+            ticksRun = ticksRun + gameSimulation.runUncapped(numTicks - ticksRun, HeadlessRunner::autopilot);
+            if (gameSimulation.isGameOver())
+            {
+                gamesPlayed++;
+                timeSurvived = timeSurvived + gameSimulation.getTimeSpentInGame();
+            }
+        }
+        long elapsedTime = System.nanoTime() - startTime;
+
+        //Report the results
+        System.out.println("Ran " + ticksRun + " ticks in " + (elapsedTime/1000000L) + "ms (" +
+                (long) (ticksRun/(elapsedTime/1000000000.0)) + " ticks/sec)");
+        if (gamesPlayed > 0)
+        {
+            System.out.println("Games finished: " + gamesPlayed + ", average game time: " +
+                    (timeSurvived/gamesPlayed) + " secs");
+        }
+    }
+
+    /**
+     * Get the input for a tick from the autopilot. The autopilot holds left, right, or nothing for
+     * TICKS_PER_INPUT ticks at a time, picked by hashing the tick number. It never presses escape.
+     * @param tick The tick number.
+     * @return The input for the tick, a combination of the GameSimulation.INPUT_* bits.
+     */
+    private static int autopilot(long tick)
+    {
+        //Scramble the tick number (splitmix64) so the chosen directions look random
+        long hash = tick/TICKS_PER_INPUT + 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        hash = hash ^ (hash >>> 31);
+
+        //Pick left, right, or nothing
+        switch ((int) ((hash >>> 1) % 3))
+        {
+            case 0:
+                return GameSimulation.INPUT_LEFT;
+            case 1:
+                return GameSimulation.INPUT_RIGHT;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Run AsteroidRun headless for soak tests, balancing, and profiling the update path. The first
+     * command line argument sets the number of ticks to run and the second sets the simulated tick rate.
+     * @param args The number of ticks and the tick rate, both optional.
+     */
+    public static void main(String[] args)
+    {
+        //There is no display, make sure AWT never looks for one
+        System.setProperty("java.awt.headless", "true");
+
+        //Check for command line arguments
+        long numTicks = DEFAULT_TICKS;
+        int tickRate = DEFAULT_TICK_RATE;
+        try
+        {
+            if (args.length > 0)
+            {
+                numTicks = Long.parseLong(args[0]);
+            }
+            if (args.length > 1)
+            {
+                tickRate = Integer.parseInt(args[1]);
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            System.out.println("Usage: HeadlessRunner [ticks] [tick rate]\nPlease enter only integers.  Exiting...");
+            System.exit(0);
+        }
+
+        //Run the games
+        System.out.println("Running AsteroidRun headless for " + numTicks + " ticks at tick rate: " + tickRate);
+        new HeadlessRunner(tickRate).run(numTicks);
+    }
+}
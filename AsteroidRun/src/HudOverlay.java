@@ -0,0 +1,233 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class HudOverlay
+{
+    /** The label in front of the game time */
+    private static final String TIME_LABEL = "Game time: ";
+    /** The label in front of the shields */
+    private static final String SHIELDS_LABEL = "Shields: ";
+    /** The message shown when the game is over */
+    private static final String GAME_OVER_MESSAGE = "Game Over!";
+    /** The credits shown when the game is over */
+    private static final String CREDITS_MESSAGE = "Code and Graphics by: Logan Karstetter";
+
+    /** The panel image and labels, which never change, copied into the overlay each time it is rebuilt */
+    private BufferedImage baseImage;
+    /** The panel image, labels, and stats, drawn onto the screen every frame */
+    private BufferedImage overlayImage;
+    /** The overlayImage pre-scaled for the screen each time it is rebuilt, null if the overlay is not scaled */
+    private BufferedImage scaledOverlayImage;
+    /** The overlay drawn onto the screen, held in video memory if the renderer accelerates its images */
+    private AcceleratedImage overlaySurface;
+    /** The digits and symbols used to write the stats into the overlay */
+    private GlyphAtlas statsAtlas;
+
+    /** The game over message */
+    private BufferedImage gameOverImage;
+    /** The credits */
+    private BufferedImage creditsImage;
+
+    /** The x-coordinate position the game time is written at */
+    private int timeX;
+    /** The x-coordinate position the shields are written at */
+    private int shieldsX;
+    /** The font metrics used to lay out the text */
+    private FontMetrics fontMetrics;
+    /** The font metrics of the game over message and credits, which are rasterized at the scale of the screen */
+    private FontMetrics messageMetrics;
+    /** The scale the overlay is drawn at */
+    private double scale;
+
+    /** The game time written into the overlay, -1 before it is first built */
+    private int shownTimeSpentInGame;
+    /** The lives remaining written into the overlay */
+    private int shownLivesRemaining;
+    /** Determines whether the overlay was built for a game that is over */
+    private boolean shownGameOver;
+
+    /**
+     * Create a HudOverlay that displays the game time and shields on top of the panel image. The text changes
+     * at most once a second or when a life is lost, so rather than building and rasterizing the strings every
+     * frame they are written into an overlay image that is only rebuilt when the values change. The digits are
+     * copied from a GlyphAtlas when rebuilding, and the labels, game over message, and credits are rasterized
+     * only once.
+     * @param panelImage The image displayed behind the stats, may be null.
+     * @param font The font used to write the text.
+     * @param fontMetrics The font metrics of the font.
+     * @param graphicsConfiguration The graphics configuration to accelerate the overlay for, or null.
+     */
+    public HudOverlay(BufferedImage panelImage, Font font, FontMetrics fontMetrics, GraphicsConfiguration graphicsConfiguration)
+    {
+        this(panelImage, font, fontMetrics, graphicsConfiguration, 1.0);
+    }
+
+    /**
+     * Create a HudOverlay that is drawn at a scale, for a screen larger or smaller than the game. The overlay is
+     * still built at the game's size and then copied into a pre-scaled overlay each time it is rebuilt, so
+     * drawing it every frame remains a 1:1 copy. The game over message and credits are rasterized at the scale.
+     * @param panelImage The image displayed behind the stats, may be null.
+     * @param font The font used to write the text.
+     * @param fontMetrics The font metrics of the font.
+     * @param graphicsConfiguration The graphics configuration to accelerate the overlay for, or null.
+     * @param scale The scale the overlay is drawn at, 1.0 for the game's size.
+     */
+    public HudOverlay(BufferedImage panelImage, Font font, FontMetrics fontMetrics, GraphicsConfiguration graphicsConfiguration,
+                      double scale)
+    {
+        //Store the fontMetrics and scale, and find where the values are written
+        this.fontMetrics = fontMetrics;
+        this.scale = scale;
+        timeX = 5 + fontMetrics.stringWidth(TIME_LABEL);
+        shieldsX = 5 + fontMetrics.stringWidth(SHIELDS_LABEL);
+
+        //Draw the panelImage and the labels into the baseImage, the overlay is as large as the panelImage
+        int width = panelImage != null ? panelImage.getWidth() : GameSimulation.WIDTH;
+        int height = panelImage != null ? panelImage.getHeight() : 40 + fontMetrics.getDescent();
+        baseImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = baseImage.createGraphics();
+        if (panelImage != null)
+        {
+            g2d.drawImage(panelImage, 0, 0, null);
+        }
+        g2d.setFont(font);
+        g2d.setColor(Color.BLACK);
+        g2d.drawString(TIME_LABEL, 5, 20);
+        g2d.drawString(SHIELDS_LABEL, 5, 40);
+        g2d.dispose();
+
+        //Create the overlayImage and the atlas used to write the stats into it
+        overlayImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        if (scale != 1.0)
+        {
+            scaledOverlayImage = new BufferedImage(Math.max(1, (int) Math.round(width * scale)),
+                    Math.max(1, (int) Math.round(height * scale)), BufferedImage.TYPE_INT_ARGB);
+        }
+        overlaySurface = new AcceleratedImage("HUD", scaledOverlayImage != null ? scaledOverlayImage : overlayImage,
+                graphicsConfiguration);
+        statsAtlas = new GlyphAtlas("0123456789.%-", font, fontMetrics, Color.BLACK);
+        shownTimeSpentInGame = -1;
+
+        //Rasterize the game over message and credits at the scale of the screen
+        Font messageFont = font;
+        messageMetrics = fontMetrics;
+        if (scale != 1.0)
+        {
+            messageFont = font.deriveFont((float) (font.getSize2D() * scale));
+            Graphics2D metricsGraphics = overlayImage.createGraphics();
+            messageMetrics = metricsGraphics.getFontMetrics(messageFont);
+            metricsGraphics.dispose();
+        }
+        gameOverImage = createTextImage(GAME_OVER_MESSAGE, messageFont, messageMetrics, Color.WHITE);
+        creditsImage = createTextImage(CREDITS_MESSAGE, messageFont, messageMetrics, Color.WHITE);
+    }
+
+    /**
+     * Rasterize a string into an image just large enough to hold it.
+     * @param text The string to rasterize.
+     * @param font The font used to write the string.
+     * @param fontMetrics The font metrics of the font.
+     * @param color The color of the string.
+     * @return The image holding the string.
+     */
+    private static BufferedImage createTextImage(String text, Font font, FontMetrics fontMetrics, Color color)
+    {
+        BufferedImage image = new BufferedImage(Math.max(1, fontMetrics.stringWidth(text)),
+                fontMetrics.getAscent() + fontMetrics.getDescent(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setFont(font);
+        g2d.setColor(color);
+        g2d.drawString(text, 0, fontMetrics.getAscent());
+        g2d.dispose();
+        return image;
+    }
+
+    /**
+     * Draw the overlay onto the screen, rebuilding it first if the stats in the snapshot have changed.
+     * If the game is over, the game over message and credits are drawn in the middle of the screen.
+     * @param dbGraphics The Graphics object used to draw the overlay.
+     * @param snapshot The GameSnapshot holding the stats.
+     */
+    public void draw(Graphics dbGraphics, GameSnapshot snapshot)
+    {
+        //Rebuild the overlay if the stats changed
+        if (snapshot.getTimeSpentInGame() != shownTimeSpentInGame || snapshot.getLivesRemaining() != shownLivesRemaining
+                || snapshot.isGameOver() != shownGameOver)
+        {
+            rebuild(snapshot);
+        }
+
+        //Draw the overlay
+        dbGraphics.drawImage(overlaySurface.validate(), 0, 0, null);
+
+        //Draw the game over message and credits
+        if (snapshot.isGameOver())
+        {
+            int screenWidth = (int) Math.round(GameSimulation.WIDTH * scale);
+            int screenHeight = (int) Math.round(GameSimulation.HEIGHT * scale);
+            int msgX = (screenWidth - gameOverImage.getWidth())/2;
+            int msgY = (screenHeight - messageMetrics.getHeight())/2;
+            dbGraphics.drawImage(gameOverImage, msgX, msgY - messageMetrics.getAscent(), null);
+
+            msgX = (screenWidth - creditsImage.getWidth())/2;
+            dbGraphics.drawImage(creditsImage, msgX, msgY + messageMetrics.getHeight() - messageMetrics.getAscent(), null);
+        }
+    }
+
+    /**
+     * Get the overlay image, used to report whether it is accelerated.
+     * @return The overlay surface.
+     */
+    public AcceleratedImage getSurface()
+    {
+        return overlaySurface;
+    }
+
+    /**
+     * Rebuild the overlayImage by copying the baseImage into it and writing the stats from the atlas.
+     * @param snapshot The GameSnapshot holding the stats.
+     */
+    private void rebuild(GameSnapshot snapshot)
+    {
+        //Remember the stats being written
+        shownTimeSpentInGame = snapshot.getTimeSpentInGame();
+        shownLivesRemaining = snapshot.getLivesRemaining();
+        shownGameOver = snapshot.isGameOver();
+
+        //Replace the overlay with the panel and labels
+        Graphics2D g2d = overlayImage.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.drawImage(baseImage, 0, 0, null);
+        g2d.setComposite(AlphaComposite.SrcOver);
+
+        //Write the game time and the shields, the player has no shields left once the game is over
+        statsAtlas.drawString(g2d, Integer.toString(shownTimeSpentInGame), timeX, 20);
+        if (!shownGameOver)
+        {
+            statsAtlas.drawString(g2d, ((float) shownLivesRemaining/snapshot.getInitialNumberOfLives()) * 100 + "%",
+                    shieldsX, 40);
+        }
+        else
+        {
+            statsAtlas.drawString(g2d, "0.0%", shieldsX, 40);
+        }
+        g2d.dispose();
+
+        //Copy the overlay into the pre-scaled overlay
+        if (scaledOverlayImage != null)
+        {
+            g2d = scaledOverlayImage.createGraphics();
+            g2d.setComposite(AlphaComposite.Src);
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.drawImage(overlayImage, 0, 0, scaledOverlayImage.getWidth(), scaledOverlayImage.getHeight(), null);
+            g2d.dispose();
+        }
+
+        //The overlay must be uploaded again if it is held in video memory
+        overlaySurface.invalidate();
+    }
+}
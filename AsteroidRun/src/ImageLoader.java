@@ -2,8 +2,25 @@ import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
 
 /**
  * @author Logan Karstetter
@@ -11,27 +28,82 @@ import java.util.HashMap;
  */
 public class ImageLoader
 {
+    /** The width and height of each page of the atlas the sprites are packed into */
+    private static final int ATLAS_PAGE_SIZE = 512;
+    /** The largest width or height of an image packed into the atlas, larger images such as the background are not */
+    private static final int MAX_ATLAS_SPRITE_SIZE = 256;
+
     /** The location of the file to load images from */
     private String directory = "Images/";
 
     /**
-     * The HashMap used to store loaded images. The key is the image name as
-     * it appeared in the file, and the object stored is an ArrayList of BufferedImages.
+     * The ConcurrentHashMap used to store loaded images. The key is the image name as it appeared in the file,
+     * and the object stored is an ArrayList of BufferedImages. The images are loaded on worker threads, and each
+     * list is only stored once all of its images are loaded, so a stored list never changes.
+     */
+    private ConcurrentHashMap<String, ArrayList<BufferedImage>> imagesMap;
+
+    /**
+     * The ConcurrentHashMap used to store the collision masks of loaded images. The key is the image name, and
+     * the object stored is an ArrayList of CollisionMasks in the same order as the images.
      */
-    private HashMap<String, ArrayList<BufferedImage>> imagesMap;
+    private ConcurrentHashMap<String, ArrayList<CollisionMask>> masksMap;
+
+    /** The number of image files requested by the files being loaded */
+    private AtomicInteger numImagesRequested;
+    /** The number of requested image files that have finished loading, whether or not they loaded successfully */
+    private AtomicInteger numImagesLoaded;
 
-    /** The graphics configuration describing the characteristics of the user's display */
+    /** The graphics configuration describing the characteristics of the user's display,
+     * null when running without a display (headless) */
     private GraphicsConfiguration graphicsConfiguration;
 
+    /** The directory the decoded images of each file are cached in, null if they are not cached */
+    private File spriteCacheDirectory;
+
+    /**
+     * The ConcurrentHashMap used to store the handle of each loaded image. The key is the image name, and the
+     * handle is the index of its images in frameImages and its sprites in the atlas.
+     */
+    private ConcurrentHashMap<String, Integer> handlesMap;
+    /** The images of each handle in sequence order, replaced as a whole each time images are stored */
+    private volatile BufferedImage[][] frameImages;
+    /** The line of the file each stored image name was loaded from, used to find the lines changed on reload */
+    private ConcurrentHashMap<String, String> loadedLines;
+
+    /** The atlas the loaded sprites are packed into, null until it is first needed, replaced as a whole on reload */
+    private volatile TextureAtlas atlas;
+    /**
+     * The atlas of the sprites pre-scaled for the last scale asked for, null until one is asked for. It is only
+     * replaced by compareAndSet, so an atlas built from images that were reloaded meanwhile never wins.
+     */
+    private AtomicReference<TextureAtlas> scaledAtlas;
+    /** The images pre-scaled for the scaledImagesScale, by their source image, dropped once the source is */
+    private WeakHashMap<BufferedImage, BufferedImage> scaledImages;
+    /** The scale of the images in scaledImages */
+    private double scaledImagesScale;
+
     /**
      * * Create an ImageLoader for loading images from a file located in the local Images/ directory.
+     * When there is no display (headless) the images are loaded as plain ARGB images instead.
      */
     public ImageLoader()
     {
-        //Create the imagesMap and get the graphicsConfiguration
-        imagesMap = new HashMap<>();
-        GraphicsEnvironment graphicsEnvironment = GraphicsEnvironment.getLocalGraphicsEnvironment();
-        graphicsConfiguration = graphicsEnvironment.getDefaultScreenDevice().getDefaultConfiguration();
+        //Create the imagesMap and masksMap, and get the graphicsConfiguration if there is a display
+        imagesMap = new ConcurrentHashMap<>();
+        masksMap = new ConcurrentHashMap<>();
+        handlesMap = new ConcurrentHashMap<>();
+        frameImages = new BufferedImage[0][];
+        loadedLines = new ConcurrentHashMap<>();
+        scaledImages = new WeakHashMap<>();
+        scaledAtlas = new AtomicReference<>();
+        numImagesRequested = new AtomicInteger();
+        numImagesLoaded = new AtomicInteger();
+        if (!GraphicsEnvironment.isHeadless())
+        {
+            GraphicsEnvironment graphicsEnvironment = GraphicsEnvironment.getLocalGraphicsEnvironment();
+            graphicsConfiguration = graphicsEnvironment.getDefaultScreenDevice().getDefaultConfiguration();
+        }
     }
     /**
      * Create an ImageLoader for loading images from a file located in some directory.
@@ -54,151 +126,498 @@ public class ImageLoader
      * "[sequence name: image1, image2]". In this case, the key/name of the images will be set to
      * "sequence name". Lines that do not adhere to this format will be skipped. Lines
      * beginning with // will be regarded as comments and blank lines will also be skipped.
+     * This method returns once every image in the file is loaded (see loadImagesFromFileAsync()).
      * @param fileName The name of the file to load images from.
      */
     public void loadImagesFromFile(String fileName)
+    {
+        loadImagesFromFileAsync(fileName).join();
+    }
+
+    /**
+     * Start loading the images listed in the given file under the given directory (Images/ by default),
+     * using the same format as loadImagesFromFile(), and return without waiting for them. The file itself is
+     * read straight away, then every image is decoded, copied into a managed image, and given its collision
+     * mask on a pool of worker threads, one per processor, so large files load in a fraction of the time.
+     * Each single image or sequence is stored as soon as all of its images are loaded, and the progress can
+     * be followed with getLoadProgress(), for example to draw a loading screen while the game waits. If a
+     * sprite cache directory is set, the images are read from the file's SpriteCache instead of being decoded
+     * whenever the cache was built from the same source images, and the cache is written again otherwise.
+     * @param fileName The name of the file to load images from.
+     * @return A future that completes once every image in the file has been loaded and stored.
+     */
+    public CompletableFuture<Void> loadImagesFromFileAsync(String fileName)
     {
         //Inform the user of the file reading
         System.out.println("Reading file: " + directory + fileName);
+
+        //Create the worker threads and read the file
+        ExecutorService workers = createWorkers();
+        ArrayList<CompletableFuture<Void>> storedFutures = new ArrayList<>();
+        ArrayList<String> storedNames = new ArrayList<>();
+        SpriteCache spriteCache = null;
         try
         {
-            //Created an InputStream and BufferedReader to read the file
-            InputStream inputStream = this.getClass().getResourceAsStream(directory + fileName);
-            BufferedReader br = new BufferedReader(new InputStreamReader(inputStream));
+            ArrayList<String> lines = readLines(fileName);
 
-            //Loop until the end of the file is reached
-            String line;
-            while ((line = br.readLine()) != null)
+            //Open the sprite cache if there is one, it is only used if it was built from these same images
+            if (spriteCacheDirectory != null)
+            {
+                spriteCache = new SpriteCache(new File(spriteCacheDirectory, fileName + ".cache"), getSourceChecksum(lines));
+                spriteCache.open();
+            }
+
+            //Start loading each line, the names are checked here since images are stored later
+            HashSet<String> imageNames = new HashSet<>(imagesMap.keySet());
+            for (String imageLine : lines)
             {
                 //Determine what action to take based off the line read
-                if (line.startsWith("//") || (line.length() == 0)) //This line is a comment or blank line
+                CompletableFuture<Void> storedFuture;
+                if (imageLine.startsWith("[")) //This line is a sequence of images
                 {
-                    continue;
+                    storedFuture = loadImageSequence(imageLine, imageNames, spriteCache, workers);
                 }
-                else if (line.startsWith("[")) //This line is a sequence of images
+                else //The line is a single image
                 {
-                    loadImageSequence(line);
+                    storedFuture = loadSingleImage(imageLine, imageNames, spriteCache, workers);
                 }
-                else //The line is a single image
+                if (storedFuture != null)
                 {
-                    loadSingleImage(line);
+                    storedFutures.add(storedFuture);
+                    storedNames.add(getImageName(imageLine));
+                    loadedLines.put(getImageName(imageLine), imageLine);
                 }
             }
+        }
+        catch (IOException e) {
+            System.out.println("Error reading file: " + directory + fileName + " " + e);
+        }
 
-            //Close the BufferedReader
-            br.close();
-
-            //Inform the user the ImageLoader is done reading
+        //Let the workers finish the queued images and then stop. Once they are all stored, cache them if the
+        //cache could not be used, and inform the user
+        workers.shutdown();
+        SpriteCache cache = spriteCache;
+        return CompletableFuture.allOf(storedFutures.toArray(new CompletableFuture<?>[0])).thenRun(() ->
+        {
+            if (cache != null && !cache.isOpen())
+            {
+                LinkedHashMap<String, ArrayList<BufferedImage>> storedImages = new LinkedHashMap<>();
+                for (String imageName : storedNames)
+                {
+                    if (imagesMap.containsKey(imageName))
+                    {
+                        storedImages.put(imageName, imagesMap.get(imageName));
+                    }
+                }
+                cache.write(storedImages);
+            }
             System.out.println("Finished reading file: " + directory + fileName);
+        });
+    }
+
+    /**
+     * Reload the images of a file that changed since it was loaded, without stopping the game. Only the lines
+     * naming a changed image file, and the lines that were added or edited if the file itself changed, are
+     * decoded again, on worker threads in the background. Each single image or sequence replaces the old one
+     * as a whole once all of its images are decoded, keeping its handle, and the atlas is packed again and
+     * replaced once every changed line is stored. Anything drawing by handle picks up the new images on its
+     * next frame. An image that fails to load, for example because it was still being written, keeps its old
+     * images. The sprite cache is not used, it is rebuilt on the next launch.
+     * @param fileName The name of the file the images were loaded from.
+     * @param changedFiles The names of the files in the images directory that changed.
+     * @return A future that completes once the changed images are stored and the atlas is replaced.
+     */
+    public CompletableFuture<Void> reloadImagesFromFile(String fileName, Set<String> changedFiles)
+    {
+        //Create the worker threads and read the file again
+        ExecutorService workers = createWorkers();
+        ArrayList<CompletableFuture<Void>> storedFutures = new ArrayList<>();
+        try
+        {
+            ArrayList<String> lines = readLines(fileName);
+
+            //Start loading each line that changed, the first line using a name is the one stored
+            boolean fileChanged = changedFiles.contains(fileName);
+            HashSet<String> imageNames = new HashSet<>();
+            for (String line : lines)
+            {
+                String imageName = getImageName(line);
+                boolean lineChanged = fileChanged && !line.equals(loadedLines.get(imageName));
+                for (String file : getFileNames(line))
+                {
+                    lineChanged = lineChanged || changedFiles.contains(file);
+                }
+                if (!lineChanged || imageNames.contains(imageName))
+                {
+                    imageNames.add(imageName);
+                    continue;
+                }
+
+                //Load the line like the first time, without the sprite cache
+                CompletableFuture<Void> storedFuture;
+                if (line.startsWith("["))
+                {
+                    storedFuture = loadImageSequence(line, imageNames, null, workers);
+                }
+                else
+                {
+                    storedFuture = loadSingleImage(line, imageNames, null, workers);
+                }
+                if (storedFuture != null)
+                {
+                    storedFutures.add(storedFuture);
+                    loadedLines.put(imageName, line);
+                }
+            }
         }
-        catch (IOException e) {
+        catch (IOException e)
+        {
             System.out.println("Error reading file: " + directory + fileName + " " + e);
         }
+
+        //Pack and replace the atlas once the changed images are stored, if it was packed before
+        workers.shutdown();
+        int numReloaded = storedFutures.size();
+        return CompletableFuture.allOf(storedFutures.toArray(new CompletableFuture<?>[0])).thenRun(() ->
+        {
+            synchronized (this)
+            {
+                if (atlas != null && numReloaded > 0)
+                {
+                    atlas = packAtlas();
+                }
+            }
+
+            //Scale the new images here too if the game is scaled, so the render thread never has to
+            if (numReloaded > 0)
+            {
+                prescaleReloadedImages();
+            }
+            System.out.println("Reloaded " + numReloaded + " image(s) from file: " + directory + fileName);
+        });
     }
 
     /**
-     * Load the single specified image from the line, and store it in the imagesMap.
-     * @param line The line containing the file to be loaded.
-     * @return True or false (success or fail)
+     * Create the worker threads images are loaded on, one per processor. They are daemons so an unfinished
+     * load never keeps the game running.
+     * @return The worker threads.
      */
-    private boolean loadSingleImage(String line)
+    private ExecutorService createWorkers()
     {
-        //Get the image name (remove an .extension, if any)
-        String imageName = line; //Set the imageName to the line by default
-        if (line.contains("."))
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable ->
         {
-            imageName = line.substring(0, line.indexOf('.'));
+            Thread worker = new Thread(runnable, "ImageLoader");
+            worker.setDaemon(true);
+            return worker;
+        });
+    }
+
+    /**
+     * Read the lines of a file in the images directory, skipping comments and blank lines.
+     * @param fileName The name of the file.
+     * @return The lines of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    private ArrayList<String> readLines(String fileName) throws IOException
+    {
+        //Created an InputStream and BufferedReader to read the file
+        InputStream inputStream = this.getClass().getResourceAsStream(directory + fileName);
+        if (inputStream == null)
+        {
+            throw new FileNotFoundException(directory + fileName);
         }
+        BufferedReader br = new BufferedReader(new InputStreamReader(inputStream));
 
-        //Check that the imagesMap does not already contain this file or one using this name
-        if (imagesMap.containsKey(imageName))
+        //Loop until the end of the file is reached, skipping comments and blank lines
+        ArrayList<String> lines = new ArrayList<>();
+        String line;
+        while ((line = br.readLine()) != null)
         {
-            System.out.println("ImagesMap already contains: " + imageName);
-            return false;
+            if (!line.startsWith("//") && (line.length() != 0))
+            {
+                lines.add(line);
+            }
         }
 
-        //Load the image
-        BufferedImage image = loadImage(line);
+        //Close the BufferedReader
+        br.close();
+        return lines;
+    }
 
-        //Store the new image in the imagesMap if it is not null
-        if (image != null)
+    /**
+     * Get the directory the images are loaded from on the file system, which can be watched for changes.
+     * @return The directory, or null if the images are not loaded from a directory (e.g. from inside a jar).
+     */
+    public Path getImagesDirectory()
+    {
+        URL url = getClass().getResource(directory);
+        if (url == null || !"file".equals(url.getProtocol()))
         {
-            //Add the new image to an new array list
-            ArrayList<BufferedImage> imageList = new ArrayList<>();
-            imageList.add(image);
-            imagesMap.put(imageName, imageList);
-            System.out.println("Stored " + imageName + " [" + line + "]");
-            return true;
+            return null;
+        }
+        try
+        {
+            return Paths.get(url.toURI());
         }
+        catch (URISyntaxException e)
+        {
+            return null;
+        }
+    }
 
-        //Something went wrong
-        return false;
+    /**
+     * Get the key/name of the single image or sequence of images on a line of the file.
+     * @param line The line.
+     * @return The image name, the image minus its .ext or the sequence name.
+     */
+    private String getImageName(String line)
+    {
+        if (line.startsWith("["))
+        {
+            return line.substring(1, line.indexOf(':')); //Skip the first open bracket
+        }
+        return line.contains(".") ? line.substring(0, line.indexOf('.')) : line;
+    }
+
+    /**
+     * Get the names of the image files on a line of the file.
+     * @param line The line.
+     * @return The file of a single image, or the files of a sequence of images in order.
+     */
+    private String[] getFileNames(String line)
+    {
+        if (!line.startsWith("["))
+        {
+            return new String[] {line};
+        }
+        String[] files = line.substring(line.indexOf(":") + 1, line.indexOf("]")).trim().split(",");
+        for (int i = 0; i < files.length; i++)
+        {
+            files[i] = files[i].trim(); //Trim whitespace off the files
+        }
+        return files;
+    }
+
+    /**
+     * Find the checksum of the lines of a file and every image file they name, which changes if any of the
+     * images are added, removed, renamed, or edited. Reading the bytes of the image files costs far less than
+     * decoding them.
+     * @param lines The lines of the file, without comments or blank lines.
+     * @return The CRC32 checksum.
+     */
+    private long getSourceChecksum(ArrayList<String> lines)
+    {
+        CRC32 checksum = new CRC32();
+        byte[] buffer = new byte[8192];
+        for (String line : lines)
+        {
+            checksum.update(line.getBytes(StandardCharsets.UTF_8));
+            for (String file : getFileNames(line))
+            {
+                //Missing images are only named in the checksum, they fail to load either way
+                try
+                {
+                    InputStream inputStream = getClass().getResourceAsStream(directory + file);
+                    if (inputStream != null)
+                    {
+                        int numRead;
+                        while ((numRead = inputStream.read(buffer)) > 0)
+                        {
+                            checksum.update(buffer, 0, numRead);
+                        }
+                        inputStream.close();
+                    }
+                }
+                catch (IOException e)
+                {
+                    System.out.println("Error reading image [" + file + "] " + e);
+                }
+            }
+        }
+        return checksum.getValue();
+    }
+
+    /**
+     * Start loading the single specified image from the line, and store it in the imagesMap once it is loaded.
+     * @param line The line containing the file to be loaded.
+     * @param imageNames The names of the images stored or being loaded, the new name is added to it.
+     * @param spriteCache The cache the image is read from if it holds it, may be null.
+     * @param workers The worker threads that load the image.
+     * @return A future that completes once the image is stored, or null if the name is already used.
+     */
+    private CompletableFuture<Void> loadSingleImage(String line, HashSet<String> imageNames, SpriteCache spriteCache,
+                                                    ExecutorService workers)
+    {
+        //Get the image name (remove an .extension, if any)
+        String imageName = getImageName(line);
+
+        //Check that the imagesMap does not already contain this file or one using this name
+        if (!imageNames.add(imageName))
+        {
+            System.out.println("ImagesMap already contains: " + imageName);
+            return null;
+        }
+
+        //Load the image, then store it in the imagesMap if it is not null
+        return loadImage(imageName, 0, line, spriteCache, workers).thenAccept(image ->
+        {
+            if (image != null)
+            {
+                store(imageName, new BufferedImage[] {image}, line);
+            }
+        });
     }
 
     /**
-     * Load a sequence of images from the line and store it in the imagesMap.
+     * Start loading a sequence of images from the line, and store it in the imagesMap once every image in
+     * the sequence is loaded. The images of the sequence are loaded in parallel.
      * @param line The line containing the sequence of images.
-     * @return True or false (success or fail)
+     * @param imageNames The names of the images stored or being loaded, the new name is added to it.
+     * @param spriteCache The cache the images are read from if it holds them, may be null.
+     * @param workers The worker threads that load the images.
+     * @return A future that completes once the sequence is stored, or null if the name is already used.
      */
-    private boolean loadImageSequence(String line)
+    private CompletableFuture<Void> loadImageSequence(String line, HashSet<String> imageNames, SpriteCache spriteCache,
+                                                      ExecutorService workers)
     {
         //Get the image name
-        String imageName = line.substring(1, line.indexOf(':')); //Skip the first open bracket
+        String imageName = getImageName(line);
 
         //Check that the imagesMap does not already contain this file or one using this name
-        if (imagesMap.containsKey(imageName))
+        if (!imageNames.add(imageName))
         {
             System.out.println("ImagesMap already contains: " + imageName);
-            return false;
+            return null;
         }
 
-        //Split the line into an array of strings using the commas
-        line = line.substring(line.indexOf(":") + 1, line.indexOf("]"));
-        line = line.trim();
-        String[] lines = line.split(",");
+        //Split the line into the files of the images
+        String files = line.substring(line.indexOf(":") + 1, line.indexOf("]")).trim();
+        String[] lines = getFileNames(line);
 
         //Load the images
-        ArrayList<BufferedImage> imageList = new ArrayList<>();
-        BufferedImage loadedImage;
+        ArrayList<CompletableFuture<BufferedImage>> imageFutures = new ArrayList<>();
         for (int i = 0; i < lines.length; i++)
         {
-            //Load the image and store it in the imageList
-            loadedImage = loadImage(lines[i].trim()); //Trim whitespace off the lines
+            imageFutures.add(loadImage(imageName, i, lines[i], spriteCache, workers));
+        }
 
-            //Check that the image is not null
-            if (loadedImage != null)
-            {
-                imageList.add(loadedImage);
-            }
-            else //Do not load any more images if a single image was null
+        //Store the sequence once every image is loaded, the sequence is not stored if a single image was null
+        return CompletableFuture.allOf(imageFutures.toArray(new CompletableFuture<?>[0])).thenRun(() ->
+        {
+            BufferedImage[] images = new BufferedImage[imageFutures.size()];
+            for (int i = 0; i < images.length; i++)
             {
-                return false;
+                images[i] = imageFutures.get(i).join();
+                if (images[i] == null)
+                {
+                    return;
+                }
             }
-        }
+            store(imageName, images, files);
+        });
+    }
 
-        //Put the image sequence in the imageMap
+    /**
+     * Store a loaded single image or sequence of images in the imagesMap, and the collision mask of each
+     * image in the masksMap. The masks are stored first, so any image that can be found has a mask. The
+     * images are given a handle last, once they can be found by name.
+     * @param imageName The key/name of the images.
+     * @param images The images, in the order they appeared in the file.
+     * @param line The files the images were loaded from, as they appeared in the file.
+     */
+    private void store(String imageName, BufferedImage[] images, String line)
+    {
+        ArrayList<BufferedImage> imageList = new ArrayList<>();
+        ArrayList<CollisionMask> maskList = new ArrayList<>();
+        for (BufferedImage image : images)
+        {
+            imageList.add(image);
+            maskList.add(CollisionMask.fromImage(image));
+        }
+        masksMap.put(imageName, maskList);
         imagesMap.put(imageName, imageList);
+
+        //Give the images a handle, frameImages is copied so a reader never sees it half updated
+        synchronized (handlesMap)
+        {
+            Integer handle = handlesMap.get(imageName);
+            int newHandle = (handle != null) ? handle : frameImages.length;
+            BufferedImage[][] newFrameImages = Arrays.copyOf(frameImages, Math.max(frameImages.length, newHandle + 1));
+            newFrameImages[newHandle] = images.clone();
+            frameImages = newFrameImages;
+            handlesMap.put(imageName, newHandle);
+        }
         System.out.println("Stored " + imageName + " [" + line + "]");
-        return true;
+    }
+
+    /**
+     * Start loading the specified image from the line on one of the worker threads.
+     * @param imageName The name of the single image or sequence the image belongs to.
+     * @param frame The index of the image in its sequence, 0 for a single image.
+     * @param line The line containing the file to be loaded.
+     * @param spriteCache The cache the image is read from if it holds it, may be null.
+     * @param workers The worker threads that load the image.
+     * @return A future that completes with the new managed BufferedImage, or null on failure.
+     */
+    private CompletableFuture<BufferedImage> loadImage(String imageName, int frame, String line,
+                                                       SpriteCache spriteCache, ExecutorService workers)
+    {
+        numImagesRequested.incrementAndGet();
+        return CompletableFuture.supplyAsync(() ->
+        {
+            BufferedImage image = loadImage(imageName, frame, line, spriteCache);
+            numImagesLoaded.incrementAndGet();
+            return image;
+        }, workers);
     }
 
     /**
      * Loads the specified image from the line and ensures the image becomes a managed image
-     * using the computer's graphics configuration.
+     * using the computer's graphics configuration. The image is read from the sprite cache if it holds it,
+     * otherwise it is decoded. This is safe to call from several threads at once.
+     * @param imageName The name of the single image or sequence the image belongs to.
+     * @param frame The index of the image in its sequence, 0 for a single image.
      * @param line The line containing the file to be loaded.
+     * @param spriteCache The cache the image is read from if it holds it, may be null.
      * @return The new managed BufferedImage, or null on failure.
      */
-    private BufferedImage loadImage(String line)
+    private BufferedImage loadImage(String imageName, int frame, String line, SpriteCache spriteCache)
     {
         try
         {
+            //Read in the cached image, there is no display to copy a cached image for so it is used as it is
+            BufferedImage readImage = (spriteCache != null) ? spriteCache.getImage(imageName, frame) : null;
+            if (readImage != null && graphicsConfiguration == null)
+            {
+                return readImage;
+            }
+
             //Read in the image and store it in a new BufferedImage
-            BufferedImage readImage = ImageIO.read(getClass().getResource(directory + line));
+            if (readImage == null)
+            {
+                readImage = ImageIO.read(getClass().getResource(directory + line));
+            }
+
+            //ImageIO returns null for a file it cannot decode, such as one that is empty or half written
+            if (readImage == null)
+            {
+                System.out.println("Unable to decode image [" + line + "]");
+                return null;
+            }
 
             //Create a new copy of the image to ensure it becomes a managed image
             int transparency = readImage.getColorModel().getTransparency();
-            BufferedImage copy = graphicsConfiguration.createCompatibleImage(readImage.getWidth(),
-                    readImage.getHeight(), transparency);
+            BufferedImage copy;
+            if (graphicsConfiguration != null)
+            {
+                copy = graphicsConfiguration.createCompatibleImage(readImage.getWidth(),
+                        readImage.getHeight(), transparency);
+            }
+            else //There is no display to be compatible with
+            {
+                copy = new BufferedImage(readImage.getWidth(), readImage.getHeight(),
+                        transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            }
             //Create a graphics context to draw the image onto
             Graphics2D g2d = copy.createGraphics();
             g2d.drawImage(readImage, 0, 0, null);
@@ -221,6 +640,16 @@ public class ImageLoader
     }
 
 
+    /**
+     * Set the directory the decoded images of each file are cached in, so later launches can read them from
+     * a SpriteCache instead of decoding them. This must be set before the images are loaded.
+     * @param spriteCacheDirectory The directory, or null to decode the images every time.
+     */
+    public void setSpriteCacheDirectory(File spriteCacheDirectory)
+    {
+        this.spriteCacheDirectory = spriteCacheDirectory;
+    }
+
     /**
      * Get an image from the imagesMap using it's key/name.
      * @param key The key (name) of the image.
@@ -275,6 +704,378 @@ public class ImageLoader
         return null;
     }
 
+    /**
+     * Get the collision mask of an image from the masksMap using its key/name. The mask is built once when
+     * the image is loaded, so checking collisions never needs to read the image's pixels.
+     * @param key The key (name) of the image.
+     * @return The CollisionMask of the image or null if it does not exist.
+     */
+    public CollisionMask getMask(String key)
+    {
+        return getMask(key, 0);
+    }
+
+    /**
+     * Get the collision mask of an image belonging to a sequence of images from the masksMap using its
+     * key/name and the index of its location in the image sequence.
+     * @param key The key (name) of the image.
+     * @param index The index of the image in the sequence.
+     * @return The CollisionMask of the image or null if it does not exist.
+     */
+    public CollisionMask getMask(String key, int index)
+    {
+        //Get the mask, it only exists if the image does
+        ArrayList<CollisionMask> maskList = masksMap.get(key);
+        if (maskList == null || index < 0 || index >= maskList.size())
+        {
+            System.out.println("No mask found under '" + key + "' with index '" + index + "'");
+            return null;
+        }
+        return maskList.get(index);
+    }
+
+    /**
+     * Get the atlas the loaded sprites are packed into. The atlas is packed the first time this is called, so
+     * it must only be called once loading is done, and replaced whenever images are reloaded. The atlas is
+     * replaced as a whole, so sprites should be taken from one atlas for a whole frame.
+     * @return The TextureAtlas holding the sprites.
+     */
+    public TextureAtlas getAtlas()
+    {
+        //The atlas is only packed once, it is replaced by reloading
+        TextureAtlas currentAtlas = atlas;
+        if (currentAtlas == null)
+        {
+            synchronized (this)
+            {
+                if (atlas == null)
+                {
+                    atlas = packAtlas();
+                }
+                currentAtlas = atlas;
+            }
+        }
+        return currentAtlas;
+    }
+
+    /**
+     * Get an atlas of the sprites pre-scaled for the given scale, so drawing them at that scale is a 1:1 copy
+     * rather than scaling every sprite every frame. The atlas is built from the full size images on the calling
+     * thread the first time a scale is asked for, and built again by the reload itself whenever images are
+     * reloaded, so asking for the same scale again only reads it and it can be asked for every frame. The
+     * sprites keep their handles.
+     * @param scale The scale of the sprites, 1.0 for the sprites at their own size.
+     * @return The TextureAtlas holding the scaled sprites.
+     */
+    public TextureAtlas getAtlas(double scale)
+    {
+        //The sprites at their own size are in the atlas
+        if (scale == 1.0)
+        {
+            return getAtlas();
+        }
+
+        //Only a new scale is built here, reloading builds the scaled atlas of the reloaded images itself
+        while (true)
+        {
+            TextureAtlas currentScaledAtlas = scaledAtlas.get();
+            if (currentScaledAtlas != null && currentScaledAtlas.getScale() == scale)
+            {
+                return currentScaledAtlas;
+            }
+            TextureAtlas newScaledAtlas = packScaledAtlas(getAtlas(), scale);
+            if (scaledAtlas.compareAndSet(currentScaledAtlas, newScaledAtlas))
+            {
+                return newScaledAtlas;
+            }
+        }
+    }
+
+    /**
+     * Scale the images again after they were reloaded, if the game is scaled: the scaled atlas is built from
+     * the new atlas and published, and the full size images are scaled into scaledImages. This runs on the
+     * thread finishing the reload, so the render thread only picks up the results.
+     */
+    private void prescaleReloadedImages()
+    {
+        //Build the scaled atlas for the scale in use, unless a different scale was asked for meanwhile
+        TextureAtlas currentScaledAtlas = scaledAtlas.get();
+        while (currentScaledAtlas != null && atlas != null)
+        {
+            TextureAtlas newScaledAtlas = packScaledAtlas(atlas, currentScaledAtlas.getScale());
+            if (scaledAtlas.compareAndSet(currentScaledAtlas, newScaledAtlas))
+            {
+                break;
+            }
+            currentScaledAtlas = scaledAtlas.get();
+        }
+
+        //Scale every image too large for the atlas that is not already scaled, the ones already scaled are kept
+        TextureAtlas currentAtlas = atlas;
+        double scale;
+        synchronized (scaledImages)
+        {
+            scale = scaledImagesScale;
+        }
+        if (scale != 0.0 && scale != 1.0 && currentAtlas != null)
+        {
+            BufferedImage[][] handleImages = frameImages;
+            for (int handle = 0; handle < handleImages.length; handle++)
+            {
+                for (int i = 0; i < handleImages[handle].length; i++)
+                {
+                    if (currentAtlas.getSprite(handle, i) == null)
+                    {
+                        getImage(handle, i, scale);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Pack a scaled copy of every image in an atlas into a new atlas. The pages grow with the scale so the
+     * largest sprites still fit.
+     * @param sourceAtlas The atlas of the images to scale.
+     * @param scale The scale of the sprites.
+     * @return The new TextureAtlas.
+     */
+    private TextureAtlas packScaledAtlas(TextureAtlas sourceAtlas, double scale)
+    {
+        //Scale the images the source atlas holds, in the same order
+        BufferedImage[][] handleImages = frameImages;
+        int pageSize = Math.max(ATLAS_PAGE_SIZE, (int) Math.ceil(ATLAS_PAGE_SIZE * scale));
+        TextureAtlas newAtlas = new TextureAtlas(pageSize, graphicsConfiguration, scale);
+        Sprite[][] handleSprites = new Sprite[handleImages.length][];
+        for (int handle = 0; handle < handleImages.length; handle++)
+        {
+            handleSprites[handle] = new Sprite[handleImages[handle].length];
+            for (int i = 0; i < handleImages[handle].length; i++)
+            {
+                if (sourceAtlas.getSprite(handle, i) != null)
+                {
+                    handleSprites[handle][i] = newAtlas.add(createScaledImage(handleImages[handle][i], scale));
+                }
+            }
+        }
+        newAtlas.setSprites(handleSprites);
+        System.out.println("Packed sprites scaled by " + scale + " into " + newAtlas.getNumPages() + " atlas page(s)");
+        return newAtlas;
+    }
+
+    /**
+     * Get an image pre-scaled for the given scale, for images too large for the atlas such as the background.
+     * The scaled image is made the first time it is asked for and kept until a different scale is asked for.
+     * The images only share a lock with each other, so this never waits for the atlas to be packed.
+     * @param handle The handle of the image, or -1.
+     * @param index The index of the image in the sequence, which must be less than getNumberImages(handle).
+     * @param scale The scale of the image, 1.0 for the image at its own size.
+     * @return The scaled BufferedImage or null if the handle is -1.
+     */
+    public BufferedImage getImage(int handle, int index, double scale)
+    {
+        //The image at its own size is stored
+        BufferedImage image = getImage(handle, index);
+        if (image == null || scale == 1.0)
+        {
+            return image;
+        }
+
+        //Scale the image if it is not already scaled for this scale
+        synchronized (scaledImages)
+        {
+            if (scaledImagesScale != scale)
+            {
+                scaledImages.clear();
+                scaledImagesScale = scale;
+            }
+            BufferedImage scaledImage = scaledImages.get(image);
+            if (scaledImage == null)
+            {
+                scaledImage = createScaledImage(image, scale);
+                scaledImages.put(image, scaledImage);
+            }
+            return scaledImage;
+        }
+    }
+
+    /**
+     * Create a copy of an image scaled with bilinear interpolation, as a managed image when there is a display.
+     * @param image The image to scale.
+     * @param scale The scale of the copy.
+     * @return The scaled copy, at least 1x1.
+     */
+    public BufferedImage createScaledImage(BufferedImage image, double scale)
+    {
+        //Create the copy
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        int transparency = image.getColorModel().getTransparency();
+        BufferedImage copy;
+        if (graphicsConfiguration != null)
+        {
+            copy = graphicsConfiguration.createCompatibleImage(width, height, transparency);
+        }
+        else //There is no display to be compatible with
+        {
+            copy = new BufferedImage(width, height,
+                    transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        }
+
+        //Draw the image scaled into the copy
+        Graphics2D g2d = copy.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.drawImage(image, 0, 0, width, height, null);
+        g2d.dispose();
+        return copy;
+    }
+
+    /**
+     * Pack every stored image no larger than MAX_ATLAS_SPRITE_SIZE on either side into a new atlas. The images
+     * are packed tallest first, which wastes the least space.
+     * @return The new TextureAtlas.
+     */
+    private TextureAtlas packAtlas()
+    {
+        //List the images small enough to pack in the order they are packed
+        TextureAtlas newAtlas = new TextureAtlas(ATLAS_PAGE_SIZE, graphicsConfiguration);
+        BufferedImage[][] handleImages = frameImages;
+        Sprite[][] handleSprites = new Sprite[handleImages.length][];
+        ArrayList<Integer> handles = new ArrayList<>();
+        ArrayList<Integer> indexes = new ArrayList<>();
+        ArrayList<BufferedImage> images = new ArrayList<>();
+        ArrayList<String> imageNames = new ArrayList<>(handlesMap.keySet());
+        imageNames.sort(null);
+        for (String imageName : imageNames)
+        {
+            int handle = handlesMap.get(imageName);
+            if (handle >= handleImages.length) //Stored after the images were listed
+            {
+                continue;
+            }
+            handleSprites[handle] = new Sprite[handleImages[handle].length];
+            for (int i = 0; i < handleImages[handle].length; i++)
+            {
+                BufferedImage image = handleImages[handle][i];
+                if (image.getWidth() <= MAX_ATLAS_SPRITE_SIZE && image.getHeight() <= MAX_ATLAS_SPRITE_SIZE)
+                {
+                    handles.add(handle);
+                    indexes.add(i);
+                    images.add(image);
+                }
+            }
+        }
+        Integer[] order = new Integer[images.size()];
+        for (int i = 0; i < order.length; i++)
+        {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> -images.get(i).getHeight())
+                .thenComparingInt(i -> -images.get(i).getWidth()));
+
+        //Pack the images
+        for (int i : order)
+        {
+            handleSprites[handles.get(i)][indexes.get(i)] = newAtlas.add(images.get(i));
+        }
+        newAtlas.setSprites(handleSprites);
+        System.out.println("Packed " + images.size() + " sprites into " + newAtlas.getNumPages() + " atlas page(s)");
+        return newAtlas;
+    }
+
+    /**
+     * Get the sprite of an image in the atlas using its key/name, packing the atlas if it is not yet packed.
+     * @param key The key (name) of the image.
+     * @return The Sprite of the image or null if it does not exist or is too large for the atlas.
+     */
+    public Sprite getSprite(String key)
+    {
+        return getSprite(key, 0);
+    }
+
+    /**
+     * Get the sprite of an image belonging to a sequence of images in the atlas using its key/name and the
+     * index of its location in the image sequence, packing the atlas if it is not yet packed.
+     * @param key The key (name) of the image.
+     * @param index The index of the image in the sequence.
+     * @return The Sprite of the image or null if it does not exist or is too large for the atlas.
+     */
+    public Sprite getSprite(String key, int index)
+    {
+        //Get the sprite, it only exists if the image does and it was small enough to pack
+        int handle = getHandle(key);
+        Sprite sprite = (handle >= 0 && index >= 0 && index < getNumberImages(handle)) ? getSprite(handle, index) : null;
+        if (sprite == null)
+        {
+            System.out.println("No sprite found under '" + key + "' with index '" + index + "'");
+        }
+        return sprite;
+    }
+
+    /**
+     * Get the handle of a loaded image using its key/name. Resolving the name once and fetching the images
+     * by handle afterwards (with getImage(), getSprite(), and getNumberImages()) avoids looking up the name
+     * each frame, and never throws or prints.
+     * @param key The key (name) of the image.
+     * @return The handle of the image or -1 if it does not exist.
+     */
+    public int getHandle(String key)
+    {
+        Integer handle = handlesMap.get(key);
+        if (handle == null)
+        {
+            System.out.println("No image found under '" + key + "'");
+            return -1;
+        }
+        return handle;
+    }
+
+    /**
+     * Get an image belonging to a single image or a sequence of images using its handle and the index of its
+     * location in the image sequence.
+     * @param handle The handle of the image, or -1.
+     * @param index The index of the image in the sequence, which must be less than getNumberImages(handle).
+     * @return The BufferedImage or null if the handle is -1.
+     */
+    public BufferedImage getImage(int handle, int index)
+    {
+        return (handle < 0) ? null : frameImages[handle][index];
+    }
+
+    /**
+     * Get the sprite of an image in the atlas using its handle and the index of its location in the image
+     * sequence, packing the atlas if it is not yet packed. When drawing a whole frame, take the sprites from
+     * getAtlas() instead, so they all come from the same atlas if it is replaced part way through.
+     * @param handle The handle of the image, or -1.
+     * @param index The index of the image in the sequence.
+     * @return The Sprite or null if the handle is -1 or the image is not in the atlas.
+     */
+    public Sprite getSprite(int handle, int index)
+    {
+        return getAtlas().getSprite(handle, index);
+    }
+
+    /**
+     * Get the number of images stored for a handle, more than one means the handle is a sequence of images.
+     * @param handle The handle of the image, or -1.
+     * @return The number of images, zero if the handle is -1.
+     */
+    public int getNumberImages(int handle)
+    {
+        return (handle < 0) ? 0 : frameImages[handle].length;
+    }
+
+    /**
+     * Get how far through loading the requested images the ImageLoader is.
+     * @return The fraction of the requested images that have finished loading (0.0 - 1.0).
+     */
+    public double getLoadProgress()
+    {
+        int requested = numImagesRequested.get();
+        return requested == 0 ? 1.0 : (double) numImagesLoaded.get()/requested;
+    }
 
     /**
      * Determine whether the imagesMap contains the given key.
@@ -19,21 +19,14 @@ public class KeyManager implements KeyListener
     /** Determines if the right key was pressed */
     public boolean right;
 
-    /** A reference to the AsteroidRunPanel this KeyManager listens for */
-    private AsteroidRunPanel arPanel;
-
     /**
      * A KeyManager is used to process concurrent keyboard inputs. The manager maintains
      * a HashMap of boolean values corresponding to each relevant key. When a key is pressed/held
      * the value in the HashMap is set to true using the keyCode as the key. The value is set to
      * false when a key is released.
-     * @param arPanel The AsteroidRunPanel this KeyManager handles KeyEvents for.
      */
-    public KeyManager(AsteroidRunPanel arPanel)
+    public KeyManager()
     {
-        //Store the reference to the arPanel
-        this.arPanel = arPanel;
-
         //Create the keys map
         keys = new HashMap<>();
         keys.put(KeyEvent.VK_ESCAPE, false);
@@ -49,12 +42,29 @@ public class KeyManager implements KeyListener
         escape = keys.get(KeyEvent.VK_ESCAPE);
         left = keys.get(KeyEvent.VK_LEFT);
         right = keys.get(KeyEvent.VK_RIGHT);
+    }
 
-        //Check if escape is set to true, stop the game
+    /**
+     * Get the escape, left, and right key values from the last update as GameSimulation input bits.
+     * @return A combination of the GameSimulation.INPUT_* bits for the keys that are held.
+     */
+    public int getInput()
+    {
+        //Set a bit for every key that is held
+        int input = 0;
+        if (left)
+        {
+            input = input | GameSimulation.INPUT_LEFT;
+        }
+        if (right)
+        {
+            input = input | GameSimulation.INPUT_RIGHT;
+        }
         if (escape)
         {
-            arPanel.stopGame();
+            input = input | GameSimulation.INPUT_ESCAPE;
         }
+        return input;
     }
 
     /**
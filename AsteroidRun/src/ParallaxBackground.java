@@ -0,0 +1,230 @@
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class ParallaxBackground
+{
+    /** The part of the frame the last frame's dirty rectangles may cover before the base layer is redrawn in full */
+    private static final double MAX_DIRTY_FRACTION = 0.5;
+
+    /** The layers of the background, from the back to the front */
+    private Ribbon[] layers;
+    /** The y-coordinate position of each layer before its last update, reused for every snapshot */
+    private int[] prevYPos;
+    /** The scale the layers' images were pre-scaled for */
+    private double scale;
+
+    /** The rectangles drawn over the base layer this frame, as x, y, width, and height */
+    private int[] dirtyRects;
+    /** The number of rectangles in dirtyRects */
+    private int numDirtyRects;
+    /** The area of the rectangles in dirtyRects in pixels, overlapping areas are counted twice */
+    private long dirtyArea;
+    /** The rectangles drawn over the base layer last frame, as x, y, width, and height */
+    private int[] lastDirtyRects;
+    /** The number of rectangles in lastDirtyRects */
+    private int numLastDirtyRects;
+    /** The area of the rectangles in lastDirtyRects in pixels */
+    private long lastDirtyArea;
+
+    /** Determines whether the back buffer holds the base layer as it was drawn last frame, besides the dirty rectangles */
+    private boolean isValid;
+    /** The image the base layer was drawn from last frame */
+    private AcceleratedImage lastBaseImage;
+    /** The position the head of the base layer was drawn at last frame */
+    private int lastDrawY;
+
+    /**
+     * Create a ParallaxBackground that draws several Ribbons over each other, each moving at its own speed so
+     * the layers further back appear further away. The back layer is the base: if it is opaque, it is scrolled
+     * in place whenever the back buffer still holds the last frame. The contents of the back buffer are shifted
+     * down with copyArea and only the strip uncovered at the top is drawn from the image, along with the
+     * rectangles that were drawn over the base last frame (the sprites, the overlay, and the bands of the
+     * translucent layers), which are marked dirty as they are drawn. The layers in front of the base are drawn
+     * band by band, skipping their transparent parts, so a sparse layer costs little to draw.
+     * @param layers The layers of the background, from the back to the front.
+     * @param tickRate The number of times the background is updated each second.
+     */
+    public ParallaxBackground(Ribbon[] layers, int tickRate)
+    {
+        this.layers = layers;
+        for (int i = 0; i < layers.length; i++)
+        {
+            layers[i].setTickRate(tickRate);
+        }
+        prevYPos = new int[layers.length];
+        scale = 1.0;
+        dirtyRects = new int[64];
+        lastDirtyRects = new int[64];
+    }
+
+    /**
+     * Get the number of layers.
+     * @return The number of layers.
+     */
+    public int getNumLayers()
+    {
+        return layers.length;
+    }
+
+    /**
+     * Get a layer of the background.
+     * @param layer The index of the layer, zero for the back layer.
+     * @return The Ribbon displaying the layer.
+     */
+    public Ribbon getLayer(int layer)
+    {
+        return layers[layer];
+    }
+
+    /**
+     * Set the scale the layers' images were pre-scaled for, the background is redrawn in full on the next frame.
+     * @param scale The scale, 1.0 if the images are not scaled.
+     */
+    public void setScale(double scale)
+    {
+        this.scale = scale;
+        invalidate();
+    }
+
+    /**
+     * Update each layer by shifting it by the distance its speed covers this tick.
+     */
+    public void update()
+    {
+        for (int i = 0; i < layers.length; i++)
+        {
+            layers[i].update();
+        }
+    }
+
+    /**
+     * Get the y-coordinate position of each layer before its last update, to be copied into a GameSnapshot.
+     * @return The previous positions, the array is reused by the next call.
+     */
+    public int[] getPrevYPos()
+    {
+        for (int i = 0; i < layers.length; i++)
+        {
+            prevYPos[i] = layers[i].getPrevYPos();
+        }
+        return prevYPos;
+    }
+
+    /**
+     * Redraw the base layer in full on the next frame, because the back buffer no longer holds the last frame
+     * or something was drawn over the whole of it.
+     */
+    public void invalidate()
+    {
+        isValid = false;
+    }
+
+    /**
+     * Mark a rectangle drawn over the background this frame, so the base layer under it is drawn again
+     * after it is scrolled next frame.
+     * @param x The x-coordinate position of the rectangle.
+     * @param y The y-coordinate position of the rectangle.
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     */
+    public void markDirty(int x, int y, int width, int height)
+    {
+        if (numDirtyRects * 4 == dirtyRects.length)
+        {
+            dirtyRects = Arrays.copyOf(dirtyRects, dirtyRects.length * 2);
+        }
+        int index = numDirtyRects * 4;
+        dirtyRects[index] = x;
+        dirtyRects[index + 1] = y;
+        dirtyRects[index + 2] = width;
+        dirtyRects[index + 3] = height;
+        numDirtyRects++;
+        dirtyArea += (long) width * height;
+    }
+
+    /**
+     * Draw every layer of the background from a snapshot of the game. The base layer is scrolled in place if
+     * it is opaque, the back buffer is retained, and the last frame did not cover too much of it, otherwise it
+     * is drawn in full.
+     * @param dbGraphics The Graphics object used to draw the background.
+     * @param snapshot The GameSnapshot holding the positions of the layers.
+     * @param alpha How far the layers are between their previous and current positions (0.0 - 1.0).
+     * @param isBackBufferRetained True if the back buffer still holds the last frame drawn by this background.
+     */
+    public void draw(Graphics dbGraphics, GameSnapshot snapshot, double alpha, boolean isBackBufferRetained)
+    {
+        int panelWidth = (int) Math.round(AsteroidRunPanel.WIDTH * scale);
+        int panelHeight = (int) Math.round(AsteroidRunPanel.HEIGHT * scale);
+
+        //Start collecting this frame's dirty rectangles, the last frame's are repaired below
+        int[] swap = lastDirtyRects;
+        lastDirtyRects = dirtyRects;
+        dirtyRects = swap;
+        numLastDirtyRects = numDirtyRects;
+        lastDirtyArea = dirtyArea;
+        numDirtyRects = 0;
+        dirtyArea = 0;
+
+        //Draw the base layer, scrolling the back buffer if it still holds the last frame
+        int firstLayer = 0;
+        Ribbon base = (layers.length > 0) ? layers[0] : null;
+        if (base != null && base.isOpaque())
+        {
+            //Find how far the base moved since the last frame, it may have wrapped around
+            int drawY = base.getDrawY(snapshot.getLayerPrevYPos(0), alpha);
+            int shift = drawY - lastDrawY;
+            if (shift < 0)
+            {
+                shift += base.getImageHeight();
+            }
+
+            if (isValid && isBackBufferRetained && base.getImage() == lastBaseImage && shift < panelHeight
+                    && lastDirtyArea <= MAX_DIRTY_FRACTION * panelWidth * panelHeight)
+            {
+                //Shift the last frame down and draw the strip uncovered at the top
+                if (shift > 0)
+                {
+                    dbGraphics.copyArea(0, 0, panelWidth, panelHeight - shift, 0, shift);
+                    base.drawRegion(dbGraphics, drawY, 0, 0, panelWidth, shift);
+                }
+
+                //Draw the base again under everything that was drawn over it last frame, which moved with it
+                for (int i = 0; i < numLastDirtyRects * 4; i += 4)
+                {
+                    int x = Math.max(lastDirtyRects[i], 0);
+                    int y = Math.max(lastDirtyRects[i + 1] + shift, 0);
+                    int right = Math.min(lastDirtyRects[i] + lastDirtyRects[i + 2], panelWidth);
+                    int bottom = Math.min(lastDirtyRects[i + 1] + shift + lastDirtyRects[i + 3], panelHeight);
+                    if (x < right && y < bottom)
+                    {
+                        base.drawRegion(dbGraphics, drawY, x, y, right - x, bottom - y);
+                    }
+                }
+            }
+            else //Draw the whole base layer
+            {
+                base.drawRegion(dbGraphics, drawY, 0, 0, panelWidth, panelHeight);
+            }
+            lastDrawY = drawY;
+            lastBaseImage = base.getImage();
+            isValid = true;
+            firstLayer = 1;
+        }
+        else //Nothing covers the last frame, clear it
+        {
+            dbGraphics.setColor(Color.BLACK);
+            dbGraphics.fillRect(0, 0, panelWidth, panelHeight);
+            lastBaseImage = null;
+        }
+
+        //Draw the layers in front of the base, marking the bands they cover
+        for (int i = firstLayer; i < layers.length; i++)
+        {
+            layers[i].drawBands(dbGraphics, layers[i].getDrawY(snapshot.getLayerPrevYPos(i), alpha), this);
+        }
+    }
+}
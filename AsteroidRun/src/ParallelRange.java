@@ -0,0 +1,72 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class ParallelRange extends RecursiveAction
+{
+    /** The version of this class, tasks are never serialized but RecursiveAction is Serializable */
+    private static final long serialVersionUID = 1L;
+
+    /** The first chunk this task runs */
+    private int fromChunk;
+    /** The chunk after the last chunk this task runs */
+    private int toChunk;
+    /** The action run for each chunk, given the chunk's number */
+    private IntConsumer chunkAction;
+
+    /**
+     * Create a ParallelRange task that runs an action for each chunk in a range, splitting the range in half
+     * until each task has a single chunk so idle threads in the pool can steal the halves.
+     * @param fromChunk The first chunk to run.
+     * @param toChunk The chunk after the last chunk to run.
+     * @param chunkAction The action run for each chunk, given the chunk's number.
+     */
+    private ParallelRange(int fromChunk, int toChunk, IntConsumer chunkAction)
+    {
+        this.fromChunk = fromChunk;
+        this.toChunk = toChunk;
+        this.chunkAction = chunkAction;
+    }
+
+    /**
+     * Run an action for every chunk from zero up to (but not including) the number of chunks, and wait for them
+     * all to finish. The chunks run across the threads of the pool, so each chunk must only change its own part
+     * of any shared state. Without a pool, or with a single chunk, the chunks run in order on the calling thread.
+     * @param forkJoinPool The pool to run the chunks on, or null to run them on the calling thread.
+     * @param numChunks The number of chunks.
+     * @param chunkAction The action run for each chunk, given the chunk's number.
+     */
+    public static void run(ForkJoinPool forkJoinPool, int numChunks, IntConsumer chunkAction)
+    {
+        //Run the chunks in order if there is nothing to split
+        if (forkJoinPool == null || numChunks <= 1)
+        {
+            for (int chunk = 0; chunk < numChunks; chunk++)
+            {
+                chunkAction.accept(chunk);
+            }
+            return;
+        }
+
+        //Split the chunks across the pool
+        forkJoinPool.invoke(new ParallelRange(0, numChunks, chunkAction));
+    }
+
+    /**
+     * Run the chunk if there is only one, otherwise split the range in half and run both halves.
+     */
+    protected void compute()
+    {
+        if (toChunk - fromChunk == 1)
+        {
+            chunkAction.accept(fromChunk);
+            return;
+        }
+        int middleChunk = (fromChunk + toChunk) >>> 1;
+        invokeAll(new ParallelRange(fromChunk, middleChunk, chunkAction), new ParallelRange(middleChunk, toChunk, chunkAction));
+    }
+}
@@ -0,0 +1,178 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class ReplayPlayer
+{
+    /** The name of the replay file to play */
+    private String fileName;
+
+    /** The number of ticks played so far */
+    private long numTicks;
+    /** The GameSimulation the replay was played on, null before it is played */
+    private GameSimulation gameSimulation;
+
+    /**
+     * Create a ReplayPlayer that plays back a game recorded by ReplayRecorder. The game is created again from
+     * the seed in the file and stepped with the recorded input as fast as possible without a display. After
+     * every tick the state of the game is added to a hash, which is compared with the hash recorded at the end
+     * of each block, so a replay that plays out differently from the recorded game is caught within
+     * ReplayRecorder.TICKS_PER_BLOCK ticks of where it diverged.
+     * @param fileName The name of the replay file to play.
+     */
+    public ReplayPlayer(String fileName)
+    {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Play the replay from start to finish, stopping early if it diverges from the recorded game.
+     * @return True or false (true if every hash matched the recorded game).
+     */
+    public boolean play()
+    {
+        try
+        {
+            //Open the file and check it is a replay this player understands
+            DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)));
+            if (inputStream.readInt() != ReplayRecorder.MAGIC)
+            {
+                System.out.println("Not a replay file: " + fileName);
+                inputStream.close();
+                return false;
+            }
+            int version = inputStream.readInt();
+            if (version != ReplayRecorder.VERSION)
+            {
+                System.out.println("Unsupported replay version: " + version + " in file: " + fileName);
+                inputStream.close();
+                return false;
+            }
+
+            //Create the game from the header, it must start in the same state as the recorded game
+            long seed = inputStream.readLong();
+            int numInitialAsteroids = inputStream.readInt();
+            long tickPeriod = inputStream.readLong();
+            boolean invulnerable = inputStream.readBoolean();
+            long stateHash = inputStream.readLong();
+            HeadlessRunner headlessRunner = new HeadlessRunner((int) Math.max(1L, 1000000000L/tickPeriod));
+            gameSimulation = headlessRunner.createSimulation(numInitialAsteroids, seed, tickPeriod);
+            gameSimulation.setInvulnerable(invulnerable);
+            System.out.println("Playing replay: " + fileName + " with seed: " + seed);
+            if (gameSimulation.getStateHash() != stateHash)
+            {
+                System.out.println("Replay diverged before the first tick, the images may have changed since it was recorded");
+                inputStream.close();
+                return false;
+            }
+
+            //Step the game with the input of each block and check the state it ends in
+            byte[] blockInputs = new byte[(ReplayRecorder.TICKS_PER_BLOCK * ReplayRecorder.BITS_PER_TICK + 7)/8];
+            long startTime = System.nanoTime();
+            while (true)
+            {
+                //Read the next block, the file ends after the last block
+                int numBlockTicks;
+                try
+                {
+                    numBlockTicks = inputStream.readUnsignedShort();
+                }
+                catch (EOFException e)
+                {
+                    break;
+                }
+                inputStream.readFully(blockInputs, 0, (numBlockTicks * ReplayRecorder.BITS_PER_TICK + 7)/8);
+                long recordedHash = inputStream.readLong();
+
+                //Unpack and step the input of each tick
+                long firstTick = numTicks;
+                for (int tick = 0; tick < numBlockTicks; tick++)
+                {
+                    int input = 0;
+                    int bit = tick * ReplayRecorder.BITS_PER_TICK;
+                    for (int i = 0; i < ReplayRecorder.BITS_PER_TICK; i++, bit++)
+                    {
+                        if ((blockInputs[bit >>> 3] & (1 << (bit & 7))) != 0)
+                        {
+                            input = input | (1 << i);
+                        }
+                    }
+                    gameSimulation.step(input);
+                    stateHash = GameSimulation.hashState(stateHash, gameSimulation.getStateHash());
+                    numTicks++;
+                }
+
+                //Stop at the first block that does not match
+                if (stateHash != recordedHash)
+                {
+                    System.out.println("Replay diverged between tick " + firstTick + " and tick " + numTicks);
+                    inputStream.close();
+                    return false;
+                }
+            }
+            long elapsedTime = System.nanoTime() - startTime;
+            inputStream.close();
+
+            //Report the results
+            System.out.println("Replayed " + numTicks + " ticks in " + (elapsedTime/1000000L) + "ms (" +
+                    (long) (numTicks/Math.max(elapsedTime/1000000000.0, 1e-9)) + " ticks/sec), every hash matched");
+            System.out.println("Game time: " + gameSimulation.getTimeSpentInGame() + " secs, lives remaining: " +
+                    gameSimulation.getLivesRemaining() + (gameSimulation.isGameOver() ? ", game over" : ""));
+            return true;
+        }
+        catch (IOException e)
+        {
+            System.out.println("Error reading replay file: " + fileName + " " + e);
+            return false;
+        }
+    }
+
+    /**
+     * Get the number of ticks played so far.
+     * @return The number of ticks.
+     */
+    public long getNumTicks()
+    {
+        return numTicks;
+    }
+
+    /**
+     * Get the GameSimulation the replay was played on, which is left in the state the replay ended in.
+     * @return The GameSimulation, or null before the replay is played.
+     */
+    public GameSimulation getGameSimulation()
+    {
+        return gameSimulation;
+    }
+
+    /**
+     * Play back a replay file headless, for reproducing a recorded game and repeatable performance runs.
+     * The first command line argument is the name of the replay file. The process exits with status 1 if
+     * the replay diverged from the recorded game or could not be read.
+     * @param args The name of the replay file.
+     */
+    public static void main(String[] args)
+    {
+        //There is no display, make sure AWT never looks for one
+        System.setProperty("java.awt.headless", "true");
+
+        //Check for command line arguments
+        if (args.length < 1)
+        {
+            System.out.println("Usage: ReplayPlayer <replay file>\nPlease enter the name of a replay file.  Exiting...");
+            System.exit(0);
+        }
+
+        //Play the replay
+        if (!new ReplayPlayer(args[0]).play())
+        {
+            System.exit(1);
+        }
+    }
+}
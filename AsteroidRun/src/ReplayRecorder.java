@@ -0,0 +1,173 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class ReplayRecorder
+{
+    /** The first four bytes of every replay file ("ARRP") */
+    public static final int MAGIC = 0x41525250;
+    /** The version of the replay file format, 2 since everything moves at a speed per second rather than per tick */
+    public static final int VERSION = 2;
+    /** The number of bits recorded for each tick, one for each of the GameSimulation.INPUT_* bits */
+    public static final int BITS_PER_TICK = 3;
+    /** The number of ticks in each block of the file, every block ends with the hash of the state after it */
+    public static final int TICKS_PER_BLOCK = 256;
+
+    /** The stream the replay is written to, null once the recorder is closed or writing fails */
+    private DataOutputStream outputStream;
+    /** The name of the file the replay is written to */
+    private String fileName;
+    /** The GameSimulation being recorded */
+    private GameSimulation gameSimulation;
+
+    /** The input of each tick in the current block, packed BITS_PER_TICK bits per tick */
+    private byte[] blockInputs;
+    /** The number of ticks recorded in the current block */
+    private int numBlockTicks;
+    /** The hash of the state after every tick recorded so far, each tick's hash added to the last */
+    private long stateHash;
+    /** The number of ticks recorded so far */
+    private long numTicks;
+
+    /**
+     * Create a ReplayRecorder that records a game to a file so it can be played back exactly by ReplayPlayer.
+     * Every random choice in the game comes from its seed, so only the seed and the keys held on each tick are
+     * needed to play it again. The file starts with a header holding the seed and the other settings the game
+     * was created with, followed by blocks of TICKS_PER_BLOCK ticks. Each block holds its number of ticks, the
+     * input of every tick packed into BITS_PER_TICK bits, and a hash of the state after every tick in the game
+     * so far, which the player uses to check the replay has not diverged. A block is written as soon as it is
+     * full, so a game that crashes still leaves a replay of all but its last few ticks. If the file cannot be
+     * written the error is printed and the game is not recorded.
+     * @param fileName The name of the file to write.
+     * @param gameSimulation The GameSimulation to record, which must not have been stepped yet.
+     */
+    public ReplayRecorder(String fileName, GameSimulation gameSimulation)
+    {
+        //Store the fileName and gameSimulation, then create the block
+        this.fileName = fileName;
+        this.gameSimulation = gameSimulation;
+        blockInputs = new byte[(TICKS_PER_BLOCK * BITS_PER_TICK + 7)/8];
+        stateHash = gameSimulation.getStateHash();
+
+        //Write the header, the state before the first tick checks the game was set up the same way
+        try
+        {
+            outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)));
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(VERSION);
+            outputStream.writeLong(gameSimulation.getSeed());
+            outputStream.writeInt(gameSimulation.getNumInitialAsteroids());
+            outputStream.writeLong(gameSimulation.getTickPeriod());
+            outputStream.writeBoolean(gameSimulation.isInvulnerable());
+            outputStream.writeLong(stateHash);
+            System.out.println("Recording replay to: " + fileName + " with seed: " + gameSimulation.getSeed());
+        }
+        catch (IOException e)
+        {
+            System.out.println("Error writing replay file: " + fileName + " " + e);
+            outputStream = null;
+        }
+    }
+
+    /**
+     * Record a tick that has just been stepped. The input is packed into the current block along with the
+     * state it left the game in, and the block is written once it is full.
+     * @param input The input the tick was stepped with, a combination of the GameSimulation.INPUT_* bits.
+     */
+    public void record(int input)
+    {
+        //Nothing is recorded once the recorder is closed
+        if (outputStream == null)
+        {
+            return;
+        }
+
+        //Pack the input bits into the block
+        int bit = numBlockTicks * BITS_PER_TICK;
+        for (int i = 0; i < BITS_PER_TICK; i++, bit++)
+        {
+            if ((input & (1 << i)) != 0)
+            {
+                blockInputs[bit >>> 3] |= 1 << (bit & 7);
+            }
+        }
+        numBlockTicks++;
+        numTicks++;
+
+        //Add the state after the tick to the hash, then write the block if it is full
+        stateHash = GameSimulation.hashState(stateHash, gameSimulation.getStateHash());
+        if (numBlockTicks == TICKS_PER_BLOCK)
+        {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Write the current block to the file and start a new one.
+     */
+    private void writeBlock()
+    {
+        try
+        {
+            outputStream.writeShort(numBlockTicks);
+            outputStream.write(blockInputs, 0, (numBlockTicks * BITS_PER_TICK + 7)/8);
+            outputStream.writeLong(stateHash);
+            outputStream.flush();
+        }
+        catch (IOException e)
+        {
+            System.out.println("Error writing replay file: " + fileName + " " + e);
+            outputStream = null;
+        }
+
+        //Start a new block
+        Arrays.fill(blockInputs, (byte) 0);
+        numBlockTicks = 0;
+    }
+
+    /**
+     * Write the last block, which may not be full, and close the file. Nothing more is recorded after this.
+     */
+    public void close()
+    {
+        //Nothing to close if the file was never opened or writing failed
+        if (outputStream == null)
+        {
+            return;
+        }
+
+        //Write the last block and close the file
+        if (numBlockTicks > 0)
+        {
+            writeBlock();
+        }
+        try
+        {
+            if (outputStream != null)
+            {
+                outputStream.close();
+                System.out.println("Recorded " + numTicks + " ticks to replay: " + fileName);
+            }
+        }
+        catch (IOException e)
+        {
+            System.out.println("Error writing replay file: " + fileName + " " + e);
+        }
+        outputStream = null;
+    }
+
+    /**
+     * Get the number of ticks recorded so far.
+     * @return The number of ticks.
+     */
+    public long getNumTicks()
+    {
+        return numTicks;
+    }
+}
@@ -1,79 +1,404 @@
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
 /**
  * @author Logan Karstetter
  * Date: 02/11/2018
  */
 public class Ribbon
 {
+    /** The height of the bands a translucent image is split into, each band is only drawn where it has pixels */
+    private static final int BAND_HEIGHT = 16;
+
     /** The x-coordinate position of the ribbon */
     private int xPos = 0;
     /** The y-coordinate position of the ribbon */
     private int yPos = 0;
+    /** The y-coordinate position of the ribbon before the last update */
+    private int prevYPos = 0;
 
     /** The width of the ribbon */
     private int width;
-    /** The height of the ribbon */
-    private int height;
+    /** The height of the ribbon, replaced on the render thread and read by the thread updating the ribbon */
+    private volatile int height;
 
-    /** The number of pixels the ribbon moves vertically each game update */
-    private int step;
+    /** The number of pixels the ribbon moves vertically each second */
+    private int speed;
+    /** The number of updates each second, the speed is per update until it is set */
+    private int tickRate = 1;
+    /** The number of updates so far, used to find the whole pixels moved by each update */
+    private long numUpdates;
 
     /** The image displayed by this ribbon */
-    private BufferedImage image;
+    private AcceleratedImage image;
+    /** The scale the image was pre-scaled for, the ribbon itself moves in unscaled pixels */
+    private double scale = 1.0;
+    /** The opacity the image is drawn with (0.0 - 1.0) */
+    private float opacity;
+
+    /** The x-coordinate position of the first pixel that is not fully transparent in each band of the image */
+    private int[] bandMinX;
+    /** The x-coordinate position after the last pixel that is not fully transparent in each band of the image */
+    private int[] bandMaxX;
+    /** Determines whether the ribbon covers the whole panel without letting anything behind it show through */
+    private boolean isOpaque;
 
     /**
      * Create a ribbon used to display and shift an image by a set interval each update.
      * @param image The image to be displayed and consequently shifted with each update.
+     * @param speed The number of pixels the image moves each second.
+     */
+    public Ribbon(BufferedImage image, int speed)
+    {
+        this(new AcceleratedImage("Ribbon", image, null), speed);
+    }
+
+    /**
+     * Create a ribbon used to display and shift an image by a set interval each update. The image
+     * may be kept in video memory, in which case it is revalidated each time it is drawn.
+     * @param image The image to be displayed and consequently shifted with each update.
+     * @param speed The number of pixels the image moves each second.
      */
-    public Ribbon(BufferedImage image, int step)
+    public Ribbon(AcceleratedImage image, int speed)
     {
-        //Store the image and step value
+        this(image, speed, 1.0f);
+    }
+
+    /**
+     * Create a ribbon used as one layer of a ParallaxBackground. A ribbon whose image is opaque and fills the
+     * panel can be drawn one region at a time, anything else is drawn over the layers behind it one band of
+     * rows at a time, skipping the fully transparent parts of each band.
+     * @param image The image to be displayed and consequently shifted with each update.
+     * @param speed The number of pixels the image moves each second, a layer further back moves more slowly.
+     * @param opacity The opacity the image is drawn with (0.0 - 1.0).
+     */
+    public Ribbon(AcceleratedImage image, int speed, float opacity)
+    {
+        //Store the image, speed, and opacity
         this.image = image;
-        this.step = step;
+        this.speed = speed;
+        this.opacity = opacity;
 
         //Get the width and height of the image
         width = image.getWidth();
         height = image.getHeight();
+        findBands();
     }
 
     /**
-     * Update the ribbon by shifting the image by its step amount.
+     * Create a ribbon that draws pixels it generates itself rather than an image, such as a Starfield. The
+     * ribbon is opaque and covers the panel, and draws its rows with copyRows().
+     * @param speed The number of pixels the ribbon moves each second.
+     * @param height The height of the ribbon in unscaled pixels, its position wraps around at this height.
+     */
+    protected Ribbon(int speed, int height)
+    {
+        this.speed = speed;
+        this.height = height;
+        width = AsteroidRunPanel.WIDTH;
+        opacity = 1.0f;
+        isOpaque = true;
+    }
+
+    /**
+     * Set the number of times the ribbon is updated each second, so it moves at its speed whatever the tick rate.
+     * @param tickRate The number of updates each second.
+     */
+    public void setTickRate(int tickRate)
+    {
+        this.tickRate = Math.max(1, tickRate);
+    }
+
+    /**
+     * Update the ribbon by shifting the image by the whole pixels its speed covers this update.
      */
     public void update()
     {
-        //Move the image downwards, reset the position to zero once the entire image has cycled through
-        yPos = (yPos + step) % height;
+        //Store the position before the update, used to interpolate when drawing
+        prevYPos = yPos;
+        int distance = GameSimulation.getTickDistance(speed, numUpdates, tickRate);
+        numUpdates++;
+
+        //Move the image downwards, reset the position to zero once the entire image has cycled through. The image
+        //may have been replaced on the render thread, leaving yPos past a shorter height until it wraps here
+        yPos = (yPos + distance) % height;
+    }
+
+    /**
+     * Get the image displayed by this ribbon.
+     * @return The image, or null if the ribbon generates its own pixels.
+     */
+    public AcceleratedImage getImage()
+    {
+        return image;
+    }
+
+    /**
+     * Replace the image displayed by this ribbon, keeping its position. Used when the image is reloaded, or
+     * replaced by a copy pre-scaled for the size of the screen, which is then drawn without scaling.
+     * @param image The new image.
+     * @param scale The scale the image was pre-scaled for, 1.0 if it is not scaled.
+     */
+    public void setImage(AcceleratedImage image, double scale)
+    {
+        this.image = image;
+        this.scale = scale;
+        findBands();
+
+        //Publish the new height last, the thread updating the ribbon wraps its position against it
+        height = (int) Math.round(image.getHeight()/scale);
+    }
+
+    /**
+     * Find the part of each band of the image that is not fully transparent, and whether the ribbon is opaque.
+     */
+    private void findBands()
+    {
+        BufferedImage source = image.getSource();
+        int imageWidth = source.getWidth();
+        int imageHeight = source.getHeight();
+        int numBands = (imageHeight + BAND_HEIGHT - 1)/BAND_HEIGHT;
+        bandMinX = new int[numBands];
+        bandMaxX = new int[numBands];
+        boolean hasTranslucentPixels = false;
+
+        //Images without an alpha channel fill every band
+        if (source.getTransparency() == Transparency.OPAQUE)
+        {
+            Arrays.fill(bandMaxX, imageWidth);
+        }
+        else //Scan each row for the first and last pixels that are not fully transparent
+        {
+            int[] row = new int[imageWidth];
+            for (int band = 0; band < numBands; band++)
+            {
+                int minX = imageWidth;
+                int maxX = 0;
+                for (int y = band * BAND_HEIGHT; y < Math.min((band + 1) * BAND_HEIGHT, imageHeight); y++)
+                {
+                    source.getRGB(0, y, imageWidth, 1, row, 0, imageWidth);
+                    for (int x = 0; x < imageWidth; x++)
+                    {
+                        int pixelAlpha = row[x] >>> 24;
+                        if (pixelAlpha != 0)
+                        {
+                            minX = Math.min(minX, x);
+                            maxX = Math.max(maxX, x + 1);
+                        }
+                        if (pixelAlpha != 255)
+                        {
+                            hasTranslucentPixels = true;
+                        }
+                    }
+                }
+                bandMinX[band] = minX;
+                bandMaxX[band] = maxX;
+            }
+        }
+
+        //Only a ribbon covering the whole panel can be scrolled in place
+        isOpaque = opacity >= 1.0f && !hasTranslucentPixels && imageWidth >= Math.round(AsteroidRunPanel.WIDTH * scale)
+                && imageHeight >= Math.round(AsteroidRunPanel.HEIGHT * scale);
+    }
+
+    /**
+     * Set the scale the ribbon is drawn at. Only used by ribbons that generate their own pixels, a ribbon
+     * displaying an image is given the scale along with the pre-scaled image by setImage().
+     * @param scale The scale, 1.0 to draw the ribbon at the size of the game.
+     */
+    public void setScale(double scale)
+    {
+        this.scale = scale;
+    }
+
+    /**
+     * Get the scale the ribbon is drawn at.
+     * @return The scale.
+     */
+    public double getScale()
+    {
+        return scale;
     }
 
     /**
-     * Draw the image to the screen. When drawing the image will be in one of three different 'states'. The
-     * first state being that the image's y-coordinate position is zero. This will result in the most of the
-     * image being drawn, with the bottom cut off since the image is taller than the panel. The second case
-     * is that the image has been shifted down from y-coordinate zero, but not past the height of the panel.
-     * In this case, the bottom of the image will be drawn above the current top of the image. The last
-     * case is that the entire top of the image is offscreen, so we will only draw the bottom.
+     * Get the height of the image in the pixels it is drawn in, which may be pre-scaled. The position of the
+     * head of the image wraps around at this height.
+     * @return The height in pixels.
+     */
+    public int getImageHeight()
+    {
+        return image.getHeight();
+    }
+
+    /**
+     * Determine whether the ribbon covers the whole panel without letting anything behind it show through.
+     * @return True or false (true if the image is fully opaque, drawn fully opaque, and larger than the panel).
+     */
+    public boolean isOpaque()
+    {
+        return isOpaque;
+    }
+
+    /**
+     * Get the y-coordinate position of the ribbon before its last update.
+     * @return The previous y-coordinate position.
+     */
+    public int getPrevYPos()
+    {
+        return prevYPos;
+    }
+
+    /**
+     * Draw the image to the screen between its previous and current position.
      * @param dbGraphics The Graphics object used to draw the image.
+     * @param alpha How far the ribbon is between its previous and current position (0.0 - 1.0).
      */
-    public void draw(Graphics dbGraphics)
+    public void draw(Graphics dbGraphics, double alpha)
     {
-        //Draw the image according to the yPos
-        if (yPos == 0)
+        draw(dbGraphics, prevYPos, alpha);
+    }
+
+    /**
+     * Draw the image to the screen starting from the given previous position rather than the ribbon's own,
+     * so that a position captured in a GameSnapshot can be drawn while the ribbon keeps updating.
+     * @param dbGraphics The Graphics object used to draw the image.
+     * @param prevYPos The y-coordinate position of the ribbon before its last update.
+     * @param alpha How far the ribbon is between its previous and current position (0.0 - 1.0).
+     */
+    public void draw(Graphics dbGraphics, int prevYPos, double alpha)
+    {
+        int drawY = getDrawY(prevYPos, alpha);
+        if (isOpaque)
         {
-            //Draw the head of the image
-            dbGraphics.drawImage(image, 0, 0, AsteroidRunPanel.WIDTH, AsteroidRunPanel.HEIGHT, 0, 0, AsteroidRunPanel.WIDTH, AsteroidRunPanel.HEIGHT, null);
+            drawRegion(dbGraphics, drawY, 0, 0, (int) Math.round(AsteroidRunPanel.WIDTH * scale),
+                    (int) Math.round(AsteroidRunPanel.HEIGHT * scale));
         }
-        else if (yPos > 0 && yPos < AsteroidRunPanel.HEIGHT) //The top of the image is within the panel
+        else
         {
-            //Draw the tail of the image
-            dbGraphics.drawImage(image, 0, 0, AsteroidRunPanel.WIDTH, yPos, 0, height - yPos, AsteroidRunPanel.WIDTH, height, null);
-            //Draw the head of the image
-            dbGraphics.drawImage(image, 0, yPos, AsteroidRunPanel.WIDTH, AsteroidRunPanel.HEIGHT, 0, 0, AsteroidRunPanel.WIDTH, AsteroidRunPanel.HEIGHT - yPos, null);
+            drawBands(dbGraphics, drawY, null);
         }
-        else if (yPos >= AsteroidRunPanel.HEIGHT)
+    }
+
+    /**
+     * Get the position the head of the image is drawn at, between the ribbon's previous and current position.
+     * @param prevYPos The y-coordinate position of the ribbon before its last update.
+     * @param alpha How far the ribbon is between its previous and current position (0.0 - 1.0).
+     * @return The y-coordinate position in the pixels of the image, which may be pre-scaled.
+     */
+    public int getDrawY(int prevYPos, double alpha)
+    {
+        //Interpolate the position from the previous position at the ribbon's speed, the current position may have
+        //wrapped around, and wrap it against the height of the image being drawn in case it was replaced since the
+        //position was taken. An update moves whole pixels, so this is within a pixel of where the update ends
+        int drawY = (prevYPos + (int) Math.round(speed * alpha/tickRate)) % height;
+        return Math.min((int) Math.round(drawY * scale), getImageHeight() - 1);
+    }
+
+    /**
+     * Draw a region of the panel from an opaque image. The head of the image is drawn at drawY, so any part of
+     * the region above drawY is drawn from the tail of the image and any part below from its head. Every copy
+     * is 1:1, and nothing outside the region is touched, so an opaque layer can be drawn a strip at a time.
+     * @param dbGraphics The Graphics object used to draw the image.
+     * @param drawY The y-coordinate position of the head of the image, from getDrawY().
+     * @param x The x-coordinate position of the region.
+     * @param y The y-coordinate position of the region.
+     * @param regionWidth The width of the region.
+     * @param regionHeight The height of the region.
+     */
+    public void drawRegion(Graphics dbGraphics, int drawY, int x, int y, int regionWidth, int regionHeight)
+    {
+        int imageHeight = getImageHeight();
+        int right = x + regionWidth;
+        int bottom = y + regionHeight;
+
+        //Draw the part of the region above drawY from the tail of the image
+        if (y < drawY)
+        {
+            int tailBottom = Math.min(bottom, drawY);
+            copyRows(dbGraphics, x, y, right, tailBottom, imageHeight - drawY + y);
+        }
+
+        //Draw the part of the region below drawY from the head of the image
+        if (bottom > drawY)
+        {
+            int headTop = Math.max(y, drawY);
+            copyRows(dbGraphics, x, headTop, right, bottom, headTop - drawY);
+        }
+    }
+
+    /**
+     * Copy a rectangle of the image onto the screen 1:1.
+     * @param dbGraphics The Graphics object used to draw the image.
+     * @param x The x-coordinate position of the left of the rectangle, on the screen and in the image.
+     * @param y The y-coordinate position of the top of the rectangle on the screen.
+     * @param right The x-coordinate position after the right of the rectangle.
+     * @param bottom The y-coordinate position after the bottom of the rectangle on the screen.
+     * @param sourceY The y-coordinate position of the top of the rectangle in the image.
+     */
+    protected void copyRows(Graphics dbGraphics, int x, int y, int right, int bottom, int sourceY)
+    {
+        //Get the image to draw, this revalidates the image if it is held in video memory
+        dbGraphics.drawImage(image.validate(), x, y, right, bottom, x, sourceY, right, sourceY + bottom - y, null);
+    }
+
+    /**
+     * Draw the image over what is already on the screen with the ribbon's opacity, one band of rows at a
+     * time. Only the part of each band between its first and last visible pixel is drawn, and the image
+     * repeats down the panel if it is shorter than the panel.
+     * @param dbGraphics The Graphics object used to draw the image.
+     * @param drawY The y-coordinate position of the head of the image, from getDrawY().
+     * @param background The ParallaxBackground to mark each drawn band dirty in, or null.
+     */
+    public void drawBands(Graphics dbGraphics, int drawY, ParallaxBackground background)
+    {
+        //A ribbon generating its own pixels covers the panel
+        int panelHeight = (int) Math.round(AsteroidRunPanel.HEIGHT * scale);
+        if (image == null)
+        {
+            int panelWidth = (int) Math.round(AsteroidRunPanel.WIDTH * scale);
+            drawRegion(dbGraphics, drawY, 0, 0, panelWidth, panelHeight);
+            if (background != null)
+            {
+                background.markDirty(0, 0, panelWidth, panelHeight);
+            }
+            return;
+        }
+
+        //Get the image to draw, this revalidates the image if it is held in video memory
+        Image image = this.image.validate();
+        int imageHeight = this.image.getHeight();
+
+        //Draw with the ribbon's opacity
+        Graphics2D g2d = (Graphics2D) dbGraphics;
+        Composite composite = g2d.getComposite();
+        if (opacity < 1.0f)
+        {
+            g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, opacity));
+        }
+
+        //Draw every copy of each band that is on the panel, the head of the image is at drawY
+        for (int band = 0; band < bandMinX.length; band++)
         {
-            //Draw the tail of the image
-            dbGraphics.drawImage(image, 0, 0, AsteroidRunPanel.WIDTH, yPos, 0, height - yPos, AsteroidRunPanel.WIDTH, height, null);
+            int minX = bandMinX[band];
+            int maxX = bandMaxX[band];
+            if (minX >= maxX)
+            {
+                continue;
+            }
+            int bandY = band * BAND_HEIGHT;
+            int bandHeight = Math.min(BAND_HEIGHT, imageHeight - bandY);
+            for (int screenY = bandY + drawY - imageHeight; screenY < panelHeight; screenY += imageHeight)
+            {
+                if (screenY + bandHeight > 0)
+                {
+                    g2d.drawImage(image, minX, screenY, maxX, screenY + bandHeight, minX, bandY, maxX, bandY + bandHeight, null);
+                    if (background != null)
+                    {
+                        background.markDirty(minX, screenY, maxX - minX, bandHeight);
+                    }
+                }
+            }
         }
+        g2d.setComposite(composite);
     }
 }
@@ -7,6 +7,8 @@ public class SequencePlayer
 {
     /** The name of the image sequence */
     private String imageSequenceName;
+    /** The handle of the image sequence in the imageLoader, resolved once so drawing never looks up the name */
+    private int imageSequenceHandle;
     /** The number of images in the sequence */
     private int numImages;
     /** The current index of the image to be display in the sequence */
@@ -42,8 +44,9 @@ public class SequencePlayer
         //Set up the player
         if (imageLoader.imageExists(imageSequenceName))
         {
-            //Get the number of times and calculate the imageDuration
-            numImages = imageLoader.getNumberImages(imageSequenceName);
+            //Get the handle and number of images, and calculate the imageDuration
+            imageSequenceHandle = imageLoader.getHandle(imageSequenceName);
+            numImages = imageLoader.getNumberImages(imageSequenceHandle);
             sequenceIndex = 0;
             imageDuration = (int) (totalDuration * 1000)/numImages; //totalDuration secs -> ms
             elapsedTime = 0L;
@@ -51,6 +54,7 @@ public class SequencePlayer
         else //The requested sequence does not exist
         {
             System.out.println("No image sequence found under '" + imageSequenceName + "'");
+            imageSequenceHandle = -1;
             numImages = 0;
         }
     }
@@ -66,13 +70,33 @@ public class SequencePlayer
      */
     public void update()
     {
+        //Pick up the number of images again, the sequence may have been reloaded with more or fewer images
+        if (imageSequenceHandle >= 0)
+        {
+            int currentNumImages = imageLoader.getNumberImages(imageSequenceHandle);
+            if (currentNumImages != numImages && currentNumImages > 0)
+            {
+                numImages = currentNumImages;
+                imageDuration = (int) (totalDuration * 1000)/numImages; //totalDuration secs -> ms
+            }
+        }
+
         //This method is called every loopPeriod milliseconds
         //Add the loopPeriod time, return to zero if the totalDuration is reached
         elapsedTime = (long) ((elapsedTime + loopPeriod) % (totalDuration * 1000)); //totalDuration secs -> ms
 
         //Determine which image to display, elapsed time is the total time elapsed in this sequence thus far
         //For example, if elapsed time is 1000ms and image duration is 500ms, then image 2 will be displayed
-        sequenceIndex = (int) (elapsedTime/imageDuration);
+        sequenceIndex = Math.min((int) (elapsedTime/imageDuration), Math.max(numImages - 1, 0));
+    }
+
+    /**
+     * Get the index of the current image to be displayed in the sequence.
+     * @return The index of the current image.
+     */
+    public int getSequenceIndex()
+    {
+        return sequenceIndex;
     }
 
     /**
@@ -81,10 +105,10 @@ public class SequencePlayer
      */
     public BufferedImage getCurrentImage()
     {
-        //Make sure there are actually images to retrieve
-        if (numImages != 0)
+        //Make sure there are actually images to retrieve, the sequence may have been reloaded with fewer images
+        if (numImages != 0 && sequenceIndex < imageLoader.getNumberImages(imageSequenceHandle))
         {
-            return imageLoader.getImage(imageSequenceName, sequenceIndex);
+            return imageLoader.getImage(imageSequenceHandle, sequenceIndex);
         }
         return null;
     }
@@ -0,0 +1,68 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class SnapshotBuffer
+{
+    /** The bit set in the state when the shared snapshot was published but not yet taken */
+    private static final int FRESH = 1 << 2;
+    /** The bits of the state holding the index of the shared snapshot */
+    private static final int INDEX_MASK = FRESH - 1;
+
+    /** The three snapshots, one owned by the writer, one by the reader, and one shared between them */
+    private GameSnapshot[] snapshots;
+    /** The index of the shared snapshot along with the FRESH bit */
+    private AtomicInteger state;
+    /** The index of the snapshot being written, only used by the writer thread */
+    private int backIndex;
+    /** The index of the snapshot being read, only used by the reader thread */
+    private int frontIndex;
+
+    /**
+     * Create a SnapshotBuffer used to pass GameSnapshots from the simulation thread to the render thread
+     * without locking. This is a triple buffer: the writer fills its own snapshot and swaps it with the
+     * shared one, and the reader swaps its own snapshot with the shared one whenever a newer one has been
+     * published. Neither thread ever waits for the other, and neither ever sees a snapshot being written.
+     */
+    public SnapshotBuffer()
+    {
+        snapshots = new GameSnapshot[] {new GameSnapshot(), new GameSnapshot(), new GameSnapshot()};
+        frontIndex = 0;
+        state = new AtomicInteger(1);
+        backIndex = 2;
+    }
+
+    /**
+     * Get the snapshot the writer should fill before calling publish(). Only the writer thread may use it.
+     * @return The back snapshot.
+     */
+    public GameSnapshot getBackSnapshot()
+    {
+        return snapshots[backIndex];
+    }
+
+    /**
+     * Publish the back snapshot to the reader, the writer is given a different snapshot to fill next.
+     */
+    public void publish()
+    {
+        backIndex = state.getAndSet(backIndex | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Get the latest published snapshot. If nothing was published since the last call, the same snapshot
+     * is returned again. Only the reader thread may use the snapshot, until its next call to this method.
+     * @return The latest snapshot.
+     */
+    public GameSnapshot acquireLatest()
+    {
+        //Swap in the shared snapshot only if it is newer than the one already held
+        if ((state.get() & FRESH) != 0)
+        {
+            frontIndex = state.getAndSet(frontIndex) & INDEX_MASK;
+        }
+        return snapshots[frontIndex];
+    }
+}
@@ -1,92 +1,74 @@
-import java.awt.*;
-import java.awt.image.BufferedImage;
 /**
  * @author Logan Karstetter
  * Date: 02/11/2018
  */
 public class Spaceship
 {
+    /** The name of the sequence of images used to display the spaceship */
+    public static final String IMAGE_NAME = "Space Heavy Freighter";
+
     /** The x-coordinate position of this spaceship */
     private int xPos;
     /** The y-coordinate position of this spaceship */
     private int yPos;
+    /** The x-coordinate position of this spaceship before the last update */
+    private int prevXPos;
 
     /** The width of this spaceship in pixels */
     private int width = 10; //10 by default
     /** The height of this spaceship in pixels */
     private int height = 10;
+    /** The collision mask of this spaceship, marking the pixels of its image that can be hit */
+    private CollisionMask mask;
 
-    /** The number of pixels this ship will move in the x-direction each update */
-    private int step = 10;
-
-    /** The ImageLoader used to load and store images for this game */
-    private ImageLoader imageLoader;
-    /** The SequencePlayer used to display the animations for this spaceship */
-    private SequencePlayer sequencePlayer;
-    /** The current image used to represent the spaceship */
-    private BufferedImage image;
+    /** The number of pixels this ship moves in the x-direction each second */
+    private int speed = 100;
 
-    /** The AsteroidManager that encloses all the asteroids */
-    private AsteroidManager asteroidManager;
-    /** The KeyManager used to control the spaceship's movement for the game */
-    private KeyManager keyManager;
-    /** The AsteroidRunPanel that updates and renders this spaceship */
-    private AsteroidRunPanel asteroidRunPanel;
+    /** A reference to the GameSimulation that runs the game, which gives the distance moved each tick */
+    private GameSimulation gameSimulation;
 
     /**
-     * Create a new spaceship for a game of AsteroidRun. The inputted image name is used to load the
-     * spaceships animation sequence. The sequence player is updated using the loopPeriod of the enclosing
-     * AsteroidRunPanel. The AsteroidManager, ImageLoader, KeyManager, and AsteroidPanel are also passed
-     * to load the images, determine the direction to move the ship, and end the game if the spaceship
-     * collides with an asteroid.
-     * @param imageName The name of the stored sequence of images used to animate this spaceship.
-     * @param loopPeriod The loopPeriod of the enclosing AsteroidRunPanel, used to update the animation.
-     * @param asteroidManager The AsteroidManager that encloses all the asteroids.
-     * @param imageLoader The ImageLoader used to load images for this game.
-     * @param keyManager The KeyManager used to process key events for this game.
-     * @param asteroidRunPanel The AsteroidRunPanel that encloses the components of the game.
+     * Create a new spaceship for a game of AsteroidRun. The AsteroidManager finds the asteroids that
+     * hit the spaceship using its collision mask, which will end the game once the player runs out of lives.
+     * @param mask The collision mask of the spaceship, usually built from its image, which also gives its size.
+     * @param gameSimulation The GameSimulation that runs the game.
      */
-    public Spaceship(String imageName, long loopPeriod, AsteroidManager asteroidManager,
-                     ImageLoader imageLoader, KeyManager keyManager, AsteroidRunPanel asteroidRunPanel)
+    public Spaceship(CollisionMask mask, GameSimulation gameSimulation)
     {
-        //Store the AsteroidManager, ImageLoader, KeyManager, and AsteroidRunPanel references
-        this.asteroidManager = asteroidManager;
-        this.imageLoader = imageLoader;
-        this.keyManager = keyManager;
-        this.asteroidRunPanel = asteroidRunPanel;
-
-        //Create the SequencePlayer and store the current image
-        sequencePlayer = new SequencePlayer(imageName, 1, loopPeriod, imageLoader);
-        image = sequencePlayer.getCurrentImage();
-        width = image.getWidth();
-        height = image.getHeight();
+        //Store the mask, size, and gameSimulation
+        this.mask = mask;
+        this.gameSimulation = gameSimulation;
+        width = mask.getWidth();
+        height = mask.getHeight();
 
         //Determine the initial position
-        xPos = AsteroidRunPanel.WIDTH/2 - (width/2);
-        yPos = AsteroidRunPanel.HEIGHT - height - 50;
+        xPos = GameSimulation.WIDTH/2 - (width/2);
+        yPos = GameSimulation.HEIGHT - height - 50;
+        prevXPos = xPos;
     }
 
     /**
-     * Update the position and animation of the spaceship and check if it has run into
-     * any asteroids since the last update.
+     * Update the position of the spaceship.
+     * @param input The keys held during this update, a combination of the GameSimulation.INPUT_* bits.
      */
-    public void update()
+    public void update(int input)
     {
-        //Check if the ship has hit an asteroid
-        hasHitAsteroid(); //The asteroidManager will handle ending the game, if applicable
+        //Store the position before moving, used to interpolate when drawing
+        prevXPos = xPos;
 
-        //Update the sequencePlayer and move the ship
-        sequencePlayer.update();
-        move();
+        //Move the ship
+        move(input);
     }
 
     /**
-     * Move the spaceship left, right, or not at all depending on the state of the KeyManager.
+     * Move the spaceship left, right, or not at all depending on the keys held.
+     * @param input The keys held during this update, a combination of the GameSimulation.INPUT_* bits.
      */
-    private void move()
+    private void move(int input)
     {
         //Move the spaceship according to its position in the panel and key presses
-        if (keyManager.left) //Move left
+        int step = gameSimulation.getTickDistance(speed);
+        if ((input & GameSimulation.INPUT_LEFT) != 0) //Move left
         {
             //Make sure the ship does not move offscreen
             if (xPos - step >= 0)
@@ -98,49 +80,71 @@ public class Spaceship
                 xPos = 0;
             }
         }
-        else if (keyManager.right) //Move right
+        else if ((input & GameSimulation.INPUT_RIGHT) != 0) //Move right
         {
             //Make sure the ship does not move offscreen to the right
-            if (xPos + step <= AsteroidRunPanel.WIDTH - width)
+            if (xPos + step <= GameSimulation.WIDTH - width)
             {
                 xPos = xPos + step;
             }
             else //Move the ship as far to the right as possible
             {
-                xPos = AsteroidRunPanel.WIDTH - width;
+                xPos = GameSimulation.WIDTH - width;
             }
         }
     }
 
     /**
-     * Determine whether the spaceship has collided with any asteroids. If so the game is over and this
-     * method returns true. If not, this method will return false.
-     * @return True or false.
+     * Get the x-coordinate position of this spaceship.
+     * @return The x-coordinate.
      */
-    private boolean hasHitAsteroid()
+    public int getXPos()
     {
-        //Check if the ship has hit any asteroids, give the player some wiggle room
-        return asteroidManager.checkCollisions(new Rectangle(xPos +  25, yPos + 25, width - 25,
-                height - 25), true);
+        return xPos;
     }
 
     /**
-     * Draw the spaceship using its current image of animation. If the current image cannot be
-     * found then a placeholder red square is draw instead.
-     * @param dbGraphics The Graphics object used to draw the spaceship.
+     * Get the y-coordinate position of this spaceship.
+     * @return The y-coordinate.
      */
-    public void draw(Graphics dbGraphics)
+    public int getYPos()
     {
-        //Get the image from the sequence player
-        image = sequencePlayer.getCurrentImage();
-        if (image != null)
-        {
-            dbGraphics.drawImage(image, xPos, yPos, null);
-        }
-        else //Draw the spaceship as a red square
-        {
-            dbGraphics.setColor(Color.RED);
-            dbGraphics.fillRect(xPos, yPos, width, height);
-        }
+        return yPos;
+    }
+
+    /**
+     * Get the x-coordinate position of this spaceship before the last update.
+     * @return The previous x-coordinate.
+     */
+    public int getPrevXPos()
+    {
+        return prevXPos;
+    }
+
+    /**
+     * Get the width of this spaceship.
+     * @return The width in pixels.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Get the height of this spaceship.
+     * @return The height in pixels.
+     */
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Get the collision mask of this spaceship.
+     * @return The CollisionMask.
+     */
+    public CollisionMask getMask()
+    {
+        return mask;
     }
 }
@@ -0,0 +1,80 @@
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class Sprite
+{
+    /** The index of the TextureAtlas page holding the sprite */
+    private final int page;
+    /** The x-coordinate position of the sprite in its page */
+    private final int x;
+    /** The y-coordinate position of the sprite in its page */
+    private final int y;
+    /** The width of the sprite */
+    private final int width;
+    /** The height of the sprite */
+    private final int height;
+
+    /**
+     * Create a Sprite, a rectangle of a TextureAtlas page holding one image. Drawing a sprite copies this
+     * rectangle out of the page, so every sprite on a page is drawn from the same source image.
+     * @param page The index of the page holding the sprite.
+     * @param x The x-coordinate position of the sprite in its page.
+     * @param y The y-coordinate position of the sprite in its page.
+     * @param width The width of the sprite.
+     * @param height The height of the sprite.
+     */
+    public Sprite(int page, int x, int y, int width, int height)
+    {
+        this.page = page;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Get the index of the TextureAtlas page holding the sprite.
+     * @return The page index.
+     */
+    public int getPage()
+    {
+        return page;
+    }
+
+    /**
+     * Get the x-coordinate position of the sprite in its page.
+     * @return The x-coordinate position.
+     */
+    public int getX()
+    {
+        return x;
+    }
+
+    /**
+     * Get the y-coordinate position of the sprite in its page.
+     * @return The y-coordinate position.
+     */
+    public int getY()
+    {
+        return y;
+    }
+
+    /**
+     * Get the width of the sprite.
+     * @return The width in pixels.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Get the height of the sprite.
+     * @return The height in pixels.
+     */
+    public int getHeight()
+    {
+        return height;
+    }
+}
@@ -0,0 +1,294 @@
+import java.awt.*;
+import java.awt.color.ColorSpace;
+import java.awt.image.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class SpriteCache
+{
+    /** The first four bytes of every sprite cache file ("ARSC") */
+    private static final int MAGIC = 0x41525343;
+    /** The version of the sprite cache file format */
+    private static final int VERSION = 1;
+    /** The color model of the cached pixels, premultiplied ARGB packed into ints */
+    private static final DirectColorModel PREMULTIPLIED_ARGB = new DirectColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB),
+            32, 0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000, true, DataBuffer.TYPE_INT);
+
+    /** The file the sprites are cached in */
+    private File file;
+    /** The checksum of the source images the cache must have been built from to be used */
+    private long sourceChecksum;
+
+    /** The cache file mapped into memory, null unless the cache is open */
+    private MappedByteBuffer pixels;
+    /** The width, height, and pixel offset of each cached image, found by its name and frame (see getKey()) */
+    private HashMap<String, long[]> index;
+
+    /**
+     * Create a SpriteCache that holds decoded images in a file, so later launches can skip decoding them.
+     * The file starts with a header holding the checksum of the source images it was built from and an
+     * index of every image by its name and frame (its index in a sequence), giving its width, height, and the
+     * offset of its pixels. The pixels follow as raw premultiplied ARGB ints. The file is mapped into memory
+     * when opened, so reading an image only costs the page faults of its pixels. If the checksum in the file
+     * does not match the source images, or the file is missing or damaged, the cache is not used and is
+     * written again once the images have been decoded.
+     * @param file The file the sprites are cached in.
+     * @param sourceChecksum The checksum of the source images the cache must have been built from.
+     */
+    public SpriteCache(File file, long sourceChecksum)
+    {
+        this.file = file;
+        this.sourceChecksum = sourceChecksum;
+    }
+
+    /**
+     * Open the cache file and read its index, if it was built from the same source images.
+     * @return True or false (true if the cache can be used).
+     */
+    public boolean open()
+    {
+        //There is nothing to open until the cache has been written
+        if (!file.isFile())
+        {
+            return false;
+        }
+
+        //Map the file, the mapping stays valid after the channel is closed
+        try
+        {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+            {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+
+            //Check the header, the cache is only used if it was built from the same source images
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != sourceChecksum)
+            {
+                System.out.println("Sprite cache is out of date: " + file);
+                return false;
+            }
+
+            //Read the index
+            int numImages = buffer.getInt();
+            HashMap<String, long[]> newIndex = new HashMap<>();
+            for (int i = 0; i < numImages; i++)
+            {
+                byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(name);
+                int frame = buffer.getInt();
+                long width = buffer.getInt();
+                long height = buffer.getInt();
+                long offset = buffer.getLong();
+                if (offset + width * height * 4L > buffer.capacity())
+                {
+                    System.out.println("Sprite cache is damaged: " + file);
+                    return false;
+                }
+                newIndex.put(getKey(new String(name, "UTF-8"), frame), new long[] {width, height, offset});
+            }
+            pixels = buffer;
+            index = newIndex;
+            System.out.println("Opened sprite cache: " + file + " (" + numImages + " images)");
+            return true;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            System.out.println("Error reading sprite cache: " + file + " " + e);
+            return false;
+        }
+    }
+
+    /**
+     * Determine whether the cache is open and can be read from.
+     * @return True or false.
+     */
+    public boolean isOpen()
+    {
+        return pixels != null;
+    }
+
+    /**
+     * Get an image from the cache. The pixels are copied out of the mapped file with a single bulk copy and
+     * wrapped in a DataBufferInt, so the image is ready to draw without decoding or converting anything. This
+     * is safe to call from several threads at once.
+     * @param name The name of the image.
+     * @param frame The index of the image in its sequence, 0 for a single image.
+     * @return The premultiplied ARGB image, or null if the cache is not open or does not hold the image.
+     */
+    public BufferedImage getImage(String name, int frame)
+    {
+        //Find the image in the index
+        if (pixels == null)
+        {
+            return null;
+        }
+        long[] entry = index.get(getKey(name, frame));
+        if (entry == null)
+        {
+            return null;
+        }
+        int width = (int) entry[0];
+        int height = (int) entry[1];
+
+        //Copy the pixels into an array, each thread reads through its own view of the mapping
+        int[] data = new int[width * height];
+        ByteBuffer view = pixels.duplicate();
+        view.position((int) entry[2]);
+        view.asIntBuffer().get(data);
+
+        //Wrap the pixels in an image
+        WritableRaster raster = Raster.createPackedRaster(new DataBufferInt(data, data.length), width, height, width,
+                PREMULTIPLIED_ARGB.getMasks(), null);
+        return new BufferedImage(PREMULTIPLIED_ARGB, raster, true, null);
+    }
+
+    /**
+     * Write the given images to the cache file, replacing it. The file is written to a temporary file first
+     * and then moved into place, so a launch reading the cache never sees a half written file.
+     * @param images The images to cache, each name mapped to its single image or sequence of images.
+     */
+    public void write(Map<String, ? extends List<BufferedImage>> images)
+    {
+        //List the images in the order they are written
+        ArrayList<String> names = new ArrayList<>();
+        ArrayList<Integer> frames = new ArrayList<>();
+        ArrayList<BufferedImage> frameImages = new ArrayList<>();
+        for (Map.Entry<String, ? extends List<BufferedImage>> entry : images.entrySet())
+        {
+            for (int frame = 0; frame < entry.getValue().size(); frame++)
+            {
+                names.add(entry.getKey());
+                frames.add(frame);
+                frameImages.add(entry.getValue().get(frame));
+            }
+        }
+
+        File tempFile = new File(file.getPath() + ".tmp");
+        try
+        {
+            //The header is the same length whatever the offsets are, so write it once to find where the pixels start
+            long offset = alignToInt(writeHeader(names, frames, frameImages, new long[names.size()]).length);
+            long[] offsets = new long[names.size()];
+            for (int i = 0; i < offsets.length; i++)
+            {
+                offsets[i] = offset;
+                offset = offset + frameImages.get(i).getWidth() * frameImages.get(i).getHeight() * 4L;
+            }
+            byte[] header = writeHeader(names, frames, frameImages, offsets);
+
+            //Write the header and then the premultiplied pixels of every image
+            file.getAbsoluteFile().getParentFile().mkdirs();
+            try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+            {
+                channel.write(ByteBuffer.wrap(header));
+                channel.position(alignToInt(header.length));
+                for (BufferedImage image : frameImages)
+                {
+                    int[] data = getPremultipliedPixels(image);
+                    ByteBuffer buffer = ByteBuffer.allocate(data.length * 4);
+                    buffer.asIntBuffer().put(data);
+                    while (buffer.hasRemaining())
+                    {
+                        channel.write(buffer);
+                    }
+                }
+            }
+
+            //Move the new cache into place
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Wrote sprite cache: " + file + " (" + names.size() + " images)");
+        }
+        catch (IOException e)
+        {
+            System.out.println("Error writing sprite cache: " + file + " " + e);
+        }
+        finally
+        {
+            //Remove what was written of the new cache if it was not moved into place
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Write the header of the cache file.
+     * @param names The name of each image.
+     * @param frames The index of each image in its sequence.
+     * @param images The images.
+     * @param offsets The offset in the file of the pixels of each image.
+     * @return The bytes of the header.
+     * @throws IOException If the header cannot be written.
+     */
+    private byte[] writeHeader(List<String> names, List<Integer> frames, List<BufferedImage> images, long[] offsets)
+            throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(bytes);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        header.writeLong(sourceChecksum);
+        header.writeInt(names.size());
+        for (int i = 0; i < names.size(); i++)
+        {
+            byte[] name = names.get(i).getBytes("UTF-8");
+            header.writeShort(name.length);
+            header.write(name);
+            header.writeInt(frames.get(i));
+            header.writeInt(images.get(i).getWidth());
+            header.writeInt(images.get(i).getHeight());
+            header.writeLong(offsets[i]);
+        }
+        header.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Get the pixels of an image as premultiplied ARGB ints, by drawing it into a premultiplied image.
+     * @param image The image.
+     * @return The pixels, one int per pixel in rows from the top left.
+     */
+    private static int[] getPremultipliedPixels(BufferedImage image)
+    {
+        BufferedImage premultiplied = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2d = premultiplied.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.drawImage(image, 0, 0, null);
+        g2d.dispose();
+        return ((DataBufferInt) premultiplied.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Round an offset in the file up to the next whole int, so the pixels can be read as ints.
+     * @param offset The offset.
+     * @return The aligned offset.
+     */
+    private static long alignToInt(long offset)
+    {
+        return (offset + 3) & ~3L;
+    }
+
+    /**
+     * Get the key an image is found by in the index.
+     * @param name The name of the image.
+     * @param frame The index of the image in its sequence.
+     * @return The key.
+     */
+    private static String getKey(String name, int frame)
+    {
+        return name + '#' + frame;
+    }
+}
@@ -0,0 +1,238 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class Starfield extends Ribbon
+{
+    /** The name of the background layer drawn by a Starfield rather than from an image */
+    public static final String LAYER_NAME = "Starfield";
+
+    /** The height of each tile in unscaled pixels */
+    private static final int TILE_HEIGHT = 64;
+    /** The number of tiles before the starfield repeats, about 116 hours at ten pixels per second */
+    private static final int NUM_TILES = 1 << 16;
+    /** The number of tiles kept, enough to cover the panel with a tile to spare */
+    private static final int CACHE_SIZE = AsteroidRunPanel.HEIGHT/TILE_HEIGHT + 3;
+    /** The average number of stars in each unscaled pixel */
+    private static final double STAR_DENSITY = 0.0012;
+    /** The chance of a star being bright enough to have rays */
+    private static final double BRIGHT_STAR_CHANCE = 0.02;
+
+    /** The number of brightness levels of each star colour in the palette */
+    private static final int NUM_LEVELS = 64;
+    /** The colours of the stars, each makes up NUM_LEVELS entries of the palette from black to full brightness */
+    private static final Color[] STAR_COLORS = {new Color(255, 255, 255), new Color(170, 200, 255),
+            new Color(255, 235, 170), new Color(255, 180, 150)};
+    /** The palette of every tile, index zero is black */
+    private static final IndexColorModel PALETTE = createPalette();
+
+    /** The seed every tile is generated from */
+    private long seed;
+    /** The width of each tile in the pixels it is drawn in */
+    private int tileWidth;
+    /** The height of each tile in the pixels it is drawn in */
+    private int tileHeight;
+    /** The tiles generated most recently by their index, the least recently used tile is dropped first */
+    private LinkedHashMap<Integer, BufferedImage> tiles;
+
+    /**
+     * Create a Starfield, a background layer of stars generated as it scrolls rather than drawn from an image.
+     * The starfield is split into tiles the width of the panel, each generated from the seed and its own index
+     * the first time it is drawn, so the same seed always gives the same sky and tiles dropped from the cache
+     * come back exactly the same. Only the tiles on the panel and a spare are kept, as byte indexed images
+     * sharing one palette, and the sky does not repeat for NUM_TILES tiles.
+     * @param seed The seed the stars are generated from.
+     * @param speed The number of pixels the starfield moves each second.
+     */
+    public Starfield(long seed, int speed)
+    {
+        super(speed, TILE_HEIGHT * NUM_TILES);
+        this.seed = seed;
+        tiles = new LinkedHashMap<Integer, BufferedImage>(CACHE_SIZE, 0.75f, true)
+        {
+            protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest)
+            {
+                return size() > CACHE_SIZE;
+            }
+        };
+        setScale(1.0);
+    }
+
+    /**
+     * Create the palette of the tiles, black followed by each star colour from dark to full brightness.
+     * @return The IndexColorModel.
+     */
+    private static IndexColorModel createPalette()
+    {
+        int size = STAR_COLORS.length * NUM_LEVELS;
+        byte[] reds = new byte[size];
+        byte[] greens = new byte[size];
+        byte[] blues = new byte[size];
+        for (int color = 0; color < STAR_COLORS.length; color++)
+        {
+            for (int level = 0; level < NUM_LEVELS; level++)
+            {
+                int index = color * NUM_LEVELS + level;
+                reds[index] = (byte) (STAR_COLORS[color].getRed() * level/(NUM_LEVELS - 1));
+                greens[index] = (byte) (STAR_COLORS[color].getGreen() * level/(NUM_LEVELS - 1));
+                blues[index] = (byte) (STAR_COLORS[color].getBlue() * level/(NUM_LEVELS - 1));
+            }
+        }
+        return new IndexColorModel(8, size, reds, greens, blues);
+    }
+
+    /**
+     * Set the scale the starfield is drawn at. The stars are generated at the scale rather than scaled, so the
+     * tiles generated for the last scale are dropped.
+     * @param scale The scale, 1.0 to draw the starfield at the size of the game.
+     */
+    public void setScale(double scale)
+    {
+        super.setScale(scale);
+        tileWidth = Math.max(1, (int) Math.round(AsteroidRunPanel.WIDTH * scale));
+        tileHeight = Math.max(1, (int) Math.round(TILE_HEIGHT * scale));
+        tiles.clear();
+    }
+
+    /**
+     * Get the height of the whole starfield in the pixels it is drawn in.
+     * @return The height in pixels.
+     */
+    public int getImageHeight()
+    {
+        return tileHeight * NUM_TILES;
+    }
+
+    /**
+     * Copy a rectangle of the starfield onto the screen 1:1, from each tile it crosses.
+     * @param dbGraphics The Graphics object used to draw the starfield.
+     * @param x The x-coordinate position of the left of the rectangle, on the screen and in the starfield.
+     * @param y The y-coordinate position of the top of the rectangle on the screen.
+     * @param right The x-coordinate position after the right of the rectangle.
+     * @param bottom The y-coordinate position after the bottom of the rectangle on the screen.
+     * @param sourceY The y-coordinate position of the top of the rectangle in the starfield.
+     */
+    protected void copyRows(Graphics dbGraphics, int x, int y, int right, int bottom, int sourceY)
+    {
+        while (y < bottom)
+        {
+            //Copy the rows of the rectangle inside this tile
+            int tileIndex = sourceY/tileHeight;
+            int tileY = sourceY - tileIndex * tileHeight;
+            int rows = Math.min(bottom - y, tileHeight - tileY);
+            dbGraphics.drawImage(getTile(tileIndex), x, y, right, y + rows, x, tileY, right, tileY + rows, null);
+            y += rows;
+            sourceY += rows;
+        }
+    }
+
+    /**
+     * Get a tile from the cache, generating it if it is not there.
+     * @param tileIndex The index of the tile from the head of the starfield.
+     * @return The tile.
+     */
+    private BufferedImage getTile(int tileIndex)
+    {
+        BufferedImage tile = tiles.get(tileIndex);
+        if (tile == null)
+        {
+            tile = createTile(tileIndex);
+            tiles.put(tileIndex, tile);
+        }
+        return tile;
+    }
+
+    /**
+     * Generate a tile of the starfield. The stars are placed at positions relative to the size of the tile and
+     * sized by the scale, so a tile looks the same at any scale. Each star stays inside its tile, so tiles
+     * generated separately always line up.
+     * @param tileIndex The index of the tile from the head of the starfield.
+     * @return The tile, black with the stars drawn into it.
+     */
+    private BufferedImage createTile(int tileIndex)
+    {
+        BufferedImage tile = new BufferedImage(tileWidth, tileHeight, BufferedImage.TYPE_BYTE_INDEXED, PALETTE);
+        byte[] pixels = ((DataBufferByte) tile.getRaster().getDataBuffer()).getData();
+
+        //Every tile has its own random numbers, mixed so neighbouring tiles are not alike
+        Random rng = new Random(mix(seed + tileIndex * 0x9E3779B97F4A7C15L));
+        double scale = getScale();
+        int numStars = (int) (AsteroidRunPanel.WIDTH * TILE_HEIGHT * STAR_DENSITY * (0.75 + rng.nextDouble() * 0.5));
+        int starSize = Math.max(1, (int) Math.round(scale));
+        for (int i = 0; i < numStars; i++)
+        {
+            //Most stars are faint, a few are bright enough to have rays
+            boolean isBright = rng.nextDouble() < BRIGHT_STAR_CHANCE;
+            int rayLength = isBright ? starSize * (2 + rng.nextInt(2)) : 0;
+            double brightness = rng.nextDouble();
+            int level = isBright ? NUM_LEVELS - 1 : 8 + (int) (brightness * brightness * (NUM_LEVELS - 9));
+            int color = (rng.nextInt(4) == 0) ? 1 + rng.nextInt(STAR_COLORS.length - 1) : 0;
+
+            //Place the star with room for its rays inside the tile
+            int margin = rayLength + starSize;
+            if (tileWidth <= margin * 2 || tileHeight <= margin * 2)
+            {
+                continue;
+            }
+            int starX = margin + (int) (rng.nextDouble() * (tileWidth - margin * 2));
+            int starY = margin + (int) (rng.nextDouble() * (tileHeight - margin * 2));
+
+            //Draw the rays fading out from the star, then the star itself
+            for (int ray = 1; ray <= rayLength; ray++)
+            {
+                int rayLevel = level * (rayLength + 1 - ray)/(rayLength + 2);
+                fillSquare(pixels, starX + ray, starY, starSize, color, rayLevel);
+                fillSquare(pixels, starX - ray, starY, starSize, color, rayLevel);
+                fillSquare(pixels, starX, starY + ray, starSize, color, rayLevel);
+                fillSquare(pixels, starX, starY - ray, starSize, color, rayLevel);
+            }
+            fillSquare(pixels, starX, starY, starSize, color, level);
+        }
+        return tile;
+    }
+
+    /**
+     * Fill a square of a tile with a star colour, keeping any brighter pixel already there.
+     * @param pixels The palette indices of the tile.
+     * @param x The x-coordinate position of the square.
+     * @param y The y-coordinate position of the square.
+     * @param size The width and height of the square.
+     * @param color The index of the star colour.
+     * @param level The brightness level (0 - NUM_LEVELS - 1).
+     */
+    private void fillSquare(byte[] pixels, int x, int y, int size, int color, int level)
+    {
+        byte index = (byte) (color * NUM_LEVELS + level);
+        for (int row = y; row < y + size; row++)
+        {
+            for (int column = x; column < x + size; column++)
+            {
+                int i = row * tileWidth + column;
+                if ((pixels[i] & (NUM_LEVELS - 1)) < level)
+                {
+                    pixels[i] = index;
+                }
+            }
+        }
+    }
+
+    /**
+     * Mix the bits of a number, so numbers close together give unrelated seeds.
+     * @param value The number to mix.
+     * @return The mixed number.
+     */
+    private static long mix(long value)
+    {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,251 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class TextureAtlas
+{
+    /** The number of empty pixels kept between sprites, so a sprite never picks up the edge of its neighbour */
+    private static final int PADDING = 1;
+
+    /** The width and height of each page */
+    private int pageSize;
+    /** The graphics configuration the pages are made compatible with, null when running headless */
+    private GraphicsConfiguration graphicsConfiguration;
+    /** The scale of the sprites in the atlas, 1.0 for sprites at their own size */
+    private double scale;
+
+    /** The images holding the packed sprites */
+    private ArrayList<BufferedImage> pages;
+    /** The free rectangles of each page, which may overlap, every empty area of a page is in at least one */
+    private ArrayList<ArrayList<Rectangle>> freeRects;
+    /** The sprites of each ImageLoader handle in sequence order, kept with the pages they were packed into */
+    private Sprite[][] sprites;
+
+    /**
+     * Create a TextureAtlas that packs many small images into a few large page images. Drawing sprites
+     * from the same page does not switch the source image between draws, and each page is a single surface
+     * for Java2D to cache in video memory rather than one per sprite. Images are placed with the max-rects
+     * algorithm: each page keeps a list of the largest free rectangles left in it, and each image goes into
+     * the free rectangle it fits most tightly (the one leaving the shortest leftover side). A new page is
+     * started when an image fits in none of them.
+     * @param pageSize The width and height of each page.
+     * @param graphicsConfiguration The graphics configuration to make the pages compatible with, or null.
+     */
+    public TextureAtlas(int pageSize, GraphicsConfiguration graphicsConfiguration)
+    {
+        this(pageSize, graphicsConfiguration, 1.0);
+    }
+
+    /**
+     * Create a TextureAtlas for sprites pre-scaled for a screen larger or smaller than the game.
+     * @param pageSize The width and height of each page.
+     * @param graphicsConfiguration The graphics configuration to make the pages compatible with, or null.
+     * @param scale The scale of the sprites that will be packed into the atlas.
+     */
+    public TextureAtlas(int pageSize, GraphicsConfiguration graphicsConfiguration, double scale)
+    {
+        this.pageSize = pageSize;
+        this.graphicsConfiguration = graphicsConfiguration;
+        this.scale = scale;
+        pages = new ArrayList<>();
+        freeRects = new ArrayList<>();
+        sprites = new Sprite[0][];
+    }
+
+    /**
+     * Pack an image into the atlas, copying it into one of the pages.
+     * @param image The image to pack.
+     * @return The Sprite the image can be drawn from, or null if the image is larger than a page.
+     */
+    public Sprite add(BufferedImage image)
+    {
+        //Images larger than a page are left out of the atlas
+        int width = image.getWidth() + PADDING;
+        int height = image.getHeight() + PADDING;
+        if (width > pageSize || height > pageSize)
+        {
+            return null;
+        }
+
+        //Find the tightest free rectangle on any page, starting a new page if none fit
+        Rectangle bestRect = null;
+        int bestPage = -1;
+        int bestShortSide = Integer.MAX_VALUE;
+        int bestLongSide = Integer.MAX_VALUE;
+        for (int page = 0; page < pages.size(); page++)
+        {
+            for (Rectangle freeRect : freeRects.get(page))
+            {
+                if (freeRect.width >= width && freeRect.height >= height)
+                {
+                    int leftoverX = freeRect.width - width;
+                    int leftoverY = freeRect.height - height;
+                    int shortSide = Math.min(leftoverX, leftoverY);
+                    int longSide = Math.max(leftoverX, leftoverY);
+                    if (shortSide < bestShortSide || (shortSide == bestShortSide && longSide < bestLongSide))
+                    {
+                        bestRect = freeRect;
+                        bestPage = page;
+                        bestShortSide = shortSide;
+                        bestLongSide = longSide;
+                    }
+                }
+            }
+        }
+        if (bestRect == null)
+        {
+            bestPage = addPage();
+            bestRect = freeRects.get(bestPage).get(0);
+        }
+
+        //Take the space out of the page and copy the image into it
+        Rectangle used = new Rectangle(bestRect.x, bestRect.y, width, height);
+        place(freeRects.get(bestPage), used);
+        Graphics2D g2d = pages.get(bestPage).createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.drawImage(image, used.x, used.y, null);
+        g2d.dispose();
+        return new Sprite(bestPage, used.x, used.y, image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * Start a new empty page.
+     * @return The index of the new page.
+     */
+    private int addPage()
+    {
+        BufferedImage page;
+        if (graphicsConfiguration != null)
+        {
+            page = graphicsConfiguration.createCompatibleImage(pageSize, pageSize, Transparency.TRANSLUCENT);
+        }
+        else //There is no display to be compatible with
+        {
+            page = new BufferedImage(pageSize, pageSize, BufferedImage.TYPE_INT_ARGB);
+        }
+        pages.add(page);
+        ArrayList<Rectangle> pageFreeRects = new ArrayList<>();
+        pageFreeRects.add(new Rectangle(0, 0, pageSize, pageSize));
+        freeRects.add(pageFreeRects);
+        return pages.size() - 1;
+    }
+
+    /**
+     * Take a used rectangle out of the free rectangles of a page. Every free rectangle it overlaps is replaced
+     * by the up to four largest rectangles left around it, then any free rectangle inside another is dropped.
+     * @param pageFreeRects The free rectangles of the page.
+     * @param used The rectangle being used.
+     */
+    private void place(ArrayList<Rectangle> pageFreeRects, Rectangle used)
+    {
+        //Split every free rectangle the used rectangle overlaps
+        ArrayList<Rectangle> split = new ArrayList<>();
+        for (int i = pageFreeRects.size() - 1; i >= 0; i--)
+        {
+            Rectangle freeRect = pageFreeRects.get(i);
+            if (!freeRect.intersects(used))
+            {
+                continue;
+            }
+            pageFreeRects.remove(i);
+            if (used.x > freeRect.x) //Left
+            {
+                split.add(new Rectangle(freeRect.x, freeRect.y, used.x - freeRect.x, freeRect.height));
+            }
+            if (used.x + used.width < freeRect.x + freeRect.width) //Right
+            {
+                split.add(new Rectangle(used.x + used.width, freeRect.y,
+                        freeRect.x + freeRect.width - used.x - used.width, freeRect.height));
+            }
+            if (used.y > freeRect.y) //Above
+            {
+                split.add(new Rectangle(freeRect.x, freeRect.y, freeRect.width, used.y - freeRect.y));
+            }
+            if (used.y + used.height < freeRect.y + freeRect.height) //Below
+            {
+                split.add(new Rectangle(freeRect.x, used.y + used.height, freeRect.width,
+                        freeRect.y + freeRect.height - used.y - used.height));
+            }
+        }
+        pageFreeRects.addAll(split);
+
+        //Drop the free rectangles that are inside another
+        for (int i = pageFreeRects.size() - 1; i >= 0; i--)
+        {
+            for (int j = 0; j < pageFreeRects.size(); j++)
+            {
+                if (i != j && pageFreeRects.get(j).contains(pageFreeRects.get(i)))
+                {
+                    pageFreeRects.remove(i);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Set the sprites of each ImageLoader handle, so the sprites and the pages they are drawn from are always
+     * found together even when the ImageLoader replaces its atlas.
+     * @param sprites The sprites of each handle in sequence order, null for an image not in the atlas.
+     */
+    public void setSprites(Sprite[][] sprites)
+    {
+        this.sprites = sprites;
+    }
+
+    /**
+     * Get the sprite of an ImageLoader handle.
+     * @param handle The handle of the image, or -1.
+     * @param index The index of the image in its sequence.
+     * @return The Sprite, or null if the image is not in the atlas.
+     */
+    public Sprite getSprite(int handle, int index)
+    {
+        if (handle < 0 || handle >= sprites.length || sprites[handle] == null || index >= sprites[handle].length)
+        {
+            return null;
+        }
+        return sprites[handle][index];
+    }
+
+    /**
+     * Get the image of a page.
+     * @param page The index of the page.
+     * @return The page image.
+     */
+    public BufferedImage getPage(int page)
+    {
+        return pages.get(page);
+    }
+
+    /**
+     * Get the number of pages in the atlas.
+     * @return The number of pages.
+     */
+    public int getNumPages()
+    {
+        return pages.size();
+    }
+
+    /**
+     * Get the scale of the sprites in the atlas.
+     * @return The scale, 1.0 for sprites at their own size.
+     */
+    public double getScale()
+    {
+        return scale;
+    }
+
+    /**
+     * Get the width and height of each page.
+     * @return The page size in pixels.
+     */
+    public int getPageSize()
+    {
+        return pageSize;
+    }
+}
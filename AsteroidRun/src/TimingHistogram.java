@@ -0,0 +1,169 @@
+import java.util.Arrays;
+
+/**
+ * @author Logan Karstetter
+ * Date: 10/17/2026
+ */
+public class TimingHistogram
+{
+    /** The number of bits used to split each power of two into sub-buckets, this sets the precision (~3%) */
+    private static final int SUB_BUCKET_BITS = 5;
+    /** The number of buckets used for the smallest values, each one holds a single value */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /** The number of sub-buckets used for each power of two above SUB_BUCKET_COUNT */
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT/2;
+    /** The largest value that can be recorded (in nanos, ~18 minutes), larger values are clamped */
+    private static final long MAX_VALUE = (1L << 40) - 1;
+
+    /** The number of values recorded in each bucket */
+    private long[] counts;
+    /** The total number of values recorded */
+    private long totalCount;
+    /** The sum of all the values recorded */
+    private long totalSum;
+    /** The largest value recorded */
+    private long maxValue;
+
+    /**
+     * Create a TimingHistogram for recording durations in nanoseconds. Like an HDR histogram, values are
+     * counted in buckets whose width grows with each power of two, so every value is stored with roughly
+     * the same relative precision. Recording a value never allocates and takes a handful of instructions.
+     * Values are recorded by a single thread, other threads may read the results while it records.
+     */
+    public TimingHistogram()
+    {
+        counts = new long[getBucketIndex(MAX_VALUE) + 1];
+    }
+
+    /**
+     * Record a single value.
+     * @param value The value to record (in nanos), negative values are counted as zero.
+     */
+    public void record(long value)
+    {
+        //Clamp the value to the range of the histogram
+        if (value < 0)
+        {
+            value = 0;
+        }
+        else if (value > MAX_VALUE)
+        {
+            value = MAX_VALUE;
+        }
+
+        //Count the value
+        counts[getBucketIndex(value)]++;
+        totalCount++;
+        totalSum = totalSum + value;
+        if (value > maxValue)
+        {
+            maxValue = value;
+        }
+    }
+
+    /**
+     * Remove all of the recorded values.
+     */
+    public void reset()
+    {
+        Arrays.fill(counts, 0L);
+        totalCount = 0L;
+        totalSum = 0L;
+        maxValue = 0L;
+    }
+
+    /**
+     * Get the value below which the given percentage of the recorded values fall.
+     * @param percentile The percentile (0.0 - 100.0).
+     * @return The value at the percentile (in nanos), or zero if nothing has been recorded.
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        //Determine how many values must be counted to reach the percentile
+        long count = totalCount;
+        if (count == 0L)
+        {
+            return 0L;
+        }
+        long countAtPercentile = Math.max(1L, (long) Math.ceil((percentile/100.0) * count));
+
+        //Walk the buckets until enough values have been counted
+        long countSoFar = 0L;
+        for (int i = 0; i < counts.length; i++)
+        {
+            countSoFar = countSoFar + counts[i];
+            if (countSoFar >= countAtPercentile)
+            {
+                //Report the middle of the bucket, but never more than the largest value recorded
+                return Math.min(getBucketMiddle(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Get the mean of the recorded values.
+     * @return The mean (in nanos), or zero if nothing has been recorded.
+     */
+    public double getMean()
+    {
+        long count = totalCount;
+        return count == 0L ? 0.0 : (double) totalSum/count;
+    }
+
+    /**
+     * Get the largest recorded value.
+     * @return The largest value (in nanos).
+     */
+    public long getMax()
+    {
+        return maxValue;
+    }
+
+    /**
+     * Get the number of values recorded.
+     * @return The number of values.
+     */
+    public long getCount()
+    {
+        return totalCount;
+    }
+
+    /**
+     * Get the index of the bucket that counts the given value. Values below SUB_BUCKET_COUNT have a bucket
+     * each, larger values are split into SUB_BUCKET_HALF_COUNT buckets per power of two.
+     * @param value The value, between zero and MAX_VALUE.
+     * @return The index of the bucket.
+     */
+    private static int getBucketIndex(long value)
+    {
+        //Small values are counted exactly
+        if (value < SUB_BUCKET_COUNT)
+        {
+            return (int) value;
+        }
+
+        //Shift the value so that its top SUB_BUCKET_BITS bits select the sub-bucket
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (int) ((value >> shift) - SUB_BUCKET_HALF_COUNT);
+    }
+
+    /**
+     * Get the value in the middle of the range counted by the given bucket.
+     * @param index The index of the bucket.
+     * @return The middle value of the bucket.
+     */
+    private static long getBucketMiddle(int index)
+    {
+        //Small values are counted exactly
+        if (index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+
+        //Undo the shift used by getBucketIndex
+        int shift = (index - SUB_BUCKET_COUNT)/SUB_BUCKET_HALF_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return (subBucket << shift) + (1L << (shift - 1));
+    }
+}